@@ -0,0 +1,118 @@
+package com.acme.fastbook.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.acme.fastbook.test.config.TestRequestConstant;
+
+/**
+ * Integration test to test that requests received by the embedded Tomcat are
+ * executed by virtual threads when
+ * {@code fastbook-config.execution-config.virtual-threads-enabled} is set. It
+ * is compiled and run by the jdk21 profile only.
+ *
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "fastbook-config.execution-config.virtual-threads-enabled=true",
+    "spring.datasource.url=jdbc:h2:mem:fastbookdb-virtual-threads;DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+public class VirtualThreadsIT {
+
+  /** Number of requests sent */
+  private static final int REQUEST_COUNT = 10;
+
+  /** Threads which handled requests, in the order of requests */
+  private static final List<Thread> HANDLER_THREADS = new CopyOnWriteArrayList<>();
+
+  /** Client of the application on its random port */
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  /**
+   * Tests that every request is handled by a virtual thread
+   *
+   * @throws ReflectiveOperationException if the runtime does not support
+   *                                      virtual threads
+   */
+  @Test
+  public void testRequestsRunOnVirtualThreads() throws ReflectiveOperationException {
+
+    HANDLER_THREADS.clear();
+
+    for (int i = 0; i < REQUEST_COUNT; i++) {
+      final ResponseEntity<String> response = restTemplate.getForEntity(
+          "/fastbook/booking-item/{bookingItemId}/get-reservations", String.class,
+          TestRequestConstant.BOOKING_ITEM_IDS[0]);
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    assertEquals(REQUEST_COUNT, HANDLER_THREADS.size());
+    for (Thread thread : HANDLER_THREADS) {
+      assertTrue(String.format("Request is expected to run on a virtual thread, got [%s].", thread),
+          isVirtual(thread));
+    }
+  }
+
+  /**
+   * Checks if the thread is virtual. Test sources are compiled for Java 8, so
+   * the method is called by reflection.
+   *
+   * @param thread thread to be checked
+   *
+   * @return true if the thread is virtual
+   *
+   * @throws ReflectiveOperationException if the runtime does not support
+   *                                      virtual threads
+   */
+  private static boolean isVirtual(final Thread thread) throws ReflectiveOperationException {
+    return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+  }
+
+  /**
+   * Test configuration recording threads handling requests
+   */
+  @TestConfiguration
+  static class HandlerThreadsConfig implements WebMvcConfigurer {
+
+    /**
+     * Records the thread of every handled request
+     *
+     * @param registry registry of interceptors
+     */
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+      registry.addInterceptor(new HandlerInterceptor() {
+        @Override
+        public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+            final Object handler) {
+          HANDLER_THREADS.add(Thread.currentThread());
+          return true;
+        }
+      });
+    }
+  }
+}
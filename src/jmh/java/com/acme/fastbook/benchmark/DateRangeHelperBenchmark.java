@@ -0,0 +1,128 @@
+package com.acme.fastbook.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.acme.fastbook.model.BookingItem;
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.helper.DateRangeHelper;
+
+/**
+ * Benchmarks of {@link DateRangeHelper} methods used by every availability
+ * search and reservation request
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateRangeHelperBenchmark {
+
+  /** Booking item with checkin and checkout times */
+  private BookingItem bookingItem;
+
+  /** Start of the search range */
+  private ZonedDateTime startRange;
+
+  /** End of the search range */
+  private ZonedDateTime endRange;
+
+  /**
+   * Prepares the booking item and the search range
+   */
+  @Setup
+  public void setup() {
+    startRange = ZonedDateTime.of(2030, 1, 1, 0, 1, 0, 0, ZoneOffset.UTC);
+    endRange = startRange.plusDays(30);
+
+    bookingItem = new BookingItem();
+    bookingItem.setId(UUID.randomUUID());
+    bookingItem.setBaseDailyCost(new BigDecimal("499.99"));
+    bookingItem.setCheckinTime(LocalTime.of(0, 1));
+    bookingItem.setCheckoutTime(LocalTime.of(0, 0));
+  }
+
+  /**
+   * Transforms reserved ranges into available ranges
+   * 
+   * @param ranges search range and reserved ranges
+   * 
+   * @return available ranges
+   */
+  @Benchmark
+  public List<DateRange> transformReservedRangesIntoAvailableRanges(final ReservedRanges ranges) {
+    return DateRangeHelper.transformReservedRangesIntoAvailableRanges(ranges.startRange, ranges.endRange,
+        ranges.reservedRanges);
+  }
+
+  /**
+   * Adjusts the search range to checkin and checkout times of the booking item
+   * 
+   * @return adjusted range
+   */
+  @Benchmark
+  public DateRange adjustToCheckinCheckoutConfiguredTime() {
+    return DateRangeHelper.adjustToCheckinCheckoutConfiguredTime(bookingItem, startRange, endRange);
+  }
+
+  /**
+   * Search range with a varying number of reserved ranges
+   */
+  @State(Scope.Benchmark)
+  public static class ReservedRanges {
+
+    /** Number of reserved ranges within the search range */
+    @Param({ "1", "10", "100", "1000" })
+    private int reservationCount;
+
+    /** Start of the search range */
+    private ZonedDateTime startRange;
+
+    /** End of the search range */
+    private ZonedDateTime endRange;
+
+    /**
+     * Reserved ranges ordered by start date, one night each with a free night
+     * between
+     */
+    private List<DateRange> reservedRanges;
+
+    /**
+     * Prepares the search range and reserved ranges
+     */
+    @Setup
+    public void setup() {
+      startRange = ZonedDateTime.of(2030, 1, 1, 0, 1, 0, 0, ZoneOffset.UTC);
+      endRange = startRange.plusDays(2L * reservationCount + 1);
+
+      reservedRanges = new ArrayList<>(reservationCount);
+      for (int i = 0; i < reservationCount; i++) {
+        final ZonedDateTime start = startRange.plusDays(2L * i + 1);
+        reservedRanges.add(new DateRange(start, start.plusDays(1).minusMinutes(1)));
+      }
+    }
+  }
+
+}
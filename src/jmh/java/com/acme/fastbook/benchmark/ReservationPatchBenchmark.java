@@ -0,0 +1,139 @@
+package com.acme.fastbook.benchmark;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationModelMapper;
+import com.acme.fastbook.model.ReservationModelMapperImpl;
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+
+/**
+ * Benchmarks of the step of
+ * {@link ReservationPersistenceService#checkDatesAndUpdate} which copies
+ * non-null properties of the update request to the reservation read from DB:
+ * the generated {@link ReservationModelMapper#patch} against the reflective
+ * copy it replaced.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationPatchBenchmark {
+
+  /** Generated mapper */
+  private final ReservationModelMapper modelMapper = new ReservationModelMapperImpl();
+
+  /** Update request: new dates of the reservation */
+  private Reservation patch;
+
+  /** Reservation as it is read from DB */
+  private Reservation reservationFromDb;
+
+  /**
+   * Prepares reservations
+   */
+  @Setup
+  public void setup() {
+    final ZonedDateTime start = ZonedDateTime.now(ZoneOffset.UTC).plusDays(3);
+
+    reservationFromDb = new Reservation(UUID.randomUUID(), UUID.randomUUID(), ReservationStatus.ACTIVE, "John Doe",
+        "john.doe@world.com", new DateRange(start, start.plusDays(1)), new BigDecimal("499.99"), 0L);
+
+    patch = new Reservation();
+    patch.setId(reservationFromDb.getId());
+    patch.setDateRange(new DateRange(start.plusDays(1), start.plusDays(2)));
+  }
+
+  /**
+   * Copies properties by the generated mapper
+   * 
+   * @return updated reservation
+   */
+  @Benchmark
+  public Reservation generatedPatch() {
+    final Reservation target = copyOf(reservationFromDb);
+    modelMapper.patch(patch, target);
+    return target;
+  }
+
+  /**
+   * Copies properties by reflection, the way they were copied before the
+   * generated mapper
+   * 
+   * @return updated reservation
+   * 
+   * @throws Exception if properties can not be introspected
+   */
+  @Benchmark
+  public Reservation reflectiveCopy() throws Exception {
+    final Reservation target = copyOf(reservationFromDb);
+    BeanUtils.copyProperties(patch, target, getPropertyNamesWithNullValues(patch));
+    return target;
+  }
+
+  /**
+   * Creates a shallow copy of the reservation, so every operation updates a
+   * fresh object, like a reservation freshly read from DB
+   * 
+   * @param reservation reservation to be copied
+   * 
+   * @return copy of the reservation
+   */
+  private static Reservation copyOf(final Reservation reservation) {
+    return new Reservation(reservation.getId(), reservation.getBookingItemId(), reservation.getReservationStatus(),
+        reservation.getCustomerName(), reservation.getCustomerEmail(), reservation.getDateRange(),
+        reservation.getDailyCost(), reservation.getVersion());
+  }
+
+  /**
+   * Gets property names of {@code source} which have null values
+   * 
+   * @param source source object
+   * 
+   * @return property names
+   * 
+   * @throws IntrospectionException       if properties can not be introspected
+   * @throws ReflectiveOperationException if a getter can not be invoked
+   */
+  private static String[] getPropertyNamesWithNullValues(final Object source)
+      throws IntrospectionException, ReflectiveOperationException {
+
+    final List<String> nullProperties = new ArrayList<>();
+    for (PropertyDescriptor descriptor : Introspector.getBeanInfo(source.getClass(), Object.class)
+        .getPropertyDescriptors()) {
+      if (descriptor.getReadMethod() != null && descriptor.getReadMethod().invoke(source) == null) {
+        nullProperties.add(descriptor.getName());
+      }
+    }
+    return nullProperties.toArray(new String[0]);
+  }
+
+}
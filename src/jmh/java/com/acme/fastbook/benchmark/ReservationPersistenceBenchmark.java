@@ -0,0 +1,198 @@
+package com.acme.fastbook.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.acme.fastbook.FastbookApplication;
+import com.acme.fastbook.model.BookingItem;
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.persistence.service.BookingItemPersistenceService;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+
+/**
+ * End-to-end benchmark of {@link ReservationPersistenceService#checkDatesAndCreate}
+ * and {@link ReservationPersistenceService#checkDatesAndUpdate} against
+ * in-memory H2 DB, in every write mode.
+ * <p>
+ * Every create operation books a free night: booking items are used in turn,
+ * and each round over all of them moves to later dates. Reservations created
+ * during an iteration are cancelled after it, so the next iteration starts with
+ * the same free nights. Every update operation changes the customer name of one
+ * of the reservations created at startup after all create slots.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationPersistenceBenchmark {
+
+  /** Number of booking items */
+  private static final int BOOKING_ITEMS = 10_000;
+
+  /** Number of non-overlapping reservations per booking item */
+  private static final int SLOTS = 10;
+
+  /** Number of reservations updated in turn */
+  private static final int UPDATED_RESERVATIONS = 1_000;
+
+  /** Excluded statuses used by the application */
+  private static final List<ReservationStatus> EXCLUDED_STATUSES = Collections
+      .singletonList(ReservationStatus.CANCELLED);
+
+  /** Write mode of the application */
+  @Param({ "LOCK", "OCCUPANCY_TABLE" })
+  private String writeMode;
+
+  /** Application context */
+  private ConfigurableApplicationContext context;
+
+  /** Service under test */
+  private ReservationPersistenceService reservationPersistenceService;
+
+  /** IDs of booking items */
+  private final List<UUID> bookingItemIds = new ArrayList<>(BOOKING_ITEMS);
+
+  /** IDs of reservations created during the current iteration */
+  private final List<UUID> createdIds = new ArrayList<>();
+
+  /** IDs of reservations updated in turn */
+  private final List<UUID> updatedIds = new ArrayList<>(UPDATED_RESERVATIONS);
+
+  /** Number of updates done */
+  private int updateCount;
+
+  /** Start of the first slot */
+  private ZonedDateTime firstStart;
+
+  /**
+   * Starts the application with a fresh DB and creates booking items
+   */
+  @Setup(Level.Trial)
+  public void setup() {
+    // Test classes are on the classpath, so the test profile configures persistence
+    context = new SpringApplicationBuilder(FastbookApplication.class).web(WebApplicationType.NONE).profiles("test")
+        .properties("fastbook-config.concurrency-config.write-mode=" + writeMode,
+            "spring.datasource.url=jdbc:h2:mem:benchmark-" + writeMode + ";DB_CLOSE_DELAY=-1",
+            "spring.devtools.restart.enabled=false", "logging.level.root=WARN")
+        .run();
+
+    reservationPersistenceService = context.getBean(ReservationPersistenceService.class);
+    final BookingItemPersistenceService bookingItemPersistenceService = context
+        .getBean(BookingItemPersistenceService.class);
+
+    for (int i = 0; i < BOOKING_ITEMS; i++) {
+      final BookingItem bookingItem = new BookingItem();
+      bookingItem.setId(UUID.randomUUID());
+      bookingItem.setTitle("Benchmark item " + i);
+      bookingItem.setBaseDailyCost(new BigDecimal("499.99"));
+      bookingItem.setCheckinTime(LocalTime.of(0, 1));
+      bookingItem.setCheckoutTime(LocalTime.of(0, 0));
+      bookingItemIds.add(bookingItemPersistenceService.create(bookingItem).getId());
+    }
+
+    firstStart = LocalDate.now(ZoneOffset.UTC).plusDays(2).atTime(0, 1).atZone(ZoneOffset.UTC);
+
+    final ZonedDateTime updatedStart = firstStart.plusDays(3L * SLOTS);
+    for (int i = 0; i < UPDATED_RESERVATIONS; i++) {
+      updatedIds.add(reservationPersistenceService
+          .checkDatesAndCreate(newReservation(bookingItemIds.get(i), updatedStart), EXCLUDED_STATUSES).getId());
+    }
+  }
+
+  /**
+   * Stops the application
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  /**
+   * Cancels reservations created during the iteration
+   */
+  @TearDown(Level.Iteration)
+  public void cancelCreated() {
+    for (UUID reservationId : createdIds) {
+      reservationPersistenceService.cancel(reservationId);
+    }
+    createdIds.clear();
+  }
+
+  /**
+   * Books the next free night
+   * 
+   * @return created reservation
+   */
+  @Benchmark
+  public Reservation checkDatesAndCreate() {
+    final int count = createdIds.size();
+    final UUID bookingItemId = bookingItemIds.get(count % BOOKING_ITEMS);
+    final ZonedDateTime start = firstStart.plusDays(3L * ((count / BOOKING_ITEMS) % SLOTS));
+
+    final Reservation created = reservationPersistenceService
+        .checkDatesAndCreate(newReservation(bookingItemId, start), EXCLUDED_STATUSES);
+    createdIds.add(created.getId());
+    return created;
+  }
+
+  /**
+   * Changes the customer name of the next updated reservation
+   * 
+   * @return updated reservation
+   */
+  @Benchmark
+  public Reservation checkDatesAndUpdate() {
+    final Reservation update = new Reservation();
+    update.setId(updatedIds.get(updateCount % UPDATED_RESERVATIONS));
+    update.setCustomerName("John Doe " + updateCount++);
+
+    return reservationPersistenceService.checkDatesAndUpdate(update, EXCLUDED_STATUSES);
+  }
+
+  /**
+   * Creates a new one night reservation
+   * 
+   * @param bookingItemId booking item ID
+   * @param start         start of the night
+   * 
+   * @return new reservation
+   */
+  private static Reservation newReservation(final UUID bookingItemId, final ZonedDateTime start) {
+    return new Reservation(UUID.randomUUID(), bookingItemId, ReservationStatus.ACTIVE, "John Doe",
+        "john.doe@world.com", new DateRange(start, start.plusDays(1).minusMinutes(1)), new BigDecimal("499.99"),
+        null);
+  }
+
+}
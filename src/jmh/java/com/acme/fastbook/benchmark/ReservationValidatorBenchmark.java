@@ -0,0 +1,104 @@
+package com.acme.fastbook.benchmark;
+
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.model.config.ReservationConfig;
+import com.acme.fastbook.validation.BaseReservationValidator;
+import com.acme.fastbook.validation.ReservationValidator;
+
+/**
+ * Benchmarks of {@link ReservationValidator} with a new reservation request.
+ * Compare with {@link ValidationRunnerBenchmark}; allocations per operation are
+ * reported by the GC profiler as {@code gc.alloc.rate.norm}, which is expected
+ * to be zero for the valid reservation.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationValidatorBenchmark {
+
+  /** Validator under test */
+  private ReservationValidator reservationValidator;
+
+  /** Reservation which passes all validations */
+  private Reservation validReservation;
+
+  /** Reservation which fails all date validations */
+  private Reservation invalidReservation;
+
+  /**
+   * Builds the validator with the default configuration and prepares
+   * reservations
+   */
+  @Setup
+  public void setup() {
+    final ReservationConfig reservationConfig = new ReservationConfig();
+    reservationConfig.setMaxPeriodDays(3);
+    reservationConfig.setMinAdvanceDays(1);
+    reservationConfig.setMaxAdvanceDays(30);
+
+    final FastBookConfig fastBookConfig = new FastBookConfig();
+    fastBookConfig.setReservationConfig(reservationConfig);
+
+    final BaseReservationValidator validator = new BaseReservationValidator();
+    ReflectionTestUtils.setField(validator, "fastBookConfig", fastBookConfig);
+    ReflectionTestUtils.setField(validator, "clock", Clock.systemUTC());
+    validator.buildRules();
+    reservationValidator = validator;
+
+    final ZonedDateTime start = ZonedDateTime.now(ZoneOffset.UTC).plusDays(3);
+
+    validReservation = new Reservation();
+    validReservation.setCustomerName("John Doe");
+    validReservation.setCustomerEmail("john.doe@world.com");
+    validReservation.setDateRange(new DateRange(start, start.plusDays(1)));
+
+    invalidReservation = new Reservation();
+    invalidReservation.setDateRange(new DateRange(start.minusDays(10), start.plusDays(10)));
+  }
+
+  /**
+   * Validates a valid reservation
+   * 
+   * @return error messages
+   */
+  @Benchmark
+  public String validateNewReservationValid() {
+    return reservationValidator.validateNewReservation(validReservation);
+  }
+
+  /**
+   * Validates an invalid reservation
+   * 
+   * @return error messages
+   */
+  @Benchmark
+  public String validateNewReservationInvalid() {
+    return reservationValidator.validateNewReservation(invalidReservation);
+  }
+
+}
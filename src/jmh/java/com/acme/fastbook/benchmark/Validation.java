@@ -1,4 +1,4 @@
-package com.acme.fastbook.validation;
+package com.acme.fastbook.benchmark;
 
 import java.util.function.Predicate;
 
@@ -7,7 +7,9 @@ import lombok.Getter;
 import lombok.Setter;
 
 /**
- * Class encapsulates validation logic
+ * Class encapsulates validation logic. It was replaced by
+ * {@link com.acme.fastbook.validation.BaseReservationValidator} and is kept as
+ * the baseline of {@link ValidationRunnerBenchmark}.
  * 
  * @author Mykhaylo Symulyk
  *
@@ -1,11 +1,12 @@
-package com.acme.fastbook.validation;
+package com.acme.fastbook.benchmark;
 
 import java.util.List;
 
 import lombok.experimental.UtilityClass;
 
 /**
- * Class encapsulates the methods related to {@link Validation} execution
+ * Class encapsulates the methods related to {@link Validation} execution. It is
+ * kept as the baseline of {@link ValidationRunnerBenchmark}.
  * 
  * @author Mykhaylo Symulyk
  *
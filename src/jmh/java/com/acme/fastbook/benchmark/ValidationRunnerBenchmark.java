@@ -0,0 +1,118 @@
+package com.acme.fastbook.benchmark;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.Reservation;
+
+/**
+ * Benchmarks of {@link ValidationRunner} with the validations applied to a new
+ * reservation request
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationRunnerBenchmark {
+
+  /** Reservation which passes all validations */
+  private Reservation validReservation;
+
+  /** Reservation which fails all date validations */
+  private Reservation invalidReservation;
+
+  /**
+   * Prepares reservations
+   */
+  @Setup
+  public void setup() {
+    final ZonedDateTime start = ZonedDateTime.now(ZoneOffset.UTC).plusDays(3);
+
+    validReservation = new Reservation();
+    validReservation.setCustomerName("John Doe");
+    validReservation.setCustomerEmail("john.doe@world.com");
+    validReservation.setDateRange(new DateRange(start, start.plusDays(1)));
+
+    invalidReservation = new Reservation();
+    invalidReservation.setDateRange(new DateRange(start.minusDays(10), start.plusDays(10)));
+  }
+
+  /**
+   * Runs validations on a valid reservation
+   * 
+   * @return error messages
+   */
+  @Benchmark
+  public String runValidationsValid() {
+    return ValidationRunner.runValidations(validReservation, buildValidations(validReservation));
+  }
+
+  /**
+   * Runs validations on an invalid reservation
+   * 
+   * @return error messages
+   */
+  @Benchmark
+  public String runValidationsInvalid() {
+    return ValidationRunner.runValidations(invalidReservation, buildValidations(invalidReservation));
+  }
+
+  /**
+   * Builds validations the same way as they are built for a new reservation
+   * request: they depend on the current time, so they are built per request
+   * 
+   * @param reservation reservation to be validated
+   * 
+   * @return list of validations
+   */
+  private static List<Validation<Reservation>> buildValidations(final Reservation reservation) {
+
+    final ZonedDateTime currentTime = ZonedDateTime.now();
+    final List<Validation<Reservation>> validations = new ArrayList<>();
+
+    validations.add(new Validation<>(res -> Objects.nonNull(res.getCustomerName()),
+        "Property reservation.customerName must not be Null."));
+    validations.add(new Validation<>(res -> Objects.nonNull(res.getCustomerEmail()),
+        "Property reservation.customerEmail must not be Null."));
+    validations.add(new Validation<>(res -> Objects.nonNull(res.getDateRange().getStartDate()),
+        "Property reservation.startDate must not be Null."));
+    validations.add(new Validation<>(res -> Objects.nonNull(res.getDateRange().getEndDate()),
+        "Property reservation.endDate must not be Null."));
+    validations.add(new Validation<>(
+        res -> ChronoUnit.DAYS.between(currentTime, res.getDateRange().getStartDate()) >= 1,
+        "Reservation.startDate must be at least 1 day(s) in advance."));
+    validations.add(new Validation<>(
+        res -> ChronoUnit.DAYS.between(currentTime, res.getDateRange().getStartDate()) <= 30,
+        "Reservation.startDate must not be more than 30 day(s) in advance."));
+    validations.add(new Validation<>(res -> res.getDateRange().getEndDate().isAfter(currentTime),
+        "Property reservation.endDate must not be in the past."));
+    validations.add(new Validation<>(
+        res -> ChronoUnit.DAYS.between(res.getDateRange().getStartDate(), res.getDateRange().getEndDate()) <= 3,
+        "Property reservation.endDate is beyond maximum stay period 3 days."));
+
+    return validations;
+  }
+
+}
@@ -0,0 +1,50 @@
+package com.acme.fastbook.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import lombok.NonNull;
+
+/**
+ * Pool of threads computing availability of batch requests. It does not
+ * implement {@link java.util.concurrent.Executor}, so that it does not replace
+ * the application task executor which Spring Boot configures only if there is
+ * no executor bean.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public class AvailabilityExecutor {
+
+  /** Underlying thread pool */
+  private final ExecutorService executorService;
+
+  /**
+   * Constructor
+   * 
+   * @param executorService underlying thread pool
+   */
+  public AvailabilityExecutor(final @NonNull ExecutorService executorService) {
+    this.executorService = executorService;
+  }
+
+  /**
+   * Runs the task by a thread of the pool, or by the calling thread if the pool
+   * is busy
+   * 
+   * @param task task to run
+   * 
+   * @return future completed when the task is finished
+   */
+  public CompletableFuture<Void> runAsync(final @NonNull Runnable task) {
+    return CompletableFuture.runAsync(task, executorService);
+  }
+
+  /**
+   * Stops the threads of the pool
+   */
+  public void shutdown() {
+    executorService.shutdown();
+  }
+
+}
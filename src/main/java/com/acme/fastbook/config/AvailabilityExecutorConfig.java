@@ -0,0 +1,58 @@
+package com.acme.fastbook.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.acme.fastbook.model.config.BookingItemConfig;
+import com.acme.fastbook.model.config.FastBookConfig;
+
+/**
+ * Spring configuration of the threads computing availability of batch
+ * requests, shared by all requests
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Configuration
+public class AvailabilityExecutorConfig {
+
+  /**
+   * Pool of threads computing availability of batch requests. The number of
+   * threads is configured by {@link BookingItemConfig}. Their queue is bounded:
+   * when it is full, the request thread computes its own task.
+   * 
+   * @param fastBookConfig application configuration object
+   * 
+   * @return {@link AvailabilityExecutor} bean
+   */
+  @Bean(destroyMethod = "shutdown")
+  public AvailabilityExecutor availabilityExecutor(final FastBookConfig fastBookConfig) {
+    final int nbThreads = Math.max(1, fastBookConfig.getBookingItemConfig().getAvailabilityBatchThreads());
+    return new AvailabilityExecutor(new ThreadPoolExecutor(nbThreads, nbThreads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(nbThreads * 4), new AvailabilityThreadFactory(),
+        new ThreadPoolExecutor.CallerRunsPolicy()));
+  }
+
+  /**
+   * Factory of daemon threads computing availability
+   */
+  private static class AvailabilityThreadFactory implements ThreadFactory {
+
+    /** Number of the next thread */
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, "availability-batch-" + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+}
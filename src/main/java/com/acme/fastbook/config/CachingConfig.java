@@ -0,0 +1,54 @@
+package com.acme.fastbook.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.acme.fastbook.model.config.CacheConfig;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Spring configuration of application caches. Caches are bounded Caffeine
+ * caches which record statistics, so hit and miss counts are reported by
+ * actuator metrics.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Configuration
+@EnableCaching
+public class CachingConfig {
+
+  /** Name of the cache of booking items by ID */
+  public static final String BOOKING_ITEM_CACHE = "booking-item";
+
+  /** Name of the cache of the list of all booking items */
+  public static final String ALL_BOOKING_ITEMS_CACHE = "all-booking-items";
+
+  /**
+   * Cache manager of booking item caches. Size and time to live are configured
+   * by {@link CacheConfig}.
+   * 
+   * @param fastBookConfig application configuration object
+   * 
+   * @return {@link CacheManager} bean
+   */
+  @Bean
+  public CacheManager cacheManager(final FastBookConfig fastBookConfig) {
+
+    final CacheConfig cacheConfig = fastBookConfig.getCacheConfig();
+
+    final CaffeineCacheManager cacheManager = new CaffeineCacheManager(BOOKING_ITEM_CACHE, ALL_BOOKING_ITEMS_CACHE);
+    cacheManager.setCaffeine(Caffeine.newBuilder()
+        .maximumSize(cacheConfig.getBookingItemCacheMaxSize())
+        .expireAfterWrite(cacheConfig.getBookingItemCacheTtlMinutes(), TimeUnit.MINUTES)
+        .recordStats());
+    return cacheManager;
+  }
+
+}
@@ -0,0 +1,29 @@
+package com.acme.fastbook.config;
+
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration of the application clock. Components which depend on
+ * the current time get it from the {@link Clock} bean, so it can be replaced in
+ * tests and benchmarks.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Configuration
+public class ClockConfig {
+
+  /**
+   * Application clock
+   * 
+   * @return UTC system {@link Clock}
+   */
+  @Bean
+  public Clock clock() {
+    return Clock.systemUTC();
+  }
+
+}
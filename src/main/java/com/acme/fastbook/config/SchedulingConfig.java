@@ -0,0 +1,23 @@
+package com.acme.fastbook.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Spring configuration enabling scheduled jobs. Scheduling is only enabled
+ * together with the archiver, the event log or the reservation index, the only
+ * scheduled jobs of the application. Since scheduling is shared, each job
+ * checks its own flag.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnExpression("${fastbook-config.archive-config.enabled:false} "
+    + "or ${fastbook-config.event-log-config.enabled:false} "
+    + "or ${fastbook-config.cache-config.reservation-index-enabled:false}")
+public class SchedulingConfig {
+
+}
@@ -0,0 +1,85 @@
+package com.acme.fastbook.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spring configuration executing requests by virtual threads. Requests blocked
+ * on JDBC or on a booking item lock park their virtual thread only, so slow
+ * writes can not exhaust the threads serving availability reads.
+ * <p>
+ * The application is compiled for Java 8, so the virtual thread executor is
+ * created by reflection. Startup fails if the runtime does not support virtual
+ * threads.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "fastbook-config.execution-config.virtual-threads-enabled", havingValue = "true")
+public class VirtualThreadsConfig implements WebMvcConfigurer {
+
+  /** Executor starting a new virtual thread for every task */
+  private ExecutorService virtualThreadExecutor;
+
+  /**
+   * Creates the virtual thread executor
+   */
+  @PostConstruct
+  public void createExecutor() {
+    try {
+      virtualThreadExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(String.format("Virtual threads require Java 21 or later, running on Java %s.",
+          System.getProperty("java.version")), e);
+    }
+    log.info("Requests are executed by virtual threads");
+  }
+
+  /**
+   * Replaces the thread pool of Tomcat connector by the virtual thread executor
+   * 
+   * @return customized bean {@link TomcatProtocolHandlerCustomizer}
+   */
+  @Bean
+  public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+    return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+  }
+
+  /**
+   * Executes asynchronous parts of requests, e.g. streamed responses, by the
+   * virtual thread executor
+   * 
+   * @param configurer Spring MVC async support configurer
+   */
+  @Override
+  public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+    configurer.setTaskExecutor(new ConcurrentTaskExecutor(virtualThreadExecutor));
+  }
+
+  /**
+   * Stops the virtual thread executor. Tomcat does not stop an executor it did
+   * not create.
+   */
+  @PreDestroy
+  public void shutdownExecutor() {
+    virtualThreadExecutor.shutdown();
+  }
+
+}
@@ -1,25 +1,54 @@
 package com.acme.fastbook.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.acme.fastbook.config.AvailabilityExecutor;
 import com.acme.fastbook.config.MathContextConf;
+import com.acme.fastbook.exception.BookingItemBusyException;
 import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.exception.ReservationConflictException;
+import com.acme.fastbook.exception.ReservationTimeoutException;
+import com.acme.fastbook.metrics.ReservationMetrics;
 import com.acme.fastbook.model.BookingItem;
 import com.acme.fastbook.model.DateRange;
 import com.acme.fastbook.model.Reservation;
@@ -27,12 +56,23 @@ import com.acme.fastbook.model.ReservationModelMapper;
 import com.acme.fastbook.model.ReservationStatus;
 import com.acme.fastbook.model.api.AvailabilityDatesRequest;
 import com.acme.fastbook.model.api.AvailabilityDatesResponse;
+import com.acme.fastbook.model.api.BatchAvailabilityDatesRequest;
+import com.acme.fastbook.model.api.BatchReservationRequest;
+import com.acme.fastbook.model.api.BatchReservationResult;
+import com.acme.fastbook.model.api.ErrorStatus;
+import com.acme.fastbook.model.api.ReservationPage;
 import com.acme.fastbook.model.config.FastBookConfig;
 import com.acme.fastbook.model.helper.DateRangeHelper;
+import com.acme.fastbook.persistence.index.AvailabilitySnapshotCache;
+import com.acme.fastbook.persistence.index.BookingItemVersionRegistry;
+import com.acme.fastbook.persistence.service.BatchCreationResult;
 import com.acme.fastbook.persistence.service.BookingItemPersistenceService;
 import com.acme.fastbook.persistence.service.ReservationPersistenceService;
-import com.acme.fastbook.validation.Validation;
-import com.acme.fastbook.validation.ValidationRunner;
+import com.acme.fastbook.validation.ReservationValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 /**
  * Controller related to Booking Item requests
@@ -47,6 +87,9 @@ public class BookingItemController {
   /** Hundred (100) as BigDecimal */
   private static final BigDecimal HUNDRED = new BigDecimal("100");
 
+  /** Separator of start date and id in the page cursor */
+  private static final String CURSOR_SEPARATOR = "_";
+
   /** {@link ReservationPersistenceService} object */
   @Autowired
   private ReservationPersistenceService reservationPersistenceService;
@@ -63,6 +106,34 @@ public class BookingItemController {
   @Autowired
   private ReservationModelMapper reservationModelMapper;
 
+  /** Cache of computed availability responses */
+  @Autowired
+  private AvailabilitySnapshotCache availabilitySnapshotCache;
+
+  /** Jackson's ObjectMapper used to write streamed responses */
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  /** Metrics of reservation hot paths */
+  @Autowired
+  private ReservationMetrics reservationMetrics;
+
+  /** Validator of reservation requests */
+  @Autowired
+  private ReservationValidator reservationValidator;
+
+  /** Registry of booking item versions used to build ETags */
+  @Autowired
+  private BookingItemVersionRegistry bookingItemVersionRegistry;
+
+  /** Application clock */
+  @Autowired
+  private Clock clock;
+
+  /** Pool of threads computing availability of batch requests */
+  @Autowired
+  private AvailabilityExecutor availabilityExecutor;
+
   /**
    * Endpoint to submit a new reservation
    * 
@@ -71,6 +142,119 @@ public class BookingItemController {
   @PostMapping(value = "/{bookingItemId}/book", consumes = "application/json", produces = "application/json")
   public Reservation newReservation(@PathVariable UUID bookingItemId, @RequestBody Reservation reservation) {
 
+    prepareNewReservation(bookingItemId, reservation);
+
+    return reservationPersistenceService.checkDatesAndCreate(reservation, Arrays.asList(ReservationStatus.CANCELLED));
+  }
+
+  /**
+   * Endpoint to submit many reservations at once, possibly for different booking
+   * items. Every reservation gets its own result: it is either created, or
+   * rejected because it is invalid or its dates are not available. Reservations
+   * of the same booking item are checked against each other in the order of the
+   * request. Reservations of each booking item are written in their own
+   * transaction: if writing them fails, they get an error result, while
+   * reservations of other booking items are still created. Request with more
+   * reservations than configured, or with a Null reservation, is rejected as a
+   * whole before any reservation is processed.
+   * 
+   * @param batchRequest request object
+   * 
+   * @return list of results in the order of requested reservations
+   */
+  @PostMapping(value = "/book:batch", consumes = "application/json", produces = "application/json")
+  public List<BatchReservationResult> newReservations(@RequestBody BatchReservationRequest batchRequest) {
+
+    if (Objects.isNull(batchRequest.getReservations()) || batchRequest.getReservations().isEmpty()) {
+      throw new InvalidRequestException("Property reservations must not be empty.");
+    }
+
+    final int maxReservations = fastBookConfig.getBookingItemConfig().getBookBatchMaxReservations();
+
+    if (batchRequest.getReservations().size() > maxReservations) {
+      throw new InvalidRequestException(String.format("At most [%d] reservations can be requested, got [%d].",
+          maxReservations, batchRequest.getReservations().size()));
+    }
+
+    if (batchRequest.getReservations().contains(null)) {
+      throw new InvalidRequestException("Property reservations must not contain Null elements.");
+    }
+
+    final List<BatchReservationResult> results = new ArrayList<>(batchRequest.getReservations().size());
+    final List<Reservation> validReservations = new ArrayList<>(batchRequest.getReservations().size());
+
+    for (Reservation reservation : batchRequest.getReservations()) {
+      try {
+        if (Objects.isNull(reservation.getBookingItemId()) || Objects.isNull(reservation.getDateRange())) {
+          throw new InvalidRequestException("Properties reservation.bookingItemId and dateRange must not be Null.");
+        }
+        prepareNewReservation(reservation.getBookingItemId(), reservation);
+        validReservations.add(reservation);
+        results.add(new BatchReservationResult(reservation, null, null));
+      } catch (InvalidRequestException ex) {
+        results.add(new BatchReservationResult(reservation, ErrorStatus.BAD_REQUEST, ex.getMessage()));
+      }
+    }
+
+    final BatchCreationResult creationResult = reservationPersistenceService
+        .checkDatesAndCreateAll(validReservations, Arrays.asList(ReservationStatus.CANCELLED));
+    final Map<UUID, Reservation> createdById = creationResult.getCreated().stream()
+        .collect(Collectors.toMap(Reservation::getId, Function.identity()));
+
+    for (BatchReservationResult result : results) {
+      if (Objects.isNull(result.getErrorStatus())) {
+        final Reservation created = createdById.get(result.getReservation().getId());
+        final RuntimeException failure = creationResult.getFailures()
+            .get(result.getReservation().getBookingItemId());
+
+        if (Objects.nonNull(created)) {
+          result.setReservation(created);
+        } else if (Objects.nonNull(failure)) {
+          result.setErrorStatus(toErrorStatus(failure));
+          result.setMessage(String.format("Reservation is not created: reservations of BookingItem with id = [%s] "
+              + "could not be written.", result.getReservation().getBookingItemId()));
+        } else {
+          result.setErrorStatus(ErrorStatus.BAD_REQUEST);
+          result.setMessage(String.format(InvalidRequestException.DATES_NOT_AVAILABLE_MSG,
+              result.getReservation().getDateRange().getStartDate(),
+              result.getReservation().getDateRange().getEndDate()));
+        }
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Gets the error status of a failed write, as it would be reported for a
+   * single reservation
+   * 
+   * @param failure exception thrown by the write
+   * 
+   * @return error status
+   */
+  private static ErrorStatus toErrorStatus(final RuntimeException failure) {
+    if (failure instanceof InvalidRequestException) {
+      return ErrorStatus.BAD_REQUEST;
+    } else if (failure instanceof ReservationConflictException) {
+      return ErrorStatus.CONFLICT;
+    } else if (failure instanceof BookingItemBusyException) {
+      return ErrorStatus.TOO_MANY_REQUESTS;
+    } else if (failure instanceof ReservationTimeoutException) {
+      return ErrorStatus.SERVICE_UNAVAILABLE;
+    }
+    return ErrorStatus.INTERNAL_SERVER_ERROR;
+  }
+
+  /**
+   * Validates the new reservation and sets up its ID, booking item, status, cost
+   * and dates adjusted to checkin/checkout times of the booking item
+   * 
+   * @param bookingItemId booking item ID
+   * @param reservation   new reservation
+   */
+  private void prepareNewReservation(final UUID bookingItemId, final Reservation reservation) {
+
     final Optional<BookingItem> bookingItemOpt = bookingItemPersistenceService.findById(bookingItemId);
 
     final BookingItem bookingItem = bookingItemOpt
@@ -99,38 +283,153 @@ public class BookingItemController {
     reservation.setDateRange(adjustedDateRange);
     reservation.setReservationStatus(ReservationStatus.ACTIVE);
     reservation.setDailyCost(dailyCostWithReduction);
-
-    return reservationPersistenceService.checkDatesAndCreate(reservation, Arrays.asList(ReservationStatus.CANCELLED));
   }
 
   /**
-   * Gets a list of all {@link Reservation}-s for the given {@code bookingItemId}
+   * Gets a list of all {@link Reservation}-s for the given {@code bookingItemId}.
+   * Response has a strong ETag that changes with every write of the booking item
+   * reservations. If it matches the If-None-Match request header, 304 Not
+   * Modified is returned without reading the booking item or reservations. The
+   * wildcard header is checked only once the booking item is found.
    * 
    * @param bookingItemId booking item ID
+   * @param webRequest    current request
    * 
-   * @return list of found Reservations
+   * @return list of found Reservations, or null if not modified
    */
   @GetMapping(value = "/{bookingItemId}/get-reservations", produces = "application/json")
-  public List<Reservation> getAllReservations(@PathVariable UUID bookingItemId) {
+  public List<Reservation> getAllReservations(@PathVariable UUID bookingItemId, WebRequest webRequest) {
+
+    final Optional<String> eTag = bookingItemVersionRegistry.getVersion(bookingItemId);
+
+    if (checkNotModified(webRequest, eTag, false)) {
+      return null;
+    }
 
     final BookingItem bookingItem = bookingItemPersistenceService.findById(bookingItemId)
         .orElseThrow(() -> new InvalidRequestException(
             String.format("BookingItem with id = [%s] is not found.", bookingItemId.toString())));
 
+    if (checkNotModified(webRequest, eTag, true)) {
+      return null;
+    }
+
     return reservationPersistenceService.getAllReservationsForBookingItemId(bookingItem.getId());
   }
 
   /**
-   * Gets availability dates for a given bookingItemId
+   * Gets a page of {@link Reservation}-s for the given {@code bookingItemId}
+   * ordered by start date and id. Pages are requested by the cursor of the
+   * previous page, so that a page is read from DB without reading the preceding
+   * reservations.
+   * 
+   * @param bookingItemId booking item ID
+   * @param pageSize      number of reservations in the page, default is
+   *                      configured
+   * @param cursor        cursor returned with the previous page, or null for the
+   *                      first page
+   * 
+   * @return page of Reservations with the cursor of the next page
+   */
+  @GetMapping(value = "/{bookingItemId}/get-reservations-page", produces = "application/json")
+  public ReservationPage getReservationsPage(@PathVariable UUID bookingItemId,
+      @RequestParam(name = "page-size", required = false) Integer pageSize,
+      @RequestParam(name = "cursor", required = false) String cursor) {
+
+    final int maxPageSize = fastBookConfig.getBookingItemConfig().getReservationsMaxPageSize();
+    final int limit = Objects.nonNull(pageSize) ? pageSize
+        : fastBookConfig.getBookingItemConfig().getReservationsPageSize();
+
+    if (limit < 1 || limit > maxPageSize) {
+      throw new InvalidRequestException(String.format("Page size must be between 1 and %d.", maxPageSize));
+    }
+
+    final BookingItem bookingItem = bookingItemPersistenceService.findById(bookingItemId)
+        .orElseThrow(() -> new InvalidRequestException(
+            String.format("BookingItem with id = [%s] is not found.", bookingItemId.toString())));
+
+    final Optional<Reservation> after = Optional.ofNullable(cursor).map(BookingItemController::decodeCursor);
+
+    // Read one more reservation to find out if there is a next page
+    final List<Reservation> reservations = reservationPersistenceService.getReservationsPageForBookingItemId(
+        bookingItem.getId(), after.map(res -> res.getDateRange().getStartDate()).orElse(null),
+        after.map(Reservation::getId).orElse(null), limit + 1);
+
+    if (reservations.size() <= limit) {
+      return new ReservationPage(reservations, null);
+    }
+
+    final List<Reservation> page = reservations.subList(0, limit);
+    return new ReservationPage(page, encodeCursor(page.get(limit - 1)));
+  }
+
+  /**
+   * Streams all {@link Reservation}-s for the given {@code bookingItemId}
+   * ordered by start date and id as newline delimited JSON. Reservations are
+   * written as they are read from DB, so memory use does not depend on the
+   * number of reservations.
+   * 
+   * @param bookingItemId booking item ID
+   * 
+   * @return streamed reservations, one JSON object per line
+   */
+  @GetMapping(value = "/{bookingItemId}/reservations:stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamAllReservations(@PathVariable UUID bookingItemId) {
+
+    final BookingItem bookingItem = bookingItemPersistenceService.findById(bookingItemId)
+        .orElseThrow(() -> new InvalidRequestException(
+            String.format("BookingItem with id = [%s] is not found.", bookingItemId.toString())));
+
+    // Flush is left to the response buffer rather than done after every line
+    final ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    final StreamingResponseBody body = outputStream -> {
+      final JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+      generator.setRootValueSeparator(null);
+
+      try {
+        reservationPersistenceService.forEachReservationForBookingItemId(bookingItem.getId(), reservation -> {
+          try {
+            writer.writeValue(generator, reservation);
+            generator.writeRaw('\n');
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+
+      generator.flush();
+    };
+
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  /**
+   * Gets availability dates for a given bookingItemId. Response has a strong
+   * ETag that changes with every write of the booking item reservations and
+   * depends on the requested range. If it matches the If-None-Match request
+   * header, 304 Not Modified is returned without reading the booking item or
+   * reservations. The wildcard header is checked only once the booking item is
+   * found.
    * 
    * @param bookingItemId            booking item ID
    * @param availabilityDatesRequest request object
+   * @param webRequest               current request
    * 
-   * @return response with the list of available dates
+   * @return response with the list of available dates, or null if not modified
    */
   @GetMapping(value = "/{bookingItemId}/get-availability-dates", consumes = "application/json", produces = "application/json")
   public AvailabilityDatesResponse getAvailabilityDates(@PathVariable UUID bookingItemId,
-      @RequestBody AvailabilityDatesRequest availabilityDatesRequest) {
+      @RequestBody AvailabilityDatesRequest availabilityDatesRequest, WebRequest webRequest) {
+
+    final Optional<String> eTag = bookingItemVersionRegistry.getVersion(bookingItemId)
+        .map(version -> buildAvailabilityETag(version, availabilityDatesRequest.getDateRange()));
+
+    if (checkNotModified(webRequest, eTag, false)) {
+      return null;
+    }
 
     final Optional<BookingItem> bookingItemOpt = bookingItemPersistenceService.findById(bookingItemId);
 
@@ -139,95 +438,314 @@ public class BookingItemController {
           String.format("BookingItem with id = [%s] is not found.", bookingItemId.toString()));
     }
 
-    final BookingItem bookingItem = bookingItemOpt.get();
+    if (checkNotModified(webRequest, eTag, true)) {
+      return null;
+    }
 
-    int defaultSearchPeriod = fastBookConfig.getBookingItemConfig().getAvailabilityRangeDays();
+    final DateRange adjustedDateRange = adjustSearchRange(bookingItemOpt.get(),
+        availabilityDatesRequest.getDateRange());
 
-    final ZonedDateTime startRange = availabilityDatesRequest.getDateRange().getStartDate();
+    // Serve the snapshot computed from the calendar if it covers the search range,
+    // otherwise compute available ranges from reserved ones
+    return reservationMetrics.recordAvailability(
+        () -> availabilitySnapshotCache.getAvailability(bookingItemId, adjustedDateRange)
+            .orElseGet(() -> new AvailabilityDatesResponse(bookingItemId,
+                findAvailableRangesFromReservations(bookingItemId, adjustedDateRange))));
+  }
 
-    final ZonedDateTime endRange = Objects.nonNull(availabilityDatesRequest.getDateRange().getEndDate())
-        ? availabilityDatesRequest.getDateRange().getEndDate()
-        : startRange.plusDays(defaultSearchPeriod);
+  /**
+   * Gets availability dates for several booking items within the same date
+   * range. Reservations of booking items not served by the availability cache
+   * are fetched by a single query per chunk of booking items, and available
+   * ranges are computed in parallel by a bounded pool of threads. Response is a
+   * JSON array streamed chunk by chunk. The number of distinct booking items is
+   * limited by configuration.
+   * 
+   * @param batchRequest request object
+   * 
+   * @return streamed list of availability responses in the order of requested
+   *         booking items
+   */
+  @PostMapping(value = "/availability:batch", consumes = "application/json", produces = "application/json")
+  public ResponseEntity<StreamingResponseBody> getBatchAvailabilityDates(
+      @RequestBody BatchAvailabilityDatesRequest batchRequest) {
 
-    // Adjust search range based on BookingItem checkin/checkout DB configured
-    // values
-    final DateRange adjustedDateRange = DateRangeHelper.adjustToCheckinCheckoutConfiguredTime(bookingItem, startRange,
-        endRange);
+    if (Objects.isNull(batchRequest.getBookingItemIds()) || batchRequest.getBookingItemIds().isEmpty()
+        || Objects.isNull(batchRequest.getDateRange()) || Objects.isNull(batchRequest.getDateRange().getStartDate())) {
+      throw new InvalidRequestException("Properties bookingItemIds and dateRange.startDate must be provided.");
+    }
 
-    final List<ReservationStatus> excludeStatuses = Arrays.asList(ReservationStatus.CANCELLED);
+    final LinkedHashSet<UUID> bookingItemIds = new LinkedHashSet<>(batchRequest.getBookingItemIds());
+    final int maxBookingItems = fastBookConfig.getBookingItemConfig().getAvailabilityBatchMaxBookingItems();
+
+    if (bookingItemIds.size() > maxBookingItems) {
+      throw new InvalidRequestException(String.format("At most [%d] booking items can be requested, got [%d].",
+          maxBookingItems, bookingItemIds.size()));
+    }
+
+    // Resolve all booking items before the response is committed
+    final List<BookingItem> bookingItems = new ArrayList<>();
+    for (UUID bookingItemId : bookingItemIds) {
+      bookingItems.add(bookingItemPersistenceService.findById(bookingItemId)
+          .orElseThrow(() -> new InvalidRequestException(
+              String.format("BookingItem with id = [%s] is not found.", bookingItemId.toString()))));
+    }
+
+    final int chunkSize = Math.max(1, fastBookConfig.getBookingItemConfig().getAvailabilityBatchChunkSize());
+
+    final StreamingResponseBody body = outputStream -> {
+      final JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+      generator.writeStartArray();
+
+      for (int from = 0; from < bookingItems.size(); from += chunkSize) {
+        final List<BookingItem> chunk = bookingItems.subList(from, Math.min(from + chunkSize, bookingItems.size()));
 
-    final List<Reservation> reservations = reservationPersistenceService.findAllForBookingItemIdAndWithinDateRange(
-        bookingItemId, adjustedDateRange.getStartDate(), adjustedDateRange.getEndDate(), excludeStatuses);
+        final List<AvailabilityDatesResponse> responses = reservationMetrics
+            .recordAvailability(() -> findAvailability(chunk, batchRequest.getDateRange()));
 
-    final List<DateRange> reservedRanges = reservationModelMapper.extractDateRanges(reservations);
+        for (AvailabilityDatesResponse response : responses) {
+          objectMapper.writeValue(generator, response);
+        }
+        generator.flush();
+      }
 
-    final List<DateRange> availableRanges = DateRangeHelper.transformReservedRangesIntoAvailableRanges(
-        adjustedDateRange.getStartDate(), adjustedDateRange.getEndDate(), reservedRanges);
+      generator.writeEndArray();
+      generator.flush();
+    };
 
-    return new AvailabilityDatesResponse(bookingItemId, availableRanges);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
   }
 
   /**
-   * Validates constraints on {@link Reservation} object and throws an exception
-   * if at least one of the validation failed.
+   * Finds availability of booking items within the requested date range
    * 
-   * @param reservation Reservation object to be validated
+   * @param bookingItems   booking items
+   * @param requestedRange requested search range
+   * 
+   * @return list of availability responses in the order of booking items
    */
-  private void validateReservationOrThrow(final Reservation reservation) {
+  private List<AvailabilityDatesResponse> findAvailability(final List<BookingItem> bookingItems,
+      final DateRange requestedRange) {
+
+    final Map<UUID, DateRange> searchRanges = new HashMap<>();
+    for (BookingItem bookingItem : bookingItems) {
+      searchRanges.put(bookingItem.getId(), adjustSearchRange(bookingItem, requestedRange));
+    }
+
+    final Map<UUID, AvailabilityDatesResponse> snapshots = new ConcurrentHashMap<>();
+    forEachInParallel(bookingItems, bookingItem -> availabilitySnapshotCache
+        .getAvailability(bookingItem.getId(), searchRanges.get(bookingItem.getId()))
+        .ifPresent(snapshot -> snapshots.put(bookingItem.getId(), snapshot)));
+
+    final List<UUID> notCachedIds = bookingItems.stream().map(BookingItem::getId)
+        .filter(id -> !snapshots.containsKey(id)).collect(Collectors.toList());
 
-    final ZonedDateTime currentTime = ZonedDateTime.now();
+    if (!notCachedIds.isEmpty()) {
+      // Single query over the envelope of search ranges: they differ by checkin
+      // and checkout times of booking items
+      final ZonedDateTime envelopeStart = notCachedIds.stream().map(id -> searchRanges.get(id).getStartDate())
+          .min(Comparator.naturalOrder()).get();
+      final ZonedDateTime envelopeEnd = notCachedIds.stream().map(id -> searchRanges.get(id).getEndDate())
+          .max(Comparator.naturalOrder()).get();
 
-    List<Validation<Reservation>> validations = new ArrayList<>();
+      final Map<UUID, List<Reservation>> reservationsById = reservationPersistenceService
+          .findAllForBookingItemIdsAndWithinDateRange(notCachedIds, envelopeStart, envelopeEnd,
+              Arrays.asList(ReservationStatus.CANCELLED));
 
-    // Add validations to the list
-    validations.add(new Validation<>(res -> Objects.nonNull(res.getCustomerName()),
-        "Property reservation.customerName must not be Null."));
-    validations.add(new Validation<>(res -> Objects.nonNull(res.getCustomerEmail()),
-        "Property reservation.customerEmail must not be Null."));
-    validations.add(new Validation<>(res -> Objects.nonNull(res.getDateRange().getStartDate()),
-        "Property reservation.startDate must not be Null."));
-    validations.add(new Validation<>(res -> Objects.nonNull(res.getDateRange().getEndDate()),
-        "Property reservation.endDate must not be Null."));
+      forEachInParallel(notCachedIds, id -> snapshots.put(id, new AvailabilityDatesResponse(id,
+          toAvailableRanges(searchRanges.get(id), reservationsById.get(id)))));
+    }
 
-    // if startDate is present, do below validations
-    if (Objects.nonNull(reservation.getDateRange().getStartDate())) {
-      // check if startDate is not in the past
-      validations.add(new Validation<>(res -> res.getDateRange().getStartDate().isAfter(currentTime),
-          "Property reservation.startDate must not be in the past."));
+    return bookingItems.stream().map(bookingItem -> snapshots.get(bookingItem.getId())).collect(Collectors.toList());
+  }
 
-      // check if startDate is within minimum advance reservation days
-      final int minAdvanceDays = fastBookConfig.getReservationConfig().getMinAdvanceDays();
-      validations.add(new Validation<>(
-          res -> ChronoUnit.DAYS.between(currentTime, res.getDateRange().getStartDate()) >= minAdvanceDays,
-          "Reservation.startDate must be at least " + minAdvanceDays + " day(s) in advance."));
+  /**
+   * Passes every element to the consumer using the threads computing
+   * availability. Elements are split into one slice per thread, and the calling
+   * thread waits for all slices.
+   * 
+   * @param <T>      type of elements
+   * @param elements elements to process
+   * @param consumer consumer of elements; must be thread safe
+   */
+  private <T> void forEachInParallel(final List<T> elements, final Consumer<T> consumer) {
 
-      // check if startDate is within maximum advance reservation days
-      final int maxAdvanceDays = fastBookConfig.getReservationConfig().getMaxAdvanceDays();
-      validations.add(new Validation<>(
-          res -> ChronoUnit.DAYS.between(currentTime, res.getDateRange().getStartDate()) <= maxAdvanceDays,
-          "Reservation.startDate must not be more than " + maxAdvanceDays + " day(s) in advance."));
+    final int nbSlices = Math.min(elements.size(),
+        Math.max(1, fastBookConfig.getBookingItemConfig().getAvailabilityBatchThreads()));
+    final int sliceSize = nbSlices == 0 ? 0 : (elements.size() + nbSlices - 1) / nbSlices;
 
+    final List<CompletableFuture<Void>> slices = new ArrayList<>(nbSlices);
+    for (int from = 0; from < elements.size(); from += sliceSize) {
+      final List<T> slice = elements.subList(from, Math.min(from + sliceSize, elements.size()));
+      slices.add(availabilityExecutor.runAsync(() -> slice.forEach(consumer)));
     }
 
-    // check if startDate is not in the past
-    if (Objects.nonNull(reservation.getDateRange().getEndDate())) {
-      validations.add(new Validation<>(res -> res.getDateRange().getEndDate().isAfter(currentTime),
-          "Property reservation.endDate must not be in the past."));
+    try {
+      CompletableFuture.allOf(slices.toArray(new CompletableFuture[0])).join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
     }
+  }
+
+  /**
+   * Adjusts requested search range to checkin and checkout times of the booking
+   * item. If end date is not provided, default search period is applied.
+   * 
+   * @param bookingItem    booking item
+   * @param requestedRange requested search range
+   * 
+   * @return adjusted search range
+   */
+  private DateRange adjustSearchRange(final BookingItem bookingItem, final DateRange requestedRange) {
+
+    final int defaultSearchPeriod = fastBookConfig.getBookingItemConfig().getAvailabilityRangeDays();
+
+    final ZonedDateTime startRange = requestedRange.getStartDate();
+
+    final ZonedDateTime endRange = Objects.nonNull(requestedRange.getEndDate()) ? requestedRange.getEndDate()
+        : startRange.plusDays(defaultSearchPeriod);
+
+    // Adjust search range based on BookingItem checkin/checkout DB configured
+    // values
+    return DateRangeHelper.adjustToCheckinCheckoutConfiguredTime(bookingItem, startRange, endRange);
+  }
+
+  /**
+   * Builds ETag of availability response. Response depends on the reservations
+   * version, on the requested dates and their time zone (time of day is replaced
+   * by checkin and checkout times), and on the current date which defines the
+   * calendar window.
+   * 
+   * @param version     version of booking item reservations
+   * @param searchRange requested search range
+   * 
+   * @return ETag value
+   */
+  private String buildAvailabilityETag(final String version, final DateRange searchRange) {
+    return version + "." + LocalDate.now(clock.withZone(ZoneOffset.UTC)) + "."
+        + toETagPart(searchRange.getStartDate()) + "." + toETagPart(searchRange.getEndDate());
+  }
+
+  /**
+   * Checks the If-None-Match request header against the ETag. ETags are only
+   * issued for existing booking items, so an ETag is matched before the booking
+   * item is read, while the wildcard, which matches any ETag, is matched only
+   * once the booking item is found.
+   * 
+   * @param webRequest       current request
+   * @param eTag             Optional of the ETag, or an empty Optional if ETags
+   *                         are not issued
+   * @param bookingItemFound whether the booking item has already been found
+   * 
+   * @return true if the response is not modified
+   */
+  private static boolean checkNotModified(final WebRequest webRequest, final Optional<String> eTag,
+      final boolean bookingItemFound) {
+    final boolean wildcard = "*".equals(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH));
+    return eTag.isPresent() && wildcard == bookingItemFound && webRequest.checkNotModified(eTag.get());
+  }
 
-    // check if stay period is not beyond the max value
-    if (Objects.nonNull(reservation.getDateRange().getStartDate())
-        && Objects.nonNull(reservation.getDateRange().getEndDate())) {
-      final int maxStayPeriod = fastBookConfig.getReservationConfig().getMaxPeriodDays();
+  /**
+   * Encodes the key of the reservation as an opaque cursor of the next page
+   * 
+   * @param reservation last reservation of the page
+   * 
+   * @return cursor value
+   */
+  private static String encodeCursor(final Reservation reservation) {
+    final String key = reservation.getDateRange().getStartDate().toInstant() + CURSOR_SEPARATOR
+        + reservation.getId();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+  }
 
-      validations.add(new Validation<>(
-          res -> ChronoUnit.DAYS.between(res.getDateRange().getStartDate(),
-              res.getDateRange().getEndDate()) <= maxStayPeriod,
-          "Property reservation.endDate is beyond maximum stay period " + maxStayPeriod + " days."));
+  /**
+   * Decodes the cursor into the reservation holding the key of the last
+   * reservation of the previous page, that is, its start date and id
+   * 
+   * @param cursor cursor value
+   * 
+   * @return reservation with start date and id only
+   */
+  private static Reservation decodeCursor(final String cursor) {
+    try {
+      final String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      final int separatorIndex = key.indexOf(CURSOR_SEPARATOR);
+
+      final Reservation reservation = new Reservation();
+      reservation.setId(UUID.fromString(key.substring(separatorIndex + 1)));
+      reservation.setDateRange(new DateRange(
+          ZonedDateTime.ofInstant(Instant.parse(key.substring(0, separatorIndex)), ZoneOffset.UTC), null));
+      return reservation;
+    } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+      throw new InvalidRequestException(String.format("Cursor [%s] is not valid.", cursor));
     }
+  }
+
+  /**
+   * Presents requested date as a part of ETag
+   * 
+   * @param dateTime requested date, might be null
+   * 
+   * @return date with time zone ID, or '-' if date is not provided
+   */
+  private static String toETagPart(final ZonedDateTime dateTime) {
+    return (dateTime == null) ? "-" : dateTime.toLocalDate() + dateTime.getZone().getId();
+  }
+
+  /**
+   * Finds available date ranges by searching for periods reserved within the
+   * search range
+   * 
+   * @param bookingItemId booking item ID
+   * @param searchRange   search range
+   * 
+   * @return list of available date ranges
+   */
+  private List<DateRange> findAvailableRangesFromReservations(final UUID bookingItemId, final DateRange searchRange) {
+
+    final List<ReservationStatus> excludeStatuses = Arrays.asList(ReservationStatus.CANCELLED);
+
+    final long[] reservedPeriods = reservationPersistenceService.findReservedPeriods(bookingItemId,
+        searchRange.getStartDate(), searchRange.getEndDate(), excludeStatuses);
+
+    return DateRangeHelper.transformReservedPeriodsIntoAvailableRanges(searchRange.getStartDate(),
+        searchRange.getEndDate(), reservedPeriods);
+  }
+
+  /**
+   * Transforms reservations overlapping with the search range into available
+   * date ranges. Reservations outside of the search range are ignored.
+   * 
+   * @param searchRange  search range
+   * @param reservations reservations of the booking item
+   * 
+   * @return list of available date ranges
+   */
+  private List<DateRange> toAvailableRanges(final DateRange searchRange, final List<Reservation> reservations) {
+
+    final List<Reservation> overlapping = reservations.stream()
+        .filter(res -> !res.getDateRange().getStartDate().isAfter(searchRange.getEndDate())
+            && !res.getDateRange().getEndDate().isBefore(searchRange.getStartDate()))
+        .collect(Collectors.toList());
+
+    final List<DateRange> reservedRanges = reservationModelMapper.extractDateRanges(overlapping);
+
+    return DateRangeHelper.transformReservedRangesIntoAvailableRanges(searchRange.getStartDate(),
+        searchRange.getEndDate(), reservedRanges);
+  }
+
+  /**
+   * Validates constraints on {@link Reservation} object and throws an exception
+   * if at least one of the validation failed.
+   * 
+   * @param reservation Reservation object to be validated
+   */
+  private void validateReservationOrThrow(final Reservation reservation) {
 
-    // Run all validations
-    final String errorMessages = ValidationRunner.runValidations(reservation, validations);
+    final String errorMessages = reservationValidator.validateNewReservation(reservation);
 
     if (!errorMessages.isEmpty()) {
       throw new InvalidRequestException(errorMessages);
@@ -6,11 +6,14 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import com.acme.fastbook.exception.BookingItemBusyException;
 import com.acme.fastbook.exception.BookingItemNotFoundException;
 import com.acme.fastbook.exception.InvalidRequestException;
 import com.acme.fastbook.exception.ProcessingException;
+import com.acme.fastbook.exception.ReservationConflictException;
 import com.acme.fastbook.exception.ReservationCreationException;
 import com.acme.fastbook.exception.ReservationNotFoundException;
+import com.acme.fastbook.exception.ReservationTimeoutException;
 import com.acme.fastbook.exception.ReservationUpdateException;
 import com.acme.fastbook.model.api.ErrorResponse;
 import com.acme.fastbook.model.api.ErrorStatus;
@@ -58,6 +61,50 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
     return handleException(errorResponse, HttpStatus.BAD_REQUEST, exception);
   }
 
+  /**
+   * Exception handler class to handle exceptions of type 'conflict'
+   * 
+   * @param exception exception object
+   * 
+   * @return error response to be returned to the client
+   */
+  @ExceptionHandler({ ReservationConflictException.class })
+  public ResponseEntity<ErrorResponse> handleConflictException(final RuntimeException exception) {
+
+    final ErrorResponse errorResponse = new ErrorResponse(ErrorStatus.CONFLICT, exception.getMessage());
+    return handleException(errorResponse, HttpStatus.CONFLICT, exception);
+  }
+
+  /**
+   * Exception handler class to handle exceptions of type 'too many requests',
+   * thrown when the request is not admitted
+   * 
+   * @param exception exception object
+   * 
+   * @return error response to be returned to the client
+   */
+  @ExceptionHandler({ BookingItemBusyException.class })
+  public ResponseEntity<ErrorResponse> handleTooManyRequestsException(final RuntimeException exception) {
+
+    final ErrorResponse errorResponse = new ErrorResponse(ErrorStatus.TOO_MANY_REQUESTS, exception.getMessage());
+    return handleException(errorResponse, HttpStatus.TOO_MANY_REQUESTS, exception);
+  }
+
+  /**
+   * Exception handler class to handle exceptions of type 'service unavailable',
+   * thrown when the request is given up after its deadline
+   * 
+   * @param exception exception object
+   * 
+   * @return error response to be returned to the client
+   */
+  @ExceptionHandler({ ReservationTimeoutException.class })
+  public ResponseEntity<ErrorResponse> handleServiceUnavailableException(final RuntimeException exception) {
+
+    final ErrorResponse errorResponse = new ErrorResponse(ErrorStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+    return handleException(errorResponse, HttpStatus.SERVICE_UNAVAILABLE, exception);
+  }
+
   /**
    * Handles known 500 exceptions so we can safely return error message to the
    * client
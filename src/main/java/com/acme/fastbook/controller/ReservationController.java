@@ -1,10 +1,7 @@
 package com.acme.fastbook.controller;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,8 +20,7 @@ import com.acme.fastbook.model.ReservationStatus;
 import com.acme.fastbook.model.helper.DateRangeHelper;
 import com.acme.fastbook.persistence.service.BookingItemPersistenceService;
 import com.acme.fastbook.persistence.service.ReservationPersistenceService;
-import com.acme.fastbook.validation.Validation;
-import com.acme.fastbook.validation.ValidationRunner;
+import com.acme.fastbook.validation.ReservationValidator;
 
 /**
  * Controller for requests related to Reservation processing
@@ -43,6 +39,10 @@ public class ReservationController {
   @Autowired
   private ReservationPersistenceService reservationPersistenceService;
 
+  /** Validator of reservation requests */
+  @Autowired
+  private ReservationValidator reservationValidator;
+
   /** {@link BookingItemPersistenceService} object */
   @Autowired
   private BookingItemPersistenceService bookingItemPersistenceService;
@@ -57,11 +57,7 @@ public class ReservationController {
   @PutMapping(value = "/{reservationId}/cancel", produces = "application/json")
   public Reservation cancelReservation(@PathVariable UUID reservationId) {
 
-    final Reservation reservation = new Reservation();
-    reservation.setId(reservationId);
-    reservation.setReservationStatus(ReservationStatus.CANCELLED);
-
-    return reservationPersistenceService.checkDatesAndUpdate(reservation, Collections.emptyList());
+    return reservationPersistenceService.cancel(reservationId);
   }
 
   /**
@@ -101,29 +97,11 @@ public class ReservationController {
    */
   private void validateReservationForUpdateOrThrow(Reservation reservation) {
 
-    List<Validation<Reservation>> validations = new ArrayList<>();
-
-    // Add validations to the list
-    validations.add(new Validation<>(res -> Objects.isNull(res.getId()),
-        "Property reservation.id is not allowed to be updated. It must be Null."));
-    validations.add(new Validation<>(res -> Objects.isNull(res.getBookingItemId()),
-        "Property reservation.bookingItemId is not allowed to be updated. It must be Null."));
-    validations.add(new Validation<>(res -> Objects.isNull(res.getReservationStatus()),
-        "Property reservation.reservationStatus is not allowed to be updated. It must be Null."));
-    validations.add(new Validation<>(res -> Objects.isNull(res.getCustomerName()),
-        "Property reservation.customerName is not allowed to be updated. It must be Null."));
-    validations.add(new Validation<>(res -> Objects.isNull(res.getCustomerEmail()),
-        "Property reservation.customerEmail is not allowed to be updated. It must be Null."));
-    validations.add(new Validation<>(res -> Objects.isNull(res.getDailyCost()),
-        "Property reservation.dailyCost is not allowed to be updated. It must be Null."));
-
-    // Run all validations
-    final String errorMessages = ValidationRunner.runValidations(reservation, validations);
+    final String errorMessages = reservationValidator.validateReservationUpdate(reservation);
 
     if (!errorMessages.isEmpty()) {
       throw new InvalidRequestException(errorMessages);
     }
-
   }
 
 }
@@ -0,0 +1,24 @@
+package com.acme.fastbook.exception;
+
+/**
+ * Exception to be thrown when a new reservation is not admitted because too
+ * many writes of the same booking item are already pending
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public class BookingItemBusyException extends RuntimeException {
+
+  /** Serial version UID */
+  private static final long serialVersionUID = 4127745532417066043L;
+
+  /**
+   * Constructor
+   * 
+   * @param message descriptive message related to the exception
+   */
+  public BookingItemBusyException(final String message) {
+    super(message);
+  }
+
+}
@@ -12,6 +12,13 @@ public class InvalidRequestException extends RuntimeException {
   /** Serial version UID */
   private static final long serialVersionUID = 49061389530479339L;
 
+  /**
+   * Message to format with the start and end dates of a reservation whose dates
+   * are not available
+   */
+  public static final String DATES_NOT_AVAILABLE_MSG = "Reservation can not be created: "
+      + "dates are not available: [%s] - [%s]";
+
   /**
    * Constructor
    * 
@@ -0,0 +1,36 @@
+package com.acme.fastbook.exception;
+
+/**
+ * Exception to be thrown when {@link Reservation} can not be updated because it
+ * keeps being updated concurrently, or because its status does not allow the
+ * change
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public class ReservationConflictException extends RuntimeException {
+
+  /** Serial version UID */
+  private static final long serialVersionUID = -2207360913716052262L;
+
+  /**
+   * Constructor
+   * 
+   * @param message descriptive message
+   */
+  public ReservationConflictException(final String message) {
+    super(message);
+  }
+
+  /**
+   * Constructor to wrap original exception into
+   * {@link ReservationConflictException}
+   * 
+   * @param message descriptive message
+   * @param cause   original exception
+   */
+  public ReservationConflictException(final String message, final Throwable cause) {
+    super(message, cause);
+  }
+
+}
@@ -0,0 +1,24 @@
+package com.acme.fastbook.exception;
+
+/**
+ * Exception to be thrown when a new reservation is given up because it could
+ * not be written within the configured deadline
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public class ReservationTimeoutException extends RuntimeException {
+
+  /** Serial version UID */
+  private static final long serialVersionUID = -6410871598346231270L;
+
+  /**
+   * Constructor
+   * 
+   * @param message descriptive message related to the exception
+   */
+  public ReservationTimeoutException(final String message) {
+    super(message);
+  }
+
+}
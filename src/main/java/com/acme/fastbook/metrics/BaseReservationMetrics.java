@@ -0,0 +1,128 @@
+package com.acme.fastbook.metrics;
+
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.acme.fastbook.exception.BookingItemBusyException;
+import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.exception.ReservationTimeoutException;
+import com.acme.fastbook.model.config.FastBookConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Basic implementation of {@link ReservationMetrics} interface based on
+ * Micrometer. Percentile histograms are enabled by
+ * {@code management.metrics.distribution.percentiles-histogram} property.
+ * <p>
+ * Outcomes are tagged by booking item only if it is enabled by configuration,
+ * since every booking item adds its own time series.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Component
+public class BaseReservationMetrics implements ReservationMetrics {
+
+  /** Micrometer registry */
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  @Override
+  public <T> T recordWrite(final String operation, final UUID bookingItemId, final Supplier<T> action) {
+    return recordWrite(operation, bookingItemId, result -> bookingItemId, action);
+  }
+
+  @Override
+  public <T> T recordWrite(final String operation, final Function<? super T, UUID> bookingItemOf,
+      final Supplier<T> action) {
+    return recordWrite(operation, null, bookingItemOf, action);
+  }
+
+  /**
+   * Times a write of a single reservation and counts its outcome
+   * 
+   * @param <T>           type of the result
+   * @param operation     write operation
+   * @param bookingItemId booking item ID to tag failed writes with, or null
+   * @param bookingItemOf function getting booking item ID from the result
+   * @param action        write to be executed
+   * 
+   * @return result of the action
+   */
+  private <T> T recordWrite(final String operation, final UUID bookingItemId,
+      final Function<? super T, UUID> bookingItemOf, final Supplier<T> action) {
+
+    final Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = MetricNames.OUTCOME_ERROR;
+    UUID outcomeBookingItemId = bookingItemId;
+
+    try {
+      final T result = action.get();
+      outcome = MetricNames.OUTCOME_SUCCESS;
+      outcomeBookingItemId = bookingItemOf.apply(result);
+      return result;
+    } catch (InvalidRequestException ex) {
+      outcome = MetricNames.OUTCOME_REJECTED;
+      throw ex;
+    } catch (BookingItemBusyException | ReservationTimeoutException ex) {
+      outcome = MetricNames.OUTCOME_SHED;
+      throw ex;
+    } finally {
+      sample.stop(meterRegistry.timer(MetricNames.RESERVATION_WRITE, MetricNames.TAG_OPERATION, operation,
+          MetricNames.TAG_OUTCOME, outcome));
+      countOutcome(operation, outcomeBookingItemId, outcome, 1);
+    }
+  }
+
+  @Override
+  public void countOutcome(final String operation, final UUID bookingItemId, final String outcome,
+      final int count) {
+    if (count > 0) {
+      meterRegistry.counter(MetricNames.RESERVATION_OUTCOME, MetricNames.TAG_OPERATION, operation,
+          MetricNames.TAG_OUTCOME, outcome, MetricNames.TAG_BOOKING_ITEM, toTag(bookingItemId)).increment(count);
+    }
+  }
+
+  @Override
+  public void countAdmission(final UUID bookingItemId, final String admission, final int count) {
+    if (count > 0) {
+      meterRegistry.counter(MetricNames.ADMISSION, MetricNames.TAG_OUTCOME, admission, MetricNames.TAG_BOOKING_ITEM,
+          toTag(bookingItemId)).increment(count);
+    }
+  }
+
+  @Override
+  public <T> T recordSearch(final String source, final Supplier<T> action) {
+    return meterRegistry.timer(MetricNames.RESERVATION_SEARCH, MetricNames.TAG_SOURCE, source).record(action);
+  }
+
+  @Override
+  public <T> T recordAvailability(final Supplier<T> action) {
+    return meterRegistry.timer(MetricNames.AVAILABILITY).record(action);
+  }
+
+  /**
+   * Presents booking item ID as a tag value
+   * 
+   * @param bookingItemId booking item ID, might be null
+   * 
+   * @return tag value
+   */
+  private String toTag(final UUID bookingItemId) {
+    if (bookingItemId == null || !fastBookConfig.getMetricsConfig().isBookingItemTagEnabled()) {
+      return MetricNames.ALL_BOOKING_ITEMS;
+    }
+    return bookingItemId.toString();
+  }
+
+}
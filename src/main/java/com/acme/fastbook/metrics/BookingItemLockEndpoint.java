@@ -0,0 +1,62 @@
+package com.acme.fastbook.metrics;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.acme.fastbook.persistence.lock.BookingItemLockMonitor;
+import com.acme.fastbook.persistence.lock.BookingItemLockStatistics;
+
+/**
+ * Actuator endpoint which reports lock contention of booking items collected
+ * by {@link BookingItemLockMonitor}, e.g.
+ * {@code GET /actuator/bookinglocks?limit=10} lists the most contended booking
+ * items and {@code GET /actuator/bookinglocks/{booking-item-id}} reports one
+ * booking item.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Component
+@Endpoint(id = "bookinglocks")
+public class BookingItemLockEndpoint {
+
+  /** Number of booking items listed if the limit is not provided */
+  private static final int DEFAULT_LIMIT = 20;
+
+  /** {@link BookingItemLockMonitor} bean */
+  @Autowired
+  private BookingItemLockMonitor lockMonitor;
+
+  /**
+   * Lists lock statistics of the most contended booking items
+   * 
+   * @param limit maximum number of booking items, optional
+   * 
+   * @return lock statistics
+   */
+  @ReadOperation
+  public List<BookingItemLockStatistics> mostContended(final @Nullable Integer limit) {
+    return lockMonitor.getStatistics(limit == null ? DEFAULT_LIMIT : limit);
+  }
+
+  /**
+   * Gets lock statistics of the booking item
+   * 
+   * @param bookingItemId booking item ID
+   * 
+   * @return lock statistics, or null (404 response) if the lock of the booking
+   *         item has not been requested
+   */
+  @ReadOperation
+  public BookingItemLockStatistics bookingItem(final @Selector UUID bookingItemId) {
+    return lockMonitor.getStatistics(bookingItemId).orElse(null);
+  }
+
+}
@@ -0,0 +1,94 @@
+package com.acme.fastbook.metrics;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Names and tags of application metrics. Names are dot separated, registries
+ * convert them to their naming convention, e.g. Prometheus reports
+ * {@code fastbook.reservation.write} as
+ * {@code fastbook_reservation_write_seconds}.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@UtilityClass
+public class MetricNames {
+
+  /** Timer of reservation writes by operation and outcome */
+  public static final String RESERVATION_WRITE = "fastbook.reservation.write";
+
+  /** Timer of overlapping reservations search */
+  public static final String RESERVATION_SEARCH = "fastbook.reservation.search";
+
+  /** Counter of reservation writes by outcome */
+  public static final String RESERVATION_OUTCOME = "fastbook.reservation.outcome";
+
+  /** Timer of availability computation */
+  public static final String AVAILABILITY = "fastbook.availability";
+
+  /** Timer of waiting for the booking item lock */
+  public static final String LOCK_WAIT = "fastbook.lock.wait";
+
+  /** Timer of holding the booking item lock */
+  public static final String LOCK_HOLD = "fastbook.lock.hold";
+
+  /** Gauge of threads waiting for booking item locks */
+  public static final String LOCK_WAITING = "fastbook.lock.waiting";
+
+  /** Counter of new reservations admitted or shed by admission control */
+  public static final String ADMISSION = "fastbook.admission";
+
+  /** Tag of the write operation */
+  public static final String TAG_OPERATION = "operation";
+
+  /** Tag of the write outcome */
+  public static final String TAG_OUTCOME = "outcome";
+
+  /** Tag of the booking item ID */
+  public static final String TAG_BOOKING_ITEM = "booking.item";
+
+  /** Tag of the data source serving a search */
+  public static final String TAG_SOURCE = "source";
+
+  /** Operation: reservation creation */
+  public static final String OPERATION_CREATE = "create";
+
+  /** Operation: reservation update */
+  public static final String OPERATION_UPDATE = "update";
+
+  /** Operation: reservation cancellation */
+  public static final String OPERATION_CANCEL = "cancel";
+
+  /** Outcome: reservation is written */
+  public static final String OUTCOME_SUCCESS = "success";
+
+  /** Outcome: reservation is rejected because its dates are not available */
+  public static final String OUTCOME_REJECTED = "rejected";
+
+  /** Outcome: write is shed by admission control */
+  public static final String OUTCOME_SHED = "shed";
+
+  /** Outcome: write failed with an unexpected error */
+  public static final String OUTCOME_ERROR = "error";
+
+  /** Admission: reservation got its turn to be written */
+  public static final String ADMISSION_ADMITTED = "admitted";
+
+  /** Admission: reservation is shed because the queue of the booking item is full */
+  public static final String ADMISSION_QUEUE_FULL = "queue_full";
+
+  /** Admission: reservation is shed because it did not get its turn in time */
+  public static final String ADMISSION_TIMEOUT = "timeout";
+
+  /** Source: in-memory reservation index */
+  public static final String SOURCE_INDEX = "index";
+
+  /** Source: availability calendar checked before the write */
+  public static final String SOURCE_CALENDAR = "calendar";
+
+  /** Source: DB */
+  public static final String SOURCE_DB = "db";
+
+  /** Tag value used for all booking items when per booking item tags are disabled */
+  public static final String ALL_BOOKING_ITEMS = "all";
+}
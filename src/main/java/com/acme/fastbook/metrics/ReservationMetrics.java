@@ -0,0 +1,88 @@
+package com.acme.fastbook.metrics;
+
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.model.BookingItem;
+
+/**
+ * Records metrics of reservation hot paths
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationMetrics {
+
+  /**
+   * Times a write of a single reservation and counts its outcome. Write
+   * rejected with {@link InvalidRequestException} is counted as rejected, and
+   * write rejected by admission control is counted as shed.
+   * 
+   * @param <T>           type of the result
+   * @param operation     write operation
+   * @param bookingItemId ID of {@link BookingItem}, or null if not known
+   * @param action        write to be executed
+   * 
+   * @return result of the action
+   */
+  <T> T recordWrite(String operation, UUID bookingItemId, Supplier<T> action);
+
+  /**
+   * Times a write of a single reservation whose booking item is known only from
+   * its result, and counts its outcome as
+   * {@link #recordWrite(String, UUID, Supplier)} does. Outcomes of failed writes
+   * are not tagged by booking item.
+   * 
+   * @param <T>           type of the result
+   * @param operation     write operation
+   * @param bookingItemOf function getting ID of {@link BookingItem} from the
+   *                      result
+   * @param action        write to be executed
+   * 
+   * @return result of the action
+   */
+  <T> T recordWrite(String operation, Function<? super T, UUID> bookingItemOf, Supplier<T> action);
+
+  /**
+   * Counts outcomes of writes which are not timed one by one, e.g. batch writes
+   * 
+   * @param operation     write operation
+   * @param bookingItemId ID of {@link BookingItem}
+   * @param outcome       outcome of the writes
+   * @param count         number of writes
+   */
+  void countOutcome(String operation, UUID bookingItemId, String outcome, int count);
+
+  /**
+   * Counts new reservations admitted or shed by admission control
+   * 
+   * @param bookingItemId ID of {@link BookingItem}
+   * @param admission     admission result
+   * @param count         number of reservations
+   */
+  void countAdmission(UUID bookingItemId, String admission, int count);
+
+  /**
+   * Times an overlapping reservations search
+   * 
+   * @param <T>    type of the result
+   * @param source source serving the search
+   * @param action search to be executed
+   * 
+   * @return result of the action
+   */
+  <T> T recordSearch(String source, Supplier<T> action);
+
+  /**
+   * Times an availability computation
+   * 
+   * @param <T>    type of the result
+   * @param action computation to be executed
+   * 
+   * @return result of the action
+   */
+  <T> T recordAvailability(Supplier<T> action);
+
+}
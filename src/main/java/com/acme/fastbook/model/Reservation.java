@@ -3,6 +3,8 @@ package com.acme.fastbook.model;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -39,4 +41,11 @@ public class Reservation {
   /** Cost per day */
   private BigDecimal dailyCost;
 
+  /**
+   * Version of the reservation in DB. It is not exposed to clients: it is used
+   * to detect concurrent updates of the reservation.
+   */
+  @JsonIgnore
+  private Long version;
+
 }
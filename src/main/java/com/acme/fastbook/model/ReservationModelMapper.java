@@ -1,16 +1,24 @@
 package com.acme.fastbook.model;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.mapstruct.BeanMapping;
 import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 import com.acme.fastbook.persistence.model.BookingItemEntity;
+import com.acme.fastbook.persistence.model.ReservationArchiveEntity;
 import com.acme.fastbook.persistence.model.ReservationEntity;
+import com.acme.fastbook.persistence.model.ReservationEventEntity;
+import com.acme.fastbook.persistence.model.ReservationSnapshotEntity;
 
 /**
  * Mapper used to map to/from {@link Reservation}
@@ -56,6 +64,19 @@ public abstract class ReservationModelMapper {
   @Mapping(target = "endDate", ignore = true)
   protected abstract ReservationEntity partialMappingToDbEntity(Reservation source);
 
+  /**
+   * Copies non-null properties of {@code patch} to {@code target}. Version is
+   * never copied, it is managed by DB. Nested objects are copied by reference.
+   * <p>
+   * Note, this method will update {@code target} input parameter.
+   * 
+   * @param patch  {@link Reservation} object with properties to update
+   * @param target {@link Reservation} object to be updated
+   */
+  @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  @Mapping(target = "version", ignore = true)
+  public abstract void patch(Reservation patch, @MappingTarget Reservation target);
+
   /**
    * Maps from com.acme.fastbook.persistence.model.ReservationEntity to
    * com.acme.fastbook.model.Reservation
@@ -89,6 +110,112 @@ public abstract class ReservationModelMapper {
   @Mapping(target = "dateRange", ignore = true)
   protected abstract Reservation partialMappingToReservation(ReservationEntity source);
 
+  /**
+   * Maps from com.acme.fastbook.persistence.model.ReservationArchiveEntity to
+   * com.acme.fastbook.model.Reservation
+   * 
+   * @param source source {@link ReservationArchiveEntity} object
+   * 
+   * @return {@link Reservation} object mapped from
+   *         {@link ReservationArchiveEntity} source object
+   */
+  public Reservation mapArchivedToReservation(ReservationArchiveEntity source) {
+    final Reservation result = partialMappingArchivedToReservation(source);
+    result.setDateRange(new DateRange(source.getStartDate(), source.getEndDate()));
+
+    return result;
+  }
+
+  /**
+   * Partially maps from
+   * com.acme.fastbook.persistence.model.ReservationArchiveEntity to
+   * com.acme.fastbook.model.Reservation
+   * 
+   * @param source source {@link ReservationArchiveEntity} object
+   * 
+   * @return {@link Reservation} object mapped from
+   *         {@link ReservationArchiveEntity} source object
+   */
+  @Mapping(target = "dateRange", ignore = true)
+  protected abstract Reservation partialMappingArchivedToReservation(ReservationArchiveEntity source);
+
+  /**
+   * Maps from com.acme.fastbook.model.Reservation to
+   * com.acme.fastbook.persistence.model.ReservationEventEntity carrying its
+   * state. Event type and time are not mapped.
+   * 
+   * @param source source {@link Reservation} object
+   * 
+   * @return {@link ReservationEventEntity} object mapped from
+   *         {@link Reservation} source object
+   */
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "reservationId", source = "id")
+  @Mapping(target = "startDate", source = "dateRange.startDate")
+  @Mapping(target = "endDate", source = "dateRange.endDate")
+  @Mapping(target = "eventType", ignore = true)
+  @Mapping(target = "occurredAt", ignore = true)
+  public abstract ReservationEventEntity mapToEventEntity(Reservation source);
+
+  /**
+   * Maps from com.acme.fastbook.persistence.model.ReservationEventEntity to
+   * com.acme.fastbook.model.Reservation
+   * 
+   * @param source source {@link ReservationEventEntity} object
+   * 
+   * @return {@link Reservation} object mapped from
+   *         {@link ReservationEventEntity} source object
+   */
+  public Reservation mapEventToReservation(ReservationEventEntity source) {
+    final Reservation result = partialMappingEventToReservation(source);
+    result.setDateRange(new DateRange(source.getStartDate(), source.getEndDate()));
+
+    return result;
+  }
+
+  /**
+   * Partially maps from
+   * com.acme.fastbook.persistence.model.ReservationEventEntity to
+   * com.acme.fastbook.model.Reservation
+   * 
+   * @param source source {@link ReservationEventEntity} object
+   * 
+   * @return {@link Reservation} object mapped from
+   *         {@link ReservationEventEntity} source object
+   */
+  @Mapping(target = "id", source = "reservationId")
+  @Mapping(target = "dateRange", ignore = true)
+  protected abstract Reservation partialMappingEventToReservation(ReservationEventEntity source);
+
+  /**
+   * Maps from com.acme.fastbook.persistence.model.ReservationSnapshotEntity to
+   * com.acme.fastbook.model.Reservation
+   * 
+   * @param source source {@link ReservationSnapshotEntity} object
+   * 
+   * @return {@link Reservation} object mapped from
+   *         {@link ReservationSnapshotEntity} source object
+   */
+  public Reservation mapSnapshotToReservation(ReservationSnapshotEntity source) {
+    final Reservation result = partialMappingSnapshotToReservation(source);
+    result.setDateRange(new DateRange(source.getStartDate(), source.getEndDate()));
+
+    return result;
+  }
+
+  /**
+   * Partially maps from
+   * com.acme.fastbook.persistence.model.ReservationSnapshotEntity to
+   * com.acme.fastbook.model.Reservation
+   * 
+   * @param source source {@link ReservationSnapshotEntity} object
+   * 
+   * @return {@link Reservation} object mapped from
+   *         {@link ReservationSnapshotEntity} source object
+   */
+  @Mapping(target = "dateRange", ignore = true)
+  protected abstract Reservation partialMappingSnapshotToReservation(ReservationSnapshotEntity source);
+
   /**
    * Maps from the list of com.acme.fastbook.persistence.model.ReservationEntity
    * objects to the list of com.acme.fastbook.model.Reservation objects
@@ -142,6 +269,30 @@ public abstract class ReservationModelMapper {
   public abstract List<com.acme.fastbook.persistence.model.ReservationStatus> mapListOfStatusesToDbEntityStatuses(
       List<ReservationStatus> source);
 
+  /**
+   * Maps list of excluded com.acme.fastbook.model.ReservationStatus to the list
+   * of all the remaining com.acme.fastbook.persistence.model.ReservationStatus.
+   * Queries filter on the included statuses, so that the condition is a plain
+   * {@code IN} predicate rather than a negated one.
+   * 
+   * @param excludedStatuses list of com.acme.fastbook.model.ReservationStatus to
+   *                         be excluded, may be {@code null}
+   * 
+   * @return list of included com.acme.fastbook.persistence.model.ReservationStatus
+   */
+  public List<com.acme.fastbook.persistence.model.ReservationStatus> mapExcludedStatusesToIncludedDbEntityStatuses(
+      final List<ReservationStatus> excludedStatuses) {
+
+    final EnumSet<com.acme.fastbook.persistence.model.ReservationStatus> includedStatuses = EnumSet
+        .allOf(com.acme.fastbook.persistence.model.ReservationStatus.class);
+
+    if (excludedStatuses != null) {
+      includedStatuses.removeAll(mapListOfStatusesToDbEntityStatuses(excludedStatuses));
+    }
+
+    return new ArrayList<>(includedStatuses);
+  }
+
   /**
    * Presents java.util.UUID as
    * com.acme.fastbook.persistence.model.BookingItemEntity. This method is used
@@ -0,0 +1,25 @@
+package com.acme.fastbook.model.api;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.acme.fastbook.model.DateRange;
+
+import lombok.Data;
+
+/**
+ * Request to be used to get availability dates for several booking items
+ * within the same date range
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class BatchAvailabilityDatesRequest {
+
+  /** IDs of booking items */
+  private List<UUID> bookingItemIds;
+
+  /** Search date range */
+  private DateRange dateRange;
+}
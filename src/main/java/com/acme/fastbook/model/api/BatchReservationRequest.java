@@ -0,0 +1,21 @@
+package com.acme.fastbook.model.api;
+
+import java.util.List;
+
+import com.acme.fastbook.model.Reservation;
+
+import lombok.Data;
+
+/**
+ * Request to be used to create many reservations at once. Every reservation
+ * provides its booking item ID.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class BatchReservationRequest {
+
+  /** New reservations */
+  private List<Reservation> reservations;
+}
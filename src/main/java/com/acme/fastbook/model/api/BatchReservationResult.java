@@ -0,0 +1,26 @@
+package com.acme.fastbook.model.api;
+
+import com.acme.fastbook.model.Reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Result of a single reservation of the batch reservation request
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+@AllArgsConstructor
+public class BatchReservationResult {
+
+  /** Created reservation, or the requested one if it is rejected */
+  private Reservation reservation;
+
+  /** Error status if reservation is rejected, otherwise null */
+  private ErrorStatus errorStatus;
+
+  /** Descriptive message if reservation is rejected, otherwise null */
+  private String message;
+}
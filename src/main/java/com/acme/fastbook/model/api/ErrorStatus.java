@@ -8,5 +8,5 @@ package com.acme.fastbook.model.api;
  */
 public enum ErrorStatus {
 
-  RESOURCE_NOT_FOUND, BAD_REQUEST, INTERNAL_SERVER_ERROR
+  RESOURCE_NOT_FOUND, BAD_REQUEST, CONFLICT, TOO_MANY_REQUESTS, SERVICE_UNAVAILABLE, INTERNAL_SERVER_ERROR
 }
@@ -0,0 +1,25 @@
+package com.acme.fastbook.model.api;
+
+import java.util.List;
+
+import com.acme.fastbook.model.Reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Page of reservations of a booking item
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+@AllArgsConstructor
+public class ReservationPage {
+
+  /** Reservations of the page ordered by start date and id */
+  private List<Reservation> reservations;
+
+  /** Cursor to request the next page, or null if this page is the last one */
+  private String nextCursor;
+}
@@ -0,0 +1,28 @@
+package com.acme.fastbook.model.config;
+
+import lombok.Data;
+
+/**
+ * Configuration properties of the archiver of ended reservations
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class ArchiveConfig {
+
+  /** Whether the archiver runs on schedule */
+  private boolean enabled;
+
+  /** Delay between the end of a run and the start of the next one */
+  private long fixedDelayMillis;
+
+  /** Number of reservations completed or archived in one transaction */
+  private int batchSize;
+
+  /**
+   * Number of days after their end date when completed and cancelled
+   * reservations are moved to the archive
+   */
+  private int archiveAfterDays;
+}
@@ -14,4 +14,29 @@ public class BookingItemConfig {
   /** Default value for the availability range in days */
   private int availabilityRangeDays;
 
+  /**
+   * Number of booking items processed at once by the batch availability
+   * request. Each chunk is fetched by a single query and written to the response
+   * before the next chunk is processed.
+   */
+  private int availabilityBatchChunkSize;
+
+  /** Maximal number of distinct booking items in the batch availability request */
+  private int availabilityBatchMaxBookingItems;
+
+  /**
+   * Number of threads computing availability of booking items of batch requests,
+   * shared by all requests
+   */
+  private int availabilityBatchThreads;
+
+  /** Maximal number of reservations in the batch reservation request */
+  private int bookBatchMaxReservations;
+
+  /** Number of reservations in a page when the page size is not requested */
+  private int reservationsPageSize;
+
+  /** Maximal number of reservations in a page */
+  private int reservationsMaxPageSize;
+
 }
@@ -0,0 +1,41 @@
+package com.acme.fastbook.model.config;
+
+import lombok.Data;
+
+/**
+ * Configuration properties related to in-memory caches of persistent data
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class CacheConfig {
+
+  /**
+   * Whether active reservations are indexed in memory to serve overlap and
+   * availability searches without DB round trip. Must be disabled when several
+   * application nodes write to the same DB.
+   */
+  private boolean reservationIndexEnabled;
+
+  /**
+   * Number of days reservations stay in the index after their end. Searches
+   * starting earlier fall back to DB.
+   */
+  private int reservationIndexRetentionDays;
+
+  /** Delay between evictions of ended reservations from the index */
+  private long reservationIndexEvictionFixedDelayMillis;
+
+  /** Maximum number of booking items kept in the booking item cache */
+  private long bookingItemCacheMaxSize;
+
+  /** Time to live of a cached booking item in minutes */
+  private long bookingItemCacheTtlMinutes;
+
+  /**
+   * Maximum number of availability search windows per booking item whose
+   * computed responses are cached
+   */
+  private int availabilitySnapshotsPerBookingItem;
+}
@@ -0,0 +1,50 @@
+package com.acme.fastbook.model.config;
+
+import lombok.Data;
+
+/**
+ * Configuration properties related to concurrent processing of reservations
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class ConcurrencyConfig {
+
+  /** Strategy used to prevent overlapping reservations */
+  private ReservationWriteMode writeMode;
+
+  /** Lock wait or hold time in milliseconds above which a warning is logged */
+  private long slowLockThresholdMillis;
+
+  /** Maximum number of booking items whose lock statistics are kept */
+  private long lockStatisticsMaxBookingItems;
+
+  /** Maximum number of attempts of a reservation update conflicting with another one */
+  private int updateMaxAttempts;
+
+  /**
+   * Base delay in milliseconds before the next update attempt. It is doubled
+   * after every attempt, and the actual delay is randomly chosen below it.
+   */
+  private long updateRetryBaseDelayMillis;
+
+  /**
+   * Maximum number of writes of a booking item which may already hold or wait
+   * for its lock, or wait in its sequencer queue, when a new reservation is
+   * admitted. Next reservations are rejected with 429.
+   */
+  private int admissionMaxQueueDepth;
+
+  /**
+   * Maximum time in milliseconds a new reservation waits for the booking item
+   * lock or for its turn in the sequencer queue. Then it is rejected with 503.
+   */
+  private long admissionMaxWaitMillis;
+
+  /** Maximum number of new reservations written in one transaction in SEQUENCER mode */
+  private int sequencerMaxBatchSize;
+
+  /** Number of threads writing queued reservations in SEQUENCER mode */
+  private int sequencerWorkerThreads;
+}
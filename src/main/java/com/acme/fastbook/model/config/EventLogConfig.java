@@ -0,0 +1,22 @@
+package com.acme.fastbook.model.config;
+
+import lombok.Data;
+
+/**
+ * Configuration properties of the reservation event log
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class EventLogConfig {
+
+  /**
+   * Whether reservation changes are appended to the event log and the
+   * reservation index is rebuilt from the log at startup
+   */
+  private boolean enabled;
+
+  /** Delay between the end of a snapshot and the start of the next one */
+  private long snapshotFixedDelayMillis;
+}
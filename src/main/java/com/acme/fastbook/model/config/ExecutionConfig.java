@@ -0,0 +1,20 @@
+package com.acme.fastbook.model.config;
+
+import lombok.Data;
+
+/**
+ * Configuration properties related to threads executing requests
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class ExecutionConfig {
+
+  /**
+   * Whether every request, including asynchronous parts of streamed responses,
+   * is executed by its own virtual thread instead of a thread of the bounded
+   * Tomcat pool. Requires Java 21 or later.
+   */
+  private boolean virtualThreadsEnabled;
+}
@@ -24,4 +24,22 @@ public class FastBookConfig {
 
   /** {@link PromotionConfig} properties */
   private PromotionConfig promotionConfig;
+
+  /** {@link ConcurrencyConfig} properties */
+  private ConcurrencyConfig concurrencyConfig;
+
+  /** {@link CacheConfig} properties */
+  private CacheConfig cacheConfig;
+
+  /** {@link MetricsConfig} properties */
+  private MetricsConfig metricsConfig;
+
+  /** {@link ArchiveConfig} properties */
+  private ArchiveConfig archiveConfig;
+
+  /** {@link ExecutionConfig} properties */
+  private ExecutionConfig executionConfig;
+
+  /** {@link EventLogConfig} properties */
+  private EventLogConfig eventLogConfig;
 }
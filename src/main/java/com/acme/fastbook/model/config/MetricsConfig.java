@@ -0,0 +1,20 @@
+package com.acme.fastbook.model.config;
+
+import lombok.Data;
+
+/**
+ * Configuration properties related to application metrics
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class MetricsConfig {
+
+  /**
+   * Whether reservation outcomes are tagged by booking item ID. Each booking
+   * item adds its own time series, so it should be enabled only for a limited
+   * number of booking items.
+   */
+  private boolean bookingItemTagEnabled;
+}
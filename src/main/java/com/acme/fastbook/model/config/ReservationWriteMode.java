@@ -0,0 +1,34 @@
+package com.acme.fastbook.model.config;
+
+/**
+ * Strategies used to prevent overlapping reservations of the same booking item
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public enum ReservationWriteMode {
+
+  /**
+   * Overlap check and write are serialized per booking item by a JVM lock. Safe
+   * only when a single application node writes to DB.
+   */
+  LOCK,
+
+  /**
+   * Every booked night is written to the {@code reservation_day} table which has
+   * a unique constraint per booking item and day. DB rejects overlaps
+   * atomically, so it is safe for several application nodes as long as every
+   * booking item is booked in a single offset. Nights are local dates in the
+   * offset of the request, so reservations made in different offsets only rely
+   * on the exact overlap check, which is not safe across nodes.
+   */
+  OCCUPANCY_TABLE,
+
+  /**
+   * New reservations are queued per booking item and written in batches by a
+   * single writer, which rejects overlaps within the batch in memory. Other
+   * writes are serialized by the same JVM lock as in {@link #LOCK} mode. Safe
+   * only when a single application node writes to DB.
+   */
+  SEQUENCER
+}
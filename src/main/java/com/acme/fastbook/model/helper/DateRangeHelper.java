@@ -1,9 +1,12 @@
 package com.acme.fastbook.model.helper;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 import com.acme.fastbook.model.BookingItem;
@@ -44,13 +47,58 @@ public class DateRangeHelper {
     return new DateRange(adjustedStartDate, adjustedEndDate);
   }
 
+  /**
+   * Gets the list of nights booked by the provided date range. A night is
+   * represented by the local date when it starts, in the offset of the range, so
+   * checkin and checkout times far from UTC midnight do not move nights to
+   * another day. Range occupies the nights from its start date inclusive to its
+   * end date exclusive, but at least one night.
+   * <p>
+   * Nights of ranges given in different offsets are not comparable. They are
+   * not bucketed by UTC date instead: a two-night stay with check-in at 20:00
+   * and check-out at 06:00 in +14:00 ends on the UTC day after it starts, so a
+   * check-in on its second night would share no UTC date with it. Overlaps of
+   * such ranges are left to the exact overlap check.
+   * 
+   * @param dateRange booked date range
+   * 
+   * @return list of booked nights in ascending order
+   */
+  public static List<LocalDate> getBookedNights(final @NonNull DateRange dateRange) {
+
+    final LocalDate firstNight = dateRange.getStartDate().toLocalDate();
+    final LocalDate endDay = dateRange.getEndDate().withZoneSameInstant(dateRange.getStartDate().getZone())
+        .toLocalDate();
+
+    final List<LocalDate> nights = new ArrayList<>();
+    LocalDate night = firstNight;
+    do {
+      nights.add(night);
+      night = night.plusDays(1);
+    } while (night.isBefore(endDay));
+
+    return nights;
+  }
+
+  /**
+   * Gets the UTC calendar date of the provided date-time
+   * 
+   * @param dateTime date-time value
+   * 
+   * @return UTC date
+   */
+  public static LocalDate toUtcDate(final @NonNull ZonedDateTime dateTime) {
+    return dateTime.withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+  }
+
   /**
    * Transforms the list of reserved date ranges into the list of available date
-   * ranges
+   * ranges by the same rules as
+   * {@link #transformReservedPeriodsIntoAvailableRanges(ZonedDateTime, ZonedDateTime, long[])}
    * 
    * @param startRange     beginning of the search range
    * @param endRange       end of the search range
-   * @param reservedRanges list of reserved ranges
+   * @param reservedRanges list of reserved ranges, sorted by start date
    * 
    * @return list of available date ranges
    */
@@ -59,76 +107,113 @@ public class DateRangeHelper {
       final @NonNull ZonedDateTime endRange,
       final @NonNull List<DateRange> reservedRanges) {
 
-    List<DateRange> availabilityRanges = new ArrayList<>();
-
-    if (reservedRanges.isEmpty()) { // if empty, then all days are available
-      final DateRange dateRange = new DateRange(startRange, endRange);
-      availabilityRanges.add(dateRange);
-    } else if (reservedRanges.size() == 1 // one DateRange that occupies the whole search range, that is, no days available
-        && (reservedRanges.get(0).getStartDate().isBefore(startRange)
-            || reservedRanges.get(0).getStartDate().equals(startRange))
-        && (reservedRanges.get(0).getEndDate().isAfter(endRange)
-            || reservedRanges.get(0).getEndDate().equals(endRange))) {
-      availabilityRanges = new ArrayList<>();
-    } else {
-      availabilityRanges = transformeAdvancedCase(startRange, endRange, reservedRanges);
+    final long[] reservedPeriods = new long[reservedRanges.size() * 2];
+    int i = 0;
+    for (DateRange reservedRange : reservedRanges) {
+      reservedPeriods[i++] = reservedRange.getStartDate().toInstant().toEpochMilli();
+      reservedPeriods[i++] = reservedRange.getEndDate().toInstant().toEpochMilli();
     }
 
-    return availabilityRanges;
+    return transformReservedPeriodsIntoAvailableRanges(startRange, endRange, reservedPeriods);
   }
 
   /**
-   * Transforms a list reserved date ranges into the list of available date ranges
+   * Transforms reserved periods into the list of available date ranges. Periods
+   * must overlap with the search range and must not overlap with each other.
+   * <p>
+   * The search range is expected to be adjusted to checkin and checkout times,
+   * and available ranges are adjusted the same way: an available range starts
+   * at the first time of day of {@code startRange} not before the end of the
+   * previous period, and ends at the last time of day of {@code endRange} not
+   * after the start of the next period. Gaps holding no such range, e.g. shorter
+   * than a night, are not available. All dates are presented in the time zone of
+   * {@code startRange}.
    * 
-   * @param startRange     beginning of the search range
-   * @param endRange       end of the search range
-   * @param reservedRanges list of reserved ranges
+   * @param startRange      beginning of the search range
+   * @param endRange        end of the search range
+   * @param reservedPeriods start and end epoch milliseconds of every reserved
+   *                        period one after another, sorted by start
    * 
    * @return list of available date ranges
    */
-  private static List<DateRange> transformeAdvancedCase(
-      final ZonedDateTime startRange,
-      final ZonedDateTime endRange,
-      final List<DateRange> reservedRanges) {
+  public static List<DateRange> transformReservedPeriodsIntoAvailableRanges(
+      final @NonNull ZonedDateTime startRange,
+      final @NonNull ZonedDateTime endRange,
+      final @NonNull long[] reservedPeriods) {
 
     final List<DateRange> availabilityRanges = new ArrayList<>();
-    final List<DateRange> reservedRangesExtended = new ArrayList<>(reservedRanges);
 
-    // if first DateRange starts after startRange
-    if (reservedRanges.get(0).getStartDate().isAfter(startRange)) {
-      // add a synthetic range that ends at startRange. Its startDate is not important
-      final DateRange firstSyntheticDateRange = new DateRange(startRange.minusDays(1), startRange);
-      reservedRangesExtended.add(0, firstSyntheticDateRange);
+    final ZoneId zone = startRange.getZone();
+    final ZonedDateTime end = endRange.withZoneSameInstant(zone);
+    final LocalTime checkinTime = startRange.toLocalTime();
+    final LocalTime checkoutTime = end.toLocalTime();
+
+    // Every available range starts at the first checkin after the previous
+    // period (or at startRange) and ends at the last checkout before the next
+    // period (or at endRange)
+    ZonedDateTime availableStart = startRange;
+    for (int i = 0; i < reservedPeriods.length; i += 2) {
+      addIfNotEmpty(availabilityRanges, availableStart,
+          atOrBefore(toZonedDateTime(reservedPeriods[i], zone), checkoutTime));
+      availableStart = atOrAfter(toZonedDateTime(reservedPeriods[i + 1], zone), checkinTime);
     }
+    addIfNotEmpty(availabilityRanges, availableStart, end);
 
-    // if last DateRange ends before endRange
-    if (reservedRanges.get(reservedRanges.size() - 1).getEndDate().isBefore(endRange)) {
-      // add a synthetic range that starts at endRange. Its endDate is not important
-      final DateRange lastSyntheticDateRange = new DateRange(endRange, endRange.plusDays(1));
-      reservedRangesExtended.add(lastSyntheticDateRange);
-    }
-
-    Iterator<DateRange> iterator = reservedRangesExtended.iterator();
-    DateRange current = null;
-    DateRange next = null;
-
-    while (iterator.hasNext()) {
+    return availabilityRanges;
+  }
 
-      // On the first run, take the value from iterator.next(), on consecutive runs,
-      // take the value from 'next' variable
-      current = (current == null) ? iterator.next() : next;
+  /**
+   * Adds the available range to the list if it starts before it ends
+   * 
+   * @param availabilityRanges list of available ranges
+   * @param startDate          start of the available range
+   * @param endDate            end of the available range
+   */
+  private static void addIfNotEmpty(final List<DateRange> availabilityRanges, final ZonedDateTime startDate,
+      final ZonedDateTime endDate) {
+    if (startDate.isBefore(endDate)) {
+      availabilityRanges.add(new DateRange(startDate, endDate));
+    }
+  }
 
-      final ZonedDateTime startDate = current.getEndDate();
+  /**
+   * Gets the first date-time with the provided time of day at or after the
+   * provided date-time
+   * 
+   * @param dateTime  date-time value
+   * @param timeOfDay time of day
+   * 
+   * @return date-time with the time of day
+   */
+  private static ZonedDateTime atOrAfter(final ZonedDateTime dateTime, final LocalTime timeOfDay) {
+    final ZonedDateTime sameDay = dateTime.with(timeOfDay);
+    return sameDay.isBefore(dateTime) ? sameDay.plusDays(1) : sameDay;
+  }
 
-      if (iterator.hasNext()) {
-        next = iterator.next();
-        final ZonedDateTime endDate = next.getStartDate();
-        DateRange availabilityDate = new DateRange(startDate, endDate);
-        availabilityRanges.add(availabilityDate);
-      }
-    }
+  /**
+   * Gets the last date-time with the provided time of day at or before the
+   * provided date-time
+   * 
+   * @param dateTime  date-time value
+   * @param timeOfDay time of day
+   * 
+   * @return date-time with the time of day
+   */
+  private static ZonedDateTime atOrBefore(final ZonedDateTime dateTime, final LocalTime timeOfDay) {
+    final ZonedDateTime sameDay = dateTime.with(timeOfDay);
+    return sameDay.isAfter(dateTime) ? sameDay.minusDays(1) : sameDay;
+  }
 
-    return availabilityRanges;
+  /**
+   * Presents epoch milliseconds as date-time in the provided time zone
+   * 
+   * @param epochMilli epoch milliseconds
+   * @param zone       time zone
+   * 
+   * @return date-time value
+   */
+  private static ZonedDateTime toZonedDateTime(final long epochMilli, final ZoneId zone) {
+    return ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), zone);
   }
 
 }
@@ -0,0 +1,21 @@
+package com.acme.fastbook.persistence.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of an archiving run
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+@AllArgsConstructor
+public class ArchiveRunResult {
+
+  /** Number of active reservations marked as completed */
+  private long completed;
+
+  /** Number of reservations moved to the archive */
+  private long archived;
+}
@@ -0,0 +1,251 @@
+package com.acme.fastbook.persistence.archive;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationModelMapper;
+import com.acme.fastbook.model.config.ArchiveConfig;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.persistence.event.ReservationsArchivedEvent;
+import com.acme.fastbook.persistence.eventlog.ReservationEventLog;
+import com.acme.fastbook.persistence.model.ArchiveCheckpointEntity;
+import com.acme.fastbook.persistence.model.ReservationEntity;
+import com.acme.fastbook.persistence.model.ReservationEventType;
+import com.acme.fastbook.persistence.model.ReservationRef;
+import com.acme.fastbook.persistence.model.ReservationStatus;
+import com.acme.fastbook.persistence.repository.ArchiveCheckpointRepository;
+import com.acme.fastbook.persistence.repository.ReservationArchiveRepository;
+import com.acme.fastbook.persistence.repository.ReservationDayRepository;
+import com.acme.fastbook.persistence.repository.ReservationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Basic implementation of {@link ReservationArchiver} interface.
+ * <p>
+ * Every batch of archived reservations is copied to {@code reservation_archive}
+ * table, deleted from {@code reservation} and {@code reservation_day} tables,
+ * and recorded in {@code archive_checkpoint} table in a single transaction.
+ * Completed and archived reservations are also appended to
+ * {@link ReservationEventLog} within the same transactions. A run interrupted
+ * by a restart is resumed with the cutoff of the checkpoint.
+ * After every batch {@link ReservationsArchivedEvent} is published with the
+ * completed reservations as they are stored in DB and the references of the
+ * archived ones, so that in-memory views of reservations are refreshed or
+ * pruned and versions of the affected booking items change.
+ * <p>
+ * The run is scheduled only when
+ * {@link ArchiveConfig#isEnabled()} is set.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Slf4j
+@Component
+public class BaseReservationArchiver implements ReservationArchiver {
+
+  /** Name of the job in the checkpoint table */
+  private static final String JOB_NAME = "reservation-archive";
+
+  /** Statuses of reservations to be completed */
+  private static final List<ReservationStatus> COMPLETED_STATUSES = Collections
+      .singletonList(ReservationStatus.ACTIVE);
+
+  /** Statuses of reservations to be archived */
+  private static final List<ReservationStatus> ARCHIVED_STATUSES = Arrays.asList(ReservationStatus.COMPLETED,
+      ReservationStatus.CANCELLED);
+
+  /** {@link ReservationRepository} bean */
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  /** {@link ReservationArchiveRepository} bean */
+  @Autowired
+  private ReservationArchiveRepository reservationArchiveRepository;
+
+  /** {@link ReservationDayRepository} bean */
+  @Autowired
+  private ReservationDayRepository reservationDayRepository;
+
+  /** {@link ArchiveCheckpointRepository} bean */
+  @Autowired
+  private ArchiveCheckpointRepository archiveCheckpointRepository;
+
+  /** Mapper for {@link Reservation} class */
+  @Autowired
+  private ReservationModelMapper modelMapper;
+
+  /** Append-only log of reservation changes */
+  @Autowired
+  private ReservationEventLog reservationEventLog;
+
+  /** Template used to run a transaction per batch */
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  /** Publisher of {@link ReservationsArchivedEvent} */
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** Application clock */
+  @Autowired
+  private Clock clock;
+
+  /**
+   * Runs the archiver on schedule
+   */
+  @Scheduled(fixedDelayString = "${fastbook-config.archive-config.fixed-delay-millis}", initialDelayString = "${fastbook-config.archive-config.fixed-delay-millis}")
+  public void archiveOnSchedule() {
+    if (!fastBookConfig.getArchiveConfig().isEnabled()) {
+      return;
+    }
+
+    final ArchiveRunResult result = archive();
+    log.info("Archiver completed {} and archived {} reservations", result.getCompleted(), result.getArchived());
+  }
+
+  @Override
+  public ArchiveRunResult archive() {
+
+    final ArchiveConfig archiveConfig = fastBookConfig.getArchiveConfig();
+    final int batchSize = Math.max(1, archiveConfig.getBatchSize());
+    final ZonedDateTime now = ZonedDateTime.now(clock);
+
+    final long completed = completeEnded(now, batchSize);
+
+    final ArchiveCheckpointEntity checkpoint = archiveCheckpointRepository.findById(JOB_NAME)
+        .filter(previous -> !previous.isFinished())
+        .orElseGet(() -> new ArchiveCheckpointEntity(JOB_NAME, now.minusDays(archiveConfig.getArchiveAfterDays()),
+            null, 0L, false, now));
+
+    if (checkpoint.getArchivedCount() > 0) {
+      log.info("Resuming archiving of reservations ended before {} after {} archived reservations",
+          checkpoint.getCutoff(), checkpoint.getArchivedCount());
+    }
+
+    final long archivedBefore = checkpoint.getArchivedCount();
+    List<ReservationRef> batch;
+    do {
+      batch = transactionTemplate.execute(status -> moveToArchive(checkpoint, batchSize, now));
+      publishArchived(Collections.emptyList(), batch);
+    } while (batch.size() == batchSize);
+
+    return new ArchiveRunResult(completed, checkpoint.getArchivedCount() - archivedBefore);
+  }
+
+  /**
+   * Marks active reservations ended before now as completed, one transaction
+   * per batch
+   * 
+   * @param now       current time
+   * @param batchSize number of reservations per batch
+   * 
+   * @return number of completed reservations
+   */
+  private long completeEnded(final ZonedDateTime now, final int batchSize) {
+
+    long completed = 0;
+    List<Reservation> batch;
+    do {
+      batch = transactionTemplate.execute(status -> {
+        final List<ReservationRef> refs = reservationRepository.findEndedBefore(COMPLETED_STATUSES, now,
+            PageRequest.of(0, batchSize));
+
+        if (refs.isEmpty()) {
+          return Collections.<Reservation>emptyList();
+        }
+
+        final List<UUID> ids = toIds(refs);
+        reservationRepository.complete(ids, ReservationStatus.ACTIVE, ReservationStatus.COMPLETED);
+        reservationEventLog.appendAll(ReservationEventType.COMPLETED, refs);
+
+        final List<ReservationEntity> entities = new ArrayList<>();
+        reservationRepository.findAllById(ids).forEach(entities::add);
+        return modelMapper.mapListOfReservationEntitiesToReservations(entities);
+      });
+
+      publishArchived(batch, Collections.emptyList());
+      completed += batch.size();
+    } while (batch.size() == batchSize);
+
+    return completed;
+  }
+
+  /**
+   * Moves a batch of completed and cancelled reservations ended before the
+   * cutoff of the checkpoint to the archive and updates the checkpoint. Must be
+   * called within a transaction.
+   * 
+   * @param checkpoint checkpoint of the run
+   * @param batchSize  maximal number of reservations in the batch
+   * @param now        current time
+   * 
+   * @return references of archived reservations
+   */
+  private List<ReservationRef> moveToArchive(final ArchiveCheckpointEntity checkpoint, final int batchSize,
+      final ZonedDateTime now) {
+
+    final List<ReservationRef> refs = reservationRepository.findEndedBefore(ARCHIVED_STATUSES,
+        checkpoint.getCutoff(), PageRequest.of(0, batchSize));
+
+    if (!refs.isEmpty()) {
+      final List<UUID> ids = toIds(refs);
+
+      reservationArchiveRepository.copyFromReservations(ids, now);
+      reservationDayRepository.deleteByReservationIds(ids);
+      reservationRepository.deleteByIds(ids);
+      reservationEventLog.appendAll(ReservationEventType.ARCHIVED, refs);
+
+      checkpoint.setLastReservationId(ids.get(ids.size() - 1));
+      checkpoint.setArchivedCount(checkpoint.getArchivedCount() + ids.size());
+    }
+
+    checkpoint.setFinished(refs.size() < batchSize);
+    checkpoint.setUpdatedAt(now);
+    archiveCheckpointRepository.save(checkpoint);
+
+    return refs;
+  }
+
+  /**
+   * Publishes {@link ReservationsArchivedEvent} unless no reservation changed
+   * 
+   * @param completed completed reservations as they are stored in DB
+   * @param archived  references of archived reservations
+   */
+  private void publishArchived(final List<Reservation> completed, final List<ReservationRef> archived) {
+    if (!completed.isEmpty() || !archived.isEmpty()) {
+      eventPublisher.publishEvent(new ReservationsArchivedEvent(completed, archived));
+    }
+  }
+
+  /**
+   * Gets IDs of the referenced reservations
+   * 
+   * @param refs references of reservations
+   * 
+   * @return list of reservation IDs
+   */
+  private static List<UUID> toIds(final List<ReservationRef> refs) {
+    return refs.stream().map(ReservationRef::getId).collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,25 @@
+package com.acme.fastbook.persistence.archive;
+
+import com.acme.fastbook.model.ReservationStatus;
+
+/**
+ * Archiver of ended reservations. It keeps the reservation table limited to
+ * current and recent reservations, which are the only ones read by overlap and
+ * availability searches.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationArchiver {
+
+  /**
+   * Marks active reservations which already ended as
+   * {@link ReservationStatus#COMPLETED}, then moves completed and cancelled
+   * reservations which ended before the configured number of days to the
+   * archive. Both steps are done in batches, one transaction per batch.
+   * 
+   * @return number of completed and archived reservations
+   */
+  ArchiveRunResult archive();
+
+}
@@ -0,0 +1,20 @@
+package com.acme.fastbook.persistence.event;
+
+import com.acme.fastbook.model.Reservation;
+
+import lombok.Data;
+
+/**
+ * Application event published after a reservation has been created or updated
+ * in DB and the transaction has been committed. For the same booking item,
+ * events are published in the order of the writes.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class ReservationChangedEvent {
+
+  /** Reservation as it is stored in DB */
+  private final Reservation reservation;
+}
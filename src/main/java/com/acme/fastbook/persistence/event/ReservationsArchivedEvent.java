@@ -0,0 +1,41 @@
+package com.acme.fastbook.persistence.event;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.persistence.model.ReservationRef;
+
+import lombok.Data;
+
+/**
+ * Application event published after reservations have been completed or moved
+ * to the archive and the transaction has been committed
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class ReservationsArchivedEvent {
+
+  /** Completed reservations as they are stored in DB */
+  private final List<Reservation> completed;
+
+  /** References of reservations moved to the archive */
+  private final List<ReservationRef> archived;
+
+  /**
+   * Gets IDs of booking items whose reservations changed
+   * 
+   * @return set of booking item IDs
+   */
+  public Set<UUID> getBookingItemIds() {
+    return Stream
+        .concat(completed.stream().map(Reservation::getBookingItemId),
+            archived.stream().map(ReservationRef::getBookingItemId))
+        .collect(Collectors.toSet());
+  }
+}
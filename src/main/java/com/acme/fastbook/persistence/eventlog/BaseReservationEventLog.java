@@ -0,0 +1,241 @@
+package com.acme.fastbook.persistence.eventlog;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationModelMapper;
+import com.acme.fastbook.model.config.EventLogConfig;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.persistence.model.EventLogCheckpointEntity;
+import com.acme.fastbook.persistence.model.ReservationEventEntity;
+import com.acme.fastbook.persistence.model.ReservationEventType;
+import com.acme.fastbook.persistence.model.ReservationRef;
+import com.acme.fastbook.persistence.model.ReservationSnapshotEntity;
+import com.acme.fastbook.persistence.repository.EventLogCheckpointRepository;
+import com.acme.fastbook.persistence.repository.ReservationEventRepository;
+import com.acme.fastbook.persistence.repository.ReservationSnapshotRepository;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Basic implementation of {@link ReservationEventLog} interface.
+ * <p>
+ * Events are stored in {@code reservation_event} table. Every event either
+ * carries the whole state of the reservation as it is written, or removes the
+ * reservation from the active ones. Event IDs are allocated by this instance in
+ * the order events are appended. Each writer reads the committed state of the
+ * reservation before it appends its event, and concurrent writers of the same
+ * reservation are rejected by its version, so events of the same reservation
+ * are ordered by their IDs without writing pending changes first. Thus
+ * replaying the latest events of a reservation on top of any of its earlier
+ * states gives its current state.
+ * <p>
+ * The snapshot is a copy of active reservations of the reservation table in
+ * {@code reservation_snapshot} table, described by a row of
+ * {@code event_log_checkpoint} table. Completed and cancelled reservations are
+ * history, which is not loaded by the index, so it is not copied. Transactions
+ * which were still running when the snapshot was taken are not seen by it, so
+ * the replay starts after the last event seen by the previous snapshot,
+ * assuming no transaction runs longer than the delay between snapshots. The
+ * first snapshot is taken at startup by {@link #replay()}, before any change
+ * is written.
+ * <p>
+ * Snapshots are taken on schedule only when {@link EventLogConfig#isEnabled()}
+ * is set.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Slf4j
+@Component
+public class BaseReservationEventLog implements ReservationEventLog {
+
+  /** Name of the snapshot in the checkpoint table */
+  private static final String SNAPSHOT_NAME = "reservation-snapshot";
+
+  /** {@link ReservationEventRepository} bean */
+  @Autowired
+  private ReservationEventRepository reservationEventRepository;
+
+  /** {@link ReservationSnapshotRepository} bean */
+  @Autowired
+  private ReservationSnapshotRepository reservationSnapshotRepository;
+
+  /** {@link EventLogCheckpointRepository} bean */
+  @Autowired
+  private EventLogCheckpointRepository eventLogCheckpointRepository;
+
+  /** Mapper for {@link Reservation} class */
+  @Autowired
+  private ReservationModelMapper modelMapper;
+
+  /** Template used to run the snapshot and the replay in a transaction */
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** Application clock */
+  @Autowired
+  private Clock clock;
+
+  /**
+   * Takes the snapshot on schedule
+   */
+  @Scheduled(fixedDelayString = "${fastbook-config.event-log-config.snapshot-fixed-delay-millis}", initialDelayString = "${fastbook-config.event-log-config.snapshot-fixed-delay-millis}")
+  public void snapshotOnSchedule() {
+    if (isEnabled()) {
+      log.info("Reservation snapshot is taken with {} reservations", snapshot());
+    }
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return fastBookConfig.getEventLogConfig().isEnabled();
+  }
+
+  @Override
+  public void append(final @NonNull ReservationEventType eventType, final @NonNull Reservation reservation) {
+
+    if (!isEnabled()) {
+      return;
+    }
+
+    final ReservationEventEntity event = modelMapper.mapToEventEntity(reservation);
+    event.setEventType(eventType);
+    event.setOccurredAt(ZonedDateTime.now(clock));
+
+    reservationEventRepository.save(event);
+  }
+
+  @Override
+  public void appendAll(final @NonNull ReservationEventType eventType, final @NonNull List<ReservationRef> refs) {
+
+    if (!isEnabled() || refs.isEmpty()) {
+      return;
+    }
+
+    final ZonedDateTime now = ZonedDateTime.now(clock);
+
+    reservationEventRepository.saveAll(refs.stream().map(ref -> {
+      final ReservationEventEntity event = new ReservationEventEntity();
+      event.setEventType(eventType);
+      event.setReservationId(ref.getId());
+      event.setBookingItemId(ref.getBookingItemId());
+      event.setOccurredAt(now);
+      return event;
+    }).collect(Collectors.toList()));
+  }
+
+  @Override
+  public Map<UUID, Reservation> replay() {
+
+    if (!isEnabled()) {
+      return Collections.emptyMap();
+    }
+
+    return transactionTemplate.execute(status -> {
+      final EventLogCheckpointEntity checkpoint = eventLogCheckpointRepository.findById(SNAPSHOT_NAME)
+          .orElseGet(() -> takeSnapshot(null));
+
+      final Map<UUID, Reservation> reservations = new HashMap<>();
+
+      try (Stream<ReservationSnapshotEntity> snapshot = reservationSnapshotRepository.streamSnapshot()) {
+        snapshot.forEach(
+            reservation -> reservations.put(reservation.getId(), modelMapper.mapSnapshotToReservation(reservation)));
+      }
+
+      final long[] replayed = new long[1];
+      try (Stream<ReservationEventEntity> events = reservationEventRepository
+          .streamAfter(checkpoint.getReplayFromEventId())) {
+        events.forEach(event -> {
+          apply(event, reservations);
+          replayed[0]++;
+        });
+      }
+
+      log.info("[{}] reservation(s) are rebuilt from the snapshot of [{}] and [{}] event(s) after event [{}].",
+          reservations.size(), checkpoint.getCreatedAt(), replayed[0], checkpoint.getReplayFromEventId());
+      return reservations;
+    });
+  }
+
+  @Override
+  public long snapshot() {
+
+    if (!isEnabled()) {
+      return 0L;
+    }
+
+    return transactionTemplate
+        .execute(status -> takeSnapshot(eventLogCheckpointRepository.findById(SNAPSHOT_NAME).orElse(null)))
+        .getReservationCount();
+  }
+
+  /**
+   * Replaces the snapshot by active reservations and updates the checkpoint. Must be called within a transaction.
+   * 
+   * @param previous checkpoint of the previous snapshot, null if there is none
+   * 
+   * @return checkpoint of the new snapshot
+   */
+  private EventLogCheckpointEntity takeSnapshot(final EventLogCheckpointEntity previous) {
+
+    final long lastEventId = reservationEventRepository.findLastEventId();
+
+    reservationSnapshotRepository.deleteSnapshot();
+    final int count = reservationSnapshotRepository
+        .copyFromReservations(com.acme.fastbook.persistence.model.ReservationStatus.ACTIVE.name());
+
+    final long replayFromEventId = previous == null ? lastEventId : previous.getLastEventId();
+
+    return eventLogCheckpointRepository.save(new EventLogCheckpointEntity(SNAPSHOT_NAME, replayFromEventId,
+        lastEventId, count, ZonedDateTime.now(clock)));
+  }
+
+  /**
+   * Applies the event to the reservations
+   * 
+   * @param event        event of the log
+   * @param reservations active reservations keyed by their IDs
+   */
+  private void apply(final ReservationEventEntity event, final Map<UUID, Reservation> reservations) {
+
+    final UUID reservationId = event.getReservationId();
+
+    switch (event.getEventType()) {
+    case CREATED:
+    case DATES_CHANGED:
+    case UPDATED:
+      if (event.getReservationStatus() == com.acme.fastbook.persistence.model.ReservationStatus.ACTIVE) {
+        reservations.put(reservationId, modelMapper.mapEventToReservation(event));
+      } else {
+        reservations.remove(reservationId);
+      }
+      break;
+    case COMPLETED:
+    case CANCELLED:
+    case ARCHIVED:
+    default:
+      reservations.remove(reservationId);
+      break;
+    }
+  }
+
+}
@@ -0,0 +1,70 @@
+package com.acme.fastbook.persistence.eventlog;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.config.EventLogConfig;
+import com.acme.fastbook.persistence.index.ReservationIndex;
+import com.acme.fastbook.persistence.model.ReservationEventType;
+import com.acme.fastbook.persistence.model.ReservationRef;
+
+/**
+ * Append-only log of reservation changes. Events are appended within the
+ * transaction writing the change, so the log contains committed changes only.
+ * Active reservations are rebuilt from the last snapshot and the events
+ * appended after it, to load the in-memory projection of reservations, that is
+ * {@link ReservationIndex}, without reading the reservation table.
+ * <p>
+ * All methods do nothing when {@link EventLogConfig#isEnabled()} is not set.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationEventLog {
+
+  /**
+   * Checks if the event log is enabled
+   * 
+   * @return true if changes are appended to the log
+   */
+  boolean isEnabled();
+
+  /**
+   * Appends the event carrying the state of the written reservation. Must be
+   * called within the transaction which has written the change.
+   * 
+   * @param eventType   type of the event
+   * @param reservation {@link Reservation} as it is written to DB
+   */
+  void append(ReservationEventType eventType, Reservation reservation);
+
+  /**
+   * Appends an event carrying only the reference of each reservation, e.g.
+   * when reservations are completed or archived in bulk. Must be called within
+   * the transaction which has written the change.
+   * 
+   * @param eventType type of the events
+   * @param refs      references of the changed reservations
+   */
+  void appendAll(ReservationEventType eventType, List<ReservationRef> refs);
+
+  /**
+   * Rebuilds active reservations from the last snapshot and the events appended
+   * after it. If there is no snapshot yet, it is taken first.
+   * 
+   * @return active reservations keyed by their IDs, empty map if the log is
+   *         disabled
+   */
+  Map<UUID, Reservation> replay();
+
+  /**
+   * Takes a snapshot of active reservations, so that the next replay skips the
+   * events preceding the previous snapshot
+   * 
+   * @return number of reservations in the snapshot
+   */
+  long snapshot();
+
+}
@@ -0,0 +1,288 @@
+package com.acme.fastbook.persistence.index;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.helper.DateRangeHelper;
+
+import lombok.NonNull;
+
+/**
+ * Immutable calendar of nights occupied by reservations of a single booking
+ * item within a window of days. Every night of the window is represented by one
+ * bit (set if the night is occupied) at the offset of its UTC epoch day from the
+ * first day of the window. A window of up to 64 days fits into a single
+ * {@code long}.
+ * <p>
+ * A range occupies the UTC days from its start day inclusive to its end day
+ * exclusive. Sharing a night is then the same as overlapping only if every
+ * range ends at an earlier UTC time of day than the other one starts, which is
+ * the case when checkout is before checkin and all ranges are given in the same
+ * offset. Otherwise, e.g. for ranges given in different offsets, the calendar
+ * does not cover the range, and the caller falls back to the exact check. A
+ * reservation starting and ending on the same UTC day still occupies that
+ * night, so the calendar does not cover any range while it holds one.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public class AvailabilityCalendar {
+
+  /** Number of bits in a word */
+  private static final int WORD_SIZE = Long.SIZE;
+
+  /** Mask with all bits set */
+  private static final long ALL_BITS = -1L;
+
+  /** Epoch day of the first night of the window */
+  private final long firstDay;
+
+  /** Number of nights in the window */
+  private final int nbDays;
+
+  /** Bits of the occupied nights */
+  private final long[] words;
+
+  /** Earliest UTC second of day when a reservation starts */
+  private final int minStartSecond;
+
+  /** Latest UTC second of day when a reservation ends */
+  private final int maxEndSecond;
+
+  /** True if every reservation ends on a later UTC day than it starts */
+  private final boolean exact;
+
+  /**
+   * Constructor
+   * 
+   * @param firstDay epoch day of the first night of the window
+   * @param nbDays   number of nights in the window
+   * @param words          bits of the occupied nights
+   * @param minStartSecond earliest UTC second of day when a reservation starts
+   * @param maxEndSecond   latest UTC second of day when a reservation ends
+   * @param exact          true if every reservation ends on a later UTC day than
+   *                       it starts
+   */
+  private AvailabilityCalendar(final long firstDay, final int nbDays, final long[] words, final int minStartSecond,
+      final int maxEndSecond, final boolean exact) {
+    this.firstDay = firstDay;
+    this.nbDays = nbDays;
+    this.words = words;
+    this.minStartSecond = minStartSecond;
+    this.maxEndSecond = maxEndSecond;
+    this.exact = exact;
+  }
+
+  /**
+   * Builds the calendar for the window of nights starting at {@code firstDay}
+   * 
+   * @param firstDay     epoch day of the first night of the window
+   * @param nbDays       number of nights in the window
+   * @param reservations reservations occupying nights. Nights outside the window
+   *                     are ignored.
+   * 
+   * @return new calendar
+   */
+  public static AvailabilityCalendar build(final long firstDay, final int nbDays,
+      final @NonNull List<Reservation> reservations) {
+
+    final long[] words = new long[(nbDays + WORD_SIZE - 1) / WORD_SIZE];
+    int minStartSecond = Integer.MAX_VALUE;
+    int maxEndSecond = Integer.MIN_VALUE;
+    boolean exact = true;
+
+    for (Reservation reservation : reservations) {
+      final ZonedDateTime start = reservation.getDateRange().getStartDate().withZoneSameInstant(ZoneOffset.UTC);
+      final ZonedDateTime end = reservation.getDateRange().getEndDate().withZoneSameInstant(ZoneOffset.UTC);
+      minStartSecond = Math.min(minStartSecond, start.toLocalTime().toSecondOfDay());
+      maxEndSecond = Math.max(maxEndSecond, end.toLocalTime().toSecondOfDay());
+
+      final long startDay = start.toLocalDate().toEpochDay();
+      exact &= end.toLocalDate().toEpochDay() > startDay;
+      final long from = Math.max(startDay - firstDay, 0L);
+      final long to = Math.min(Math.max(end.toLocalDate().toEpochDay(), startDay + 1) - firstDay, nbDays);
+
+      for (long offset = from; offset < to; offset++) {
+        words[(int) (offset / WORD_SIZE)] |= 1L << offset;
+      }
+    }
+
+    return new AvailabilityCalendar(firstDay, nbDays, words, minStartSecond, maxEndSecond, exact);
+  }
+
+  /**
+   * Gets the epoch day of the first night of the window
+   * 
+   * @return epoch day
+   */
+  public long getFirstDay() {
+    return firstDay;
+  }
+
+  /**
+   * Checks if the nights booked by the date range are within the window, and if
+   * sharing a night with the date range is the same as overlapping with it for
+   * every reservation of the calendar: the range starts later in the UTC day than
+   * any reservation ends, and ends earlier in the UTC day than any reservation or
+   * the range itself starts.
+   * 
+   * @param dateRange date range
+   * 
+   * @return true if the calendar can answer questions about the date range
+   */
+  public boolean covers(final @NonNull DateRange dateRange) {
+    if (!exact) {
+      return false;
+    }
+
+    final ZonedDateTime start = dateRange.getStartDate().withZoneSameInstant(ZoneOffset.UTC);
+    final ZonedDateTime end = dateRange.getEndDate().withZoneSameInstant(ZoneOffset.UTC);
+    final int startSecond = start.toLocalTime().toSecondOfDay();
+    final int endSecond = end.toLocalTime().toSecondOfDay();
+
+    if (startSecond <= maxEndSecond || endSecond >= minStartSecond || endSecond >= startSecond) {
+      return false;
+    }
+
+    final long from = start.toLocalDate().toEpochDay() - firstDay;
+    final long to = end.toLocalDate().toEpochDay() - firstDay;
+    return from >= 0 && to > from && to <= nbDays;
+  }
+
+  /**
+   * Checks if all nights booked by the date range are free. The date range must
+   * be covered by the calendar.
+   * 
+   * @param dateRange date range
+   * 
+   * @return true if no night of the date range is occupied
+   */
+  public boolean isFree(final @NonNull DateRange dateRange) {
+    final int from = toOffset(DateRangeHelper.toUtcDate(dateRange.getStartDate()));
+    final int to = toOffset(DateRangeHelper.toUtcDate(dateRange.getEndDate()));
+    return nextOccupied(from, to) == to;
+  }
+
+  /**
+   * Finds available date ranges within the search range, that is, runs of free
+   * nights. An available range starts at the time of day of {@code startRange}
+   * and ends at the time of day of {@code endRange}, so search range adjusted to
+   * checkin and checkout times yields ranges adjusted the same way. Ranges are
+   * presented in the time zone of {@code startRange}, and are the same as the
+   * ones found from reserved periods by
+   * {@link DateRangeHelper#transformReservedPeriodsIntoAvailableRanges(ZonedDateTime, ZonedDateTime, long[])}.
+   * The search range must be covered by the calendar.
+   * 
+   * @param startRange beginning of the search range
+   * @param endRange   end of the search range
+   * 
+   * @return list of available date ranges
+   */
+  public List<DateRange> findAvailableRanges(final @NonNull ZonedDateTime startRange,
+      final @NonNull ZonedDateTime endRange) {
+
+    final ZonedDateTime utcStart = startRange.withZoneSameInstant(ZoneOffset.UTC);
+    final ZonedDateTime utcEnd = endRange.withZoneSameInstant(ZoneOffset.UTC);
+    final LocalTime startTime = utcStart.toLocalTime();
+    final LocalTime endTime = utcEnd.toLocalTime();
+    final int to = toOffset(utcEnd.toLocalDate());
+    final ZoneId zone = startRange.getZone();
+
+    final List<DateRange> availableRanges = new ArrayList<>();
+
+    int runStart = nextFree(toOffset(utcStart.toLocalDate()), to);
+    while (runStart < to) {
+      final int runEnd = nextOccupied(runStart, to);
+      availableRanges.add(new DateRange(toDateTime(runStart, startTime).withZoneSameInstant(zone),
+          toDateTime(runEnd, endTime).withZoneSameInstant(zone)));
+      runStart = nextFree(runEnd, to);
+    }
+
+    return availableRanges;
+  }
+
+  /**
+   * Finds the first free night at or after {@code from}
+   * 
+   * @param from offset to start from
+   * @param to   offset to stop at (exclusive)
+   * 
+   * @return offset of the free night, or {@code to} if not found
+   */
+  private int nextFree(final int from, final int to) {
+    return nextBit(from, to, ALL_BITS);
+  }
+
+  /**
+   * Finds the first occupied night at or after {@code from}
+   * 
+   * @param from offset to start from
+   * @param to   offset to stop at (exclusive)
+   * 
+   * @return offset of the occupied night, or {@code to} if not found
+   */
+  private int nextOccupied(final int from, final int to) {
+    return nextBit(from, to, 0L);
+  }
+
+  /**
+   * Finds the first bit at or after {@code from} that is set after the word is
+   * XOR-ed with {@code flip}
+   * 
+   * @param from offset to start from
+   * @param to   offset to stop at (exclusive)
+   * @param flip {@link #ALL_BITS} to search for clear bits, 0 to search for set
+   *             bits
+   * 
+   * @return offset of the found bit, or {@code to} if not found
+   */
+  private int nextBit(final int from, final int to, final long flip) {
+    if (from >= to) {
+      return to;
+    }
+
+    int wordIndex = from / WORD_SIZE;
+    long word = (words[wordIndex] ^ flip) & (ALL_BITS << from);
+
+    while (word == 0L) {
+      wordIndex++;
+      if (wordIndex * WORD_SIZE >= to) {
+        return to;
+      }
+      word = words[wordIndex] ^ flip;
+    }
+
+    return Math.min(wordIndex * WORD_SIZE + Long.numberOfTrailingZeros(word), to);
+  }
+
+  /**
+   * Converts the date into an offset within the window
+   * 
+   * @param date UTC date
+   * 
+   * @return offset
+   */
+  private int toOffset(final LocalDate date) {
+    return (int) (date.toEpochDay() - firstDay);
+  }
+
+  /**
+   * Converts the offset within the window into a UTC date-time
+   * 
+   * @param offset offset within the window
+   * @param time   time of day
+   * 
+   * @return UTC date-time
+   */
+  private ZonedDateTime toDateTime(final int offset, final LocalTime time) {
+    return ZonedDateTime.of(LocalDate.ofEpochDay(firstDay + offset), time, ZoneOffset.UTC);
+  }
+
+}
@@ -0,0 +1,28 @@
+package com.acme.fastbook.persistence.index;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import com.acme.fastbook.model.BookingItem;
+
+/**
+ * Registry of {@link AvailabilityCalendar}-s per booking item. Calendars cover a
+ * rolling window of nights starting today (UTC) and long enough for any
+ * reservation and for the default availability search range.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface AvailabilityCalendarRegistry {
+
+  /**
+   * Gets the up to date calendar of the booking item
+   * 
+   * @param bookingItemId ID of {@link BookingItem}
+   * 
+   * @return Optional of the calendar, or an empty Optional if calendars are not
+   *         available because the reservation index is disabled
+   */
+  Optional<AvailabilityCalendar> getCalendar(UUID bookingItemId);
+
+}
@@ -0,0 +1,32 @@
+package com.acme.fastbook.persistence.index;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import com.acme.fastbook.model.BookingItem;
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.api.AvailabilityDatesResponse;
+
+/**
+ * Cache of computed {@link AvailabilityDatesResponse}-s per booking item and
+ * search window. Snapshots are computed from {@link AvailabilityCalendar}-s
+ * and rebuilt after every write, so readers do not pay the miss penalty right
+ * after a booking.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface AvailabilitySnapshotCache {
+
+  /**
+   * Gets the availability of the booking item within the search range
+   * 
+   * @param bookingItemId ID of {@link BookingItem}
+   * @param searchRange   search range adjusted to checkin and checkout times
+   * 
+   * @return Optional of the response, or an empty Optional if the calendar of
+   *         the booking item is not available or does not cover the range
+   */
+  Optional<AvailabilityDatesResponse> getAvailability(UUID bookingItemId, DateRange searchRange);
+
+}
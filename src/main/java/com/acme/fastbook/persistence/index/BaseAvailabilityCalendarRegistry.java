@@ -0,0 +1,140 @@
+package com.acme.fastbook.persistence.index;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.persistence.event.ReservationChangedEvent;
+import com.acme.fastbook.persistence.event.ReservationsArchivedEvent;
+
+import lombok.NonNull;
+
+/**
+ * Basic implementation of {@link AvailabilityCalendarRegistry} interface.
+ * <p>
+ * Calendars are built from {@link ReservationIndex} and replaced as a whole
+ * when a reservation of the booking item changes or when the window rolls over
+ * to the next day. Readers get an immutable calendar and never block.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Component
+public class BaseAvailabilityCalendarRegistry implements AvailabilityCalendarRegistry {
+
+  /** Current calendars by booking item ID */
+  private final ConcurrentMap<UUID, AvailabilityCalendar> calendars = new ConcurrentHashMap<>();
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** In-memory index of reservations */
+  @Autowired
+  private ReservationIndex reservationIndex;
+
+  /** Application clock */
+  @Autowired
+  private Clock clock;
+
+  @Override
+  public Optional<AvailabilityCalendar> getCalendar(final @NonNull UUID bookingItemId) {
+
+    if (!fastBookConfig.getCacheConfig().isReservationIndexEnabled()) {
+      return Optional.empty();
+    }
+
+    final long today = LocalDate.now(clock.withZone(ZoneOffset.UTC)).toEpochDay();
+    final AvailabilityCalendar calendar = calendars.get(bookingItemId);
+
+    if (calendar != null && calendar.getFirstDay() == today) {
+      return Optional.of(calendar);
+    }
+
+    return Optional.ofNullable(calendars.compute(bookingItemId, (id, current) -> (current != null
+        && current.getFirstDay() == today) ? current : build(id, today)));
+  }
+
+  /**
+   * Rebuilds the calendar of the booking item whose reservation changed. It
+   * listens after {@link ReservationIndex} is updated.
+   * 
+   * @param event event published after a reservation is written to DB
+   */
+  @EventListener
+  @Order(BaseReservationIndex.EVENT_LISTENER_ORDER + 1)
+  public void onReservationChanged(final ReservationChangedEvent event) {
+    rebuild(event.getReservation().getBookingItemId());
+  }
+
+  /**
+   * Rebuilds calendars of the booking items whose reservations were completed or
+   * archived. It listens after {@link ReservationIndex} is updated.
+   * 
+   * @param event event published after reservations are archived
+   */
+  @EventListener
+  @Order(BaseReservationIndex.EVENT_LISTENER_ORDER + 1)
+  public void onReservationsArchived(final ReservationsArchivedEvent event) {
+    event.getBookingItemIds().forEach(this::rebuild);
+  }
+
+  /**
+   * Rebuilds the calendar of the booking item, if it is built
+   * 
+   * @param bookingItemId booking item ID
+   */
+  private void rebuild(final UUID bookingItemId) {
+    calendars.computeIfPresent(bookingItemId, (id, current) -> build(id, current.getFirstDay()));
+  }
+
+  /**
+   * Builds the calendar of the booking item from the reservation index
+   * 
+   * @param bookingItemId booking item ID
+   * @param firstDay      epoch day of the first night of the window
+   * 
+   * @return new calendar, or null if the index can not serve the window
+   */
+  private AvailabilityCalendar build(final UUID bookingItemId, final long firstDay) {
+
+    final int nbDays = getWindowDays();
+
+    // Reservation occupying the first night ends the next day at the earliest,
+    // so searching from the current moment finds every occupied night
+    final ZonedDateTime now = ZonedDateTime.now(clock.withZone(ZoneOffset.UTC));
+    final ZonedDateTime windowEnd = LocalDate.ofEpochDay(firstDay + nbDays).atStartOfDay(ZoneOffset.UTC);
+
+    final Optional<List<Reservation>> reservations = reservationIndex.findOverlapping(bookingItemId, now, windowEnd);
+
+    return reservations.map(found -> AvailabilityCalendar.build(firstDay, nbDays, found)).orElse(null);
+  }
+
+  /**
+   * Gets the number of nights in the window. Window must fit any reservation
+   * made in advance as well as the default availability search range.
+   * 
+   * @return number of nights
+   */
+  private int getWindowDays() {
+    final int reservationDays = fastBookConfig.getReservationConfig().getMaxAdvanceDays()
+        + fastBookConfig.getReservationConfig().getMaxPeriodDays();
+    final int availabilityDays = fastBookConfig.getBookingItemConfig().getAvailabilityRangeDays();
+
+    return Math.max(reservationDays, availabilityDays) + 1;
+  }
+
+}
@@ -0,0 +1,198 @@
+package com.acme.fastbook.persistence.index;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.api.AvailabilityDatesResponse;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.persistence.event.ReservationChangedEvent;
+import com.acme.fastbook.persistence.event.ReservationsArchivedEvent;
+
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * Basic implementation of {@link AvailabilitySnapshotCache} interface.
+ * <p>
+ * Every snapshot remembers the calendar it was computed from. Calendars are
+ * immutable and replaced on every change, so a snapshot is served only while
+ * its calendar is the current one. After a write, snapshots of the booking item
+ * are recomputed from the new calendar instead of being evicted.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Component
+public class BaseAvailabilitySnapshotCache implements AvailabilitySnapshotCache {
+
+  /** Snapshots by booking item ID and search window */
+  private final ConcurrentMap<UUID, ConcurrentMap<WindowKey, Snapshot>> snapshots = new ConcurrentHashMap<>();
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** Registry of availability calendars */
+  @Autowired
+  private AvailabilityCalendarRegistry availabilityCalendarRegistry;
+
+  @Override
+  public Optional<AvailabilityDatesResponse> getAvailability(final @NonNull UUID bookingItemId,
+      final @NonNull DateRange searchRange) {
+
+    final Optional<AvailabilityCalendar> calendarOpt = availabilityCalendarRegistry.getCalendar(bookingItemId);
+
+    if (!calendarOpt.isPresent() || !calendarOpt.get().covers(searchRange)) {
+      return Optional.empty();
+    }
+
+    final AvailabilityCalendar calendar = calendarOpt.get();
+    final WindowKey key = new WindowKey(searchRange.getStartDate().toInstant(), searchRange.getEndDate().toInstant(),
+        searchRange.getStartDate().getZone());
+    final int maxSnapshots = fastBookConfig.getCacheConfig().getAvailabilitySnapshotsPerBookingItem();
+
+    final ConcurrentMap<WindowKey, Snapshot> itemSnapshots = snapshots.computeIfAbsent(bookingItemId,
+        id -> new ConcurrentHashMap<>());
+
+    final Snapshot cached = itemSnapshots.get(key);
+
+    if (cached != null && cached.getCalendar() == calendar) {
+      return Optional.of(cached.getResponse());
+    }
+
+    final Snapshot snapshot = build(bookingItemId, calendar, key);
+
+    if (cached != null || itemSnapshots.size() < maxSnapshots) {
+      itemSnapshots.put(key, snapshot);
+    } else if (maxSnapshots > 0) {
+      // Too many windows are requested for this booking item: drop any of them
+      final Iterator<WindowKey> keys = itemSnapshots.keySet().iterator();
+      if (keys.hasNext()) {
+        keys.next();
+        keys.remove();
+      }
+      itemSnapshots.put(key, snapshot);
+    }
+
+    return Optional.of(snapshot.getResponse());
+  }
+
+  /**
+   * Recomputes snapshots of the booking item whose reservation changed. It
+   * listens after the calendar of the booking item is rebuilt. Snapshots not
+   * covered by the new calendar are removed.
+   * 
+   * @param event event published after a reservation is written to DB
+   */
+  @EventListener
+  @Order(BaseReservationIndex.EVENT_LISTENER_ORDER + 2)
+  public void onReservationChanged(final ReservationChangedEvent event) {
+    refresh(event.getReservation().getBookingItemId());
+  }
+
+  /**
+   * Recomputes snapshots of the booking items whose reservations were completed
+   * or archived. It listens after calendars of the booking items are rebuilt.
+   * 
+   * @param event event published after reservations are archived
+   */
+  @EventListener
+  @Order(BaseReservationIndex.EVENT_LISTENER_ORDER + 2)
+  public void onReservationsArchived(final ReservationsArchivedEvent event) {
+    event.getBookingItemIds().forEach(this::refresh);
+  }
+
+  /**
+   * Recomputes snapshots of the booking item from its calendar. Snapshots not
+   * covered by the calendar are removed.
+   * 
+   * @param bookingItemId booking item ID
+   */
+  private void refresh(final UUID bookingItemId) {
+
+    final ConcurrentMap<WindowKey, Snapshot> itemSnapshots = snapshots.get(bookingItemId);
+
+    if (itemSnapshots == null || itemSnapshots.isEmpty()) {
+      return;
+    }
+
+    final Optional<AvailabilityCalendar> calendarOpt = availabilityCalendarRegistry.getCalendar(bookingItemId);
+
+    for (Map.Entry<WindowKey, Snapshot> entry : itemSnapshots.entrySet()) {
+      final WindowKey key = entry.getKey();
+
+      if (calendarOpt.isPresent() && calendarOpt.get().covers(key.toDateRange())) {
+        entry.setValue(build(bookingItemId, calendarOpt.get(), key));
+      } else {
+        itemSnapshots.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Computes the snapshot of the search window from the calendar
+   * 
+   * @param bookingItemId booking item ID
+   * @param calendar      calendar of the booking item
+   * @param key           search window
+   * 
+   * @return new snapshot
+   */
+  private static Snapshot build(final UUID bookingItemId, final AvailabilityCalendar calendar, final WindowKey key) {
+    final DateRange searchRange = key.toDateRange();
+    return new Snapshot(calendar, new AvailabilityDatesResponse(bookingItemId,
+        calendar.findAvailableRanges(searchRange.getStartDate(), searchRange.getEndDate())));
+  }
+
+  /**
+   * Search window. Available ranges are presented in the time zone of the
+   * search, so it is a part of the key.
+   */
+  @Data
+  private static class WindowKey {
+
+    /** Start of the search range */
+    private final Instant start;
+
+    /** End of the search range */
+    private final Instant end;
+
+    /** Time zone of the search range */
+    private final ZoneId zone;
+
+    /**
+     * Gets the search range in its time zone
+     * 
+     * @return search range
+     */
+    DateRange toDateRange() {
+      return new DateRange(start.atZone(zone), end.atZone(zone));
+    }
+  }
+
+  /**
+   * Computed response along with the calendar it was computed from
+   */
+  @Data
+  private static class Snapshot {
+
+    /** Calendar the response was computed from */
+    private final AvailabilityCalendar calendar;
+
+    /** Computed response */
+    private final AvailabilityDatesResponse response;
+  }
+
+}
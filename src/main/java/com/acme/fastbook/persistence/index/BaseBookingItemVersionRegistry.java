@@ -0,0 +1,86 @@
+package com.acme.fastbook.persistence.index;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.model.config.ReservationWriteMode;
+import com.acme.fastbook.persistence.event.ReservationChangedEvent;
+import com.acme.fastbook.persistence.event.ReservationsArchivedEvent;
+
+import lombok.NonNull;
+
+/**
+ * Basic implementation of {@link BookingItemVersionRegistry} interface.
+ * <p>
+ * Versions are counted in memory and prefixed by the application start time,
+ * so a version observed before a restart is never reused. Versions do not
+ * depend on the reservation index, but they are issued only when this
+ * application node observes all writes, that is, in every write mode but
+ * {@link ReservationWriteMode#OCCUPANCY_TABLE}, which lets several nodes write
+ * to the same DB.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Component
+public class BaseBookingItemVersionRegistry implements BookingItemVersionRegistry {
+
+  /** Prefix of all versions issued by this application instance */
+  private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+  /** Version counters by booking item ID */
+  private final ConcurrentMap<UUID, AtomicLong> counters = new ConcurrentHashMap<>();
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  @Override
+  public Optional<String> getVersion(final @NonNull UUID bookingItemId) {
+
+    if (fastBookConfig.getConcurrencyConfig().getWriteMode() == ReservationWriteMode.OCCUPANCY_TABLE) {
+      return Optional.empty();
+    }
+
+    final AtomicLong counter = counters.get(bookingItemId);
+    return Optional.of(epoch + "." + (counter == null ? 0L : counter.get()));
+  }
+
+  /**
+   * Increments the version of the booking item whose reservation changed. It
+   * listens after all other listeners, so that a reader observing the new
+   * version also observes all in-memory state derived from the write.
+   * 
+   * @param event event published after a reservation is written to DB
+   */
+  @EventListener
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  public void onReservationChanged(final ReservationChangedEvent event) {
+    counters.computeIfAbsent(event.getReservation().getBookingItemId(), id -> new AtomicLong()).incrementAndGet();
+  }
+
+  /**
+   * Increments the versions of the booking items whose reservations were
+   * completed or archived
+   * 
+   * @param event event published after reservations are archived
+   */
+  @EventListener
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  public void onReservationsArchived(final ReservationsArchivedEvent event) {
+    for (UUID bookingItemId : event.getBookingItemIds()) {
+      counters.computeIfAbsent(bookingItemId, id -> new AtomicLong()).incrementAndGet();
+    }
+  }
+
+}
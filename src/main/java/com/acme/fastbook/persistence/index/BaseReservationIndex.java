@@ -0,0 +1,565 @@
+package com.acme.fastbook.persistence.index;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationModelMapper;
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.model.config.CacheConfig;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.persistence.event.ReservationChangedEvent;
+import com.acme.fastbook.persistence.event.ReservationsArchivedEvent;
+import com.acme.fastbook.persistence.eventlog.ReservationEventLog;
+import com.acme.fastbook.persistence.model.ReservationEntity;
+import com.acme.fastbook.persistence.model.ReservationRef;
+import com.acme.fastbook.persistence.repository.ReservationRepository;
+
+import lombok.Data;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Basic implementation of {@link ReservationIndex} interface.
+ * <p>
+ * Reservations of each booking item are kept in a
+ * {@link ConcurrentSkipListMap} ordered by start date, so reads do not take
+ * any lock. Since reservations of a booking item may have different durations,
+ * the index keeps track of the longest one: a reservation overlapping with the
+ * search range can not start earlier than the search start minus the longest
+ * duration. This bounds the scan to O(log n + k) operations, where k is the
+ * number of reservations within the scanned window.
+ * <p>
+ * Reservations which ended more than
+ * {@link CacheConfig#getReservationIndexRetentionDays()} days ago are evicted
+ * on schedule, so the index does not grow with the history of reservations.
+ * Reservations moved to the archive are removed as soon as they are archived.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Component
+@Slf4j
+public class BaseReservationIndex implements ReservationIndex {
+
+  /**
+   * Order of the {@link ReservationChangedEvent} listener. Listeners relying on
+   * the index content must have a greater order.
+   */
+  public static final int EVENT_LISTENER_ORDER = 0;
+
+  /** Reservations grouped by booking item ID */
+  private final ConcurrentMap<UUID, BookingItemReservations> reservationsByBookingItem = new ConcurrentHashMap<>();
+
+  /**
+   * Booking item ID by reservation ID. Booking item of a reservation never
+   * changes, so entries are only removed when reservations are evicted or
+   * archived.
+   */
+  private final ConcurrentMap<UUID, UUID> bookingItemIdsById = new ConcurrentHashMap<>();
+
+  /**
+   * Searches starting before this moment can not be served by the index. Null if
+   * the index is disabled.
+   */
+  private volatile Instant coveredFrom;
+
+  /** Lock serializing evictions, which move {@link #coveredFrom} forward */
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** {@link ReservationRepository} bean */
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  /** Mapper for {@link Reservation} class */
+  @Autowired
+  private ReservationModelMapper modelMapper;
+
+  /** Append-only log of reservation changes */
+  @Autowired
+  private ReservationEventLog reservationEventLog;
+
+  /** Template used to read reservations within a transaction */
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  /** Application clock */
+  @Autowired
+  private Clock clock;
+
+  /**
+   * Loads all reservations which end after the current moment, rebuilt by
+   * {@link ReservationEventLog} if the log is enabled, otherwise read from DB
+   */
+  @PostConstruct
+  public void load() {
+
+    if (!fastBookConfig.getCacheConfig().isReservationIndexEnabled()) {
+      log.info("Reservation index is disabled.");
+      return;
+    }
+
+    final ZonedDateTime loadedFrom = ZonedDateTime.now(clock);
+
+    final List<Reservation> reservations = reservationEventLog.isEnabled() ? replayEventLog(loadedFrom)
+        : transactionTemplate.execute(status -> {
+          final List<ReservationEntity> entitiesDb = reservationRepository
+              .findByReservationStatusNotAndEndDateGreaterThanEqual(
+                  com.acme.fastbook.persistence.model.ReservationStatus.CANCELLED, loadedFrom);
+          return modelMapper.mapListOfReservationEntitiesToReservations(entitiesDb);
+        });
+
+    reservations.forEach(this::update);
+    coveredFrom = loadedFrom.toInstant();
+
+    log.info("Reservation index loaded [{}] reservation(s) ending after [{}].", reservations.size(), loadedFrom);
+  }
+
+  /**
+   * Evicts reservations which ended more than the configured number of days ago
+   */
+  @Scheduled(fixedDelayString = "${fastbook-config.cache-config.reservation-index-eviction-fixed-delay-millis}", initialDelayString = "${fastbook-config.cache-config.reservation-index-eviction-fixed-delay-millis}")
+  public void evictOnSchedule() {
+
+    if (coveredFrom == null) {
+      return;
+    }
+
+    final ZonedDateTime cutoff = ZonedDateTime.now(clock)
+        .minusDays(fastBookConfig.getCacheConfig().getReservationIndexRetentionDays());
+
+    log.info("Reservation index evicted [{}] reservation(s) ending before [{}].", evictEndedBefore(cutoff), cutoff);
+  }
+
+  /**
+   * Rebuilds reservations from {@link ReservationEventLog} and selects the ones
+   * which end after the provided moment
+   * 
+   * @param loadedFrom moment the index is loaded from
+   * 
+   * @return reservations which are not cancelled and end after the moment
+   */
+  private List<Reservation> replayEventLog(final ZonedDateTime loadedFrom) {
+    return reservationEventLog.replay().values().stream()
+        .filter(reservation -> reservation.getReservationStatus() != ReservationStatus.CANCELLED)
+        .filter(reservation -> !reservation.getDateRange().getEndDate().isBefore(loadedFrom))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<List<Reservation>> findOverlapping(final @NonNull UUID bookingItemId,
+      final @NonNull ZonedDateTime startRange, final @NonNull ZonedDateTime endRange) {
+
+    if (!isCovered(startRange)) {
+      return Optional.empty();
+    }
+
+    final List<Reservation> result = new ArrayList<>();
+    scanOverlapping(bookingItemId, startRange, endRange, result::add);
+
+    // reservations overlapping with the range may be evicted during the scan
+    if (!isCovered(startRange)) {
+      return Optional.empty();
+    }
+
+    // scan goes from the latest to the earliest reservation
+    Collections.reverse(result);
+    return Optional.of(result);
+  }
+
+  @Override
+  public OptionalLong countOverlapping(final @NonNull UUID bookingItemId, final @NonNull ZonedDateTime startRange,
+      final @NonNull ZonedDateTime endRange) {
+
+    if (!isCovered(startRange)) {
+      return OptionalLong.empty();
+    }
+
+    final long[] counter = new long[1];
+    scanOverlapping(bookingItemId, startRange, endRange, reservation -> counter[0]++);
+
+    if (!isCovered(startRange)) {
+      return OptionalLong.empty();
+    }
+
+    return OptionalLong.of(counter[0]);
+  }
+
+  @Override
+  public Optional<Reservation> findById(final @NonNull UUID reservationId) {
+
+    final UUID bookingItemId = bookingItemIdsById.get(reservationId);
+    final BookingItemReservations itemReservations = bookingItemId == null ? null
+        : reservationsByBookingItem.get(bookingItemId);
+
+    return itemReservations == null ? Optional.empty() : itemReservations.get(reservationId);
+  }
+
+  @Override
+  public void update(final @NonNull Reservation reservation) {
+    bookingItemIdsById.put(reservation.getId(), reservation.getBookingItemId());
+    reservationsByBookingItem.computeIfAbsent(reservation.getBookingItemId(), id -> new BookingItemReservations())
+        .update(reservation);
+  }
+
+  @Override
+  public long evictEndedBefore(final @NonNull ZonedDateTime cutoff) {
+
+    final Instant cutoffInstant = cutoff.toInstant();
+
+    evictionLock.lock();
+    try {
+      final Instant from = coveredFrom;
+      if (from == null) {
+        return 0L;
+      }
+
+      // searches which may need evicted reservations fall back to DB from now on
+      if (cutoffInstant.isAfter(from)) {
+        coveredFrom = cutoffInstant;
+      }
+
+      long evicted = 0L;
+      for (BookingItemReservations itemReservations : reservationsByBookingItem.values()) {
+        evicted += itemReservations.evictEndedBefore(cutoffInstant, bookingItemIdsById::remove);
+      }
+      return evicted;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Keeps the index in sync with DB
+   * 
+   * @param event event published after a reservation is written to DB
+   */
+  @EventListener
+  @Order(EVENT_LISTENER_ORDER)
+  public void onReservationChanged(final ReservationChangedEvent event) {
+    if (coveredFrom != null) {
+      update(event.getReservation());
+    }
+  }
+
+  /**
+   * Keeps the index in sync with DB: completed reservations are replaced and
+   * archived ones are removed
+   * 
+   * @param event event published after reservations are archived
+   */
+  @EventListener
+  @Order(EVENT_LISTENER_ORDER)
+  public void onReservationsArchived(final ReservationsArchivedEvent event) {
+
+    if (coveredFrom == null) {
+      return;
+    }
+
+    event.getCompleted().forEach(this::update);
+
+    for (ReservationRef ref : event.getArchived()) {
+      final BookingItemReservations itemReservations = reservationsByBookingItem.get(ref.getBookingItemId());
+      if (itemReservations != null) {
+        itemReservations.remove(ref.getId());
+      }
+      bookingItemIdsById.remove(ref.getId());
+    }
+  }
+
+  /**
+   * Checks if the search range starting at {@code startRange} is covered by the
+   * index
+   * 
+   * @param startRange start of the search range
+   * 
+   * @return true if the index can serve the search
+   */
+  private boolean isCovered(final ZonedDateTime startRange) {
+    final Instant from = coveredFrom;
+    return from != null && !startRange.toInstant().isBefore(from);
+  }
+
+  /**
+   * Passes every reservation overlapping with the search range to the
+   * {@code consumer}, from the latest to the earliest one
+   * 
+   * @param bookingItemId booking item ID
+   * @param startRange    start of the search range
+   * @param endRange      end of the search range
+   * @param consumer      consumer of found reservations
+   */
+  private void scanOverlapping(final UUID bookingItemId, final ZonedDateTime startRange,
+      final ZonedDateTime endRange, final Consumer<Reservation> consumer) {
+
+    final BookingItemReservations itemReservations = reservationsByBookingItem.get(bookingItemId);
+
+    if (itemReservations == null) {
+      return;
+    }
+
+    final Instant start = startRange.toInstant();
+    final Instant earliestStart = start.minusSeconds(itemReservations.maxDurationSeconds);
+
+    final ConcurrentNavigableMap<IntervalKey, Reservation> candidates = itemReservations.reservations
+        .headMap(IntervalKey.upperBound(endRange.toInstant()), true).descendingMap();
+
+    for (Map.Entry<IntervalKey, Reservation> entry : candidates.entrySet()) {
+      if (entry.getKey().getStart().isBefore(earliestStart)) {
+        break;
+      }
+      if (!entry.getKey().getEnd().isBefore(start)) {
+        consumer.accept(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Reservations of a single booking item
+   */
+  private static class BookingItemReservations {
+
+    /** Reservations ordered by start date */
+    private final ConcurrentSkipListMap<IntervalKey, Reservation> reservations = new ConcurrentSkipListMap<>();
+
+    /** Keys of indexed reservations by reservation ID */
+    private final ConcurrentMap<UUID, IntervalKey> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * Latest indexed version by reservation ID, including cancelled reservations.
+     * Writes which do not take the booking item lock may publish their changes out
+     * of order, so an older version must not replace a newer one.
+     */
+    private final Map<UUID, IndexedVersion> versionsById = new HashMap<>();
+
+    /**
+     * The longest duration of reservations ever indexed. It is never decreased,
+     * which is safe: it only widens the scanned window.
+     */
+    private volatile long maxDurationSeconds;
+
+    /**
+     * Lock serializing writers. Unlike a monitor, it does not pin a virtual
+     * thread to its carrier thread.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Gets the indexed reservation. Readers never block.
+     * 
+     * @param reservationId reservation ID
+     * 
+     * @return Optional of the reservation, or an empty Optional if it is not
+     *         indexed
+     */
+    Optional<Reservation> get(final UUID reservationId) {
+      final IntervalKey key = keysById.get(reservationId);
+      return key == null ? Optional.empty() : Optional.ofNullable(reservations.get(key));
+    }
+
+    /**
+     * Replaces the previous version of the reservation unless the indexed one is
+     * newer. Writers are serialized, readers never block.
+     * 
+     * @param reservation reservation to be indexed
+     */
+    void update(final Reservation reservation) {
+      writeLock.lock();
+      try {
+        replace(reservation);
+      } finally {
+        writeLock.unlock();
+      }
+    }
+
+    /**
+     * Replaces the previous version of the reservation unless the indexed one is
+     * newer. Must be called by the holder of {@link #writeLock}.
+     * 
+     * @param reservation reservation to be indexed
+     */
+    private void replace(final Reservation reservation) {
+
+      final Long version = reservation.getVersion();
+      if (version != null) {
+        final IndexedVersion indexedVersion = versionsById.get(reservation.getId());
+        if (indexedVersion != null && indexedVersion.getVersion() > version) {
+          return;
+        }
+        versionsById.put(reservation.getId(), new IndexedVersion(version,
+            reservation.getDateRange() == null ? null : reservation.getDateRange().getEndDate().toInstant()));
+      }
+
+      if (reservation.getReservationStatus() == ReservationStatus.CANCELLED || reservation.getDateRange() == null) {
+        final IntervalKey previousKey = keysById.remove(reservation.getId());
+        if (previousKey != null) {
+          reservations.remove(previousKey);
+        }
+        return;
+      }
+
+      final IntervalKey key = new IntervalKey(reservation.getDateRange().getStartDate().toInstant(),
+          reservation.getDateRange().getEndDate().toInstant(), reservation.getId());
+
+      final long durationSeconds = key.getEnd().getEpochSecond() - key.getStart().getEpochSecond() + 1;
+      maxDurationSeconds = Math.max(maxDurationSeconds, durationSeconds);
+
+      // The new entry is published before the previous one is removed, so readers
+      // never miss the reservation; they may briefly see both versions of moved
+      // dates instead. With unchanged dates the value is replaced in place.
+      reservations.put(key, reservation);
+      final IntervalKey previousKey = keysById.put(reservation.getId(), key);
+      if (previousKey != null && !previousKey.equals(key)) {
+        reservations.remove(previousKey);
+      }
+    }
+
+    /**
+     * Removes the reservation and its version
+     * 
+     * @param reservationId ID of the reservation to be removed
+     */
+    void remove(final UUID reservationId) {
+      writeLock.lock();
+      try {
+        final IntervalKey key = keysById.remove(reservationId);
+        if (key != null) {
+          reservations.remove(key);
+        }
+        versionsById.remove(reservationId);
+      } finally {
+        writeLock.unlock();
+      }
+    }
+
+    /**
+     * Removes reservations and versions of reservations which end before the
+     * provided moment
+     * 
+     * @param cutoff     reservations ending before this moment are evicted
+     * @param evictedIds consumer of IDs of evicted reservations, including
+     *                   cancelled ones
+     * 
+     * @return number of evicted reservations
+     */
+    long evictEndedBefore(final Instant cutoff, final Consumer<UUID> evictedIds) {
+      writeLock.lock();
+      try {
+        long evicted = 0L;
+
+        // reservation ending before the cutoff starts before it
+        final Iterator<Map.Entry<IntervalKey, Reservation>> candidates = reservations
+            .headMap(IntervalKey.upperBound(cutoff), true).entrySet().iterator();
+
+        while (candidates.hasNext()) {
+          final IntervalKey key = candidates.next().getKey();
+          if (key.getEnd().isBefore(cutoff)) {
+            candidates.remove();
+            keysById.remove(key.getId());
+            evictedIds.accept(key.getId());
+            evicted++;
+          }
+        }
+
+        final Iterator<Map.Entry<UUID, IndexedVersion>> versions = versionsById.entrySet().iterator();
+
+        while (versions.hasNext()) {
+          final Map.Entry<UUID, IndexedVersion> version = versions.next();
+          final Instant end = version.getValue().getEnd();
+          if (end == null || end.isBefore(cutoff)) {
+            versions.remove();
+            evictedIds.accept(version.getKey());
+          }
+        }
+
+        return evicted;
+      } finally {
+        writeLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Indexed version of a reservation, including cancelled ones
+   */
+  @Data
+  private static class IndexedVersion {
+
+    /** Version of the reservation */
+    private final long version;
+
+    /** End of the reservation; null if it has no dates */
+    private final Instant end;
+  }
+
+  /**
+   * Key of the indexed reservation. Keys are ordered by start date, then by
+   * reservation ID, then by end date, consistently with equals.
+   */
+  @Data
+  private static class IntervalKey implements Comparable<IntervalKey> {
+
+    /** Comparator of keys */
+    private static final Comparator<IntervalKey> ORDER = Comparator.comparing(IntervalKey::getStart)
+        .thenComparing(IntervalKey::getId, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(IntervalKey::getEnd);
+
+    /** Start of the reservation */
+    private final Instant start;
+
+    /** End of the reservation */
+    private final Instant end;
+
+    /** Reservation ID; null for search boundaries */
+    private final UUID id;
+
+    /**
+     * Creates a key which is greater than any key starting at {@code start} or
+     * earlier
+     * 
+     * @param start start of the search boundary
+     * 
+     * @return search boundary
+     */
+    static IntervalKey upperBound(final Instant start) {
+      return new IntervalKey(start, start, null);
+    }
+
+    @Override
+    public int compareTo(final IntervalKey other) {
+      return ORDER.compare(this, other);
+    }
+  }
+
+}
@@ -0,0 +1,30 @@
+package com.acme.fastbook.persistence.index;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import com.acme.fastbook.model.BookingItem;
+
+/**
+ * Registry of monotonic versions of booking item reservations. Version of a
+ * booking item changes after every successful write of its reservations, so it
+ * can be used to validate cached responses.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface BookingItemVersionRegistry {
+
+  /**
+   * Gets the current version of reservations of the booking item. Version is
+   * unique across application restarts.
+   * 
+   * @param bookingItemId ID of {@link BookingItem}
+   * 
+   * @return Optional of the version, or an empty Optional if versions are not
+   *         tracked because writes of other application nodes can not be
+   *         observed
+   */
+  Optional<String> getVersion(UUID bookingItemId);
+
+}
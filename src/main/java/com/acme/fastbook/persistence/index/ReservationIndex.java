@@ -0,0 +1,85 @@
+package com.acme.fastbook.persistence.index;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import com.acme.fastbook.model.BookingItem;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationStatus;
+
+/**
+ * In-memory index of {@link Reservation}-s which are not
+ * {@link ReservationStatus#CANCELLED}, grouped by booking item and ordered by
+ * start date. It is used to search for overlapping reservations and to get
+ * reservations by ID without DB round trip.
+ * <p>
+ * Index covers all reservations ending after the moment it was loaded from DB.
+ * Reservations which ended long ago are evicted and the covered period slides
+ * forward accordingly. Searches starting before the covered period can not be
+ * served by the index and return an empty result, so the caller should fall
+ * back to DB.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationIndex {
+
+  /**
+   * Finds all reservations for the provided booking item overlapping with the
+   * provided range of dates, boundaries included
+   * 
+   * @param bookingItemId ID of {@link BookingItem}
+   * @param startRange    start of the search range
+   * @param endRange      end of the search range
+   * 
+   * @return Optional of the list of reservations sorted by start date, or an
+   *         empty Optional if the search range is not covered by the index
+   */
+  Optional<List<Reservation>> findOverlapping(UUID bookingItemId, ZonedDateTime startRange, ZonedDateTime endRange);
+
+  /**
+   * Counts reservations for the provided booking item overlapping with the
+   * provided range of dates, boundaries included
+   * 
+   * @param bookingItemId ID of {@link BookingItem}
+   * @param startRange    start of the search range
+   * @param endRange      end of the search range
+   * 
+   * @return number of reservations, or an empty OptionalLong if the search range
+   *         is not covered by the index
+   */
+  OptionalLong countOverlapping(UUID bookingItemId, ZonedDateTime startRange, ZonedDateTime endRange);
+
+  /**
+   * Gets the indexed reservation. Reservations which ended before the covered
+   * period, or cancelled ones, are not found.
+   * 
+   * @param reservationId ID of {@link Reservation}
+   * 
+   * @return Optional of the reservation as it was last published, or an empty
+   *         Optional if it is not indexed
+   */
+  Optional<Reservation> findById(UUID reservationId);
+
+  /**
+   * Adds the reservation to the index, replacing its previous version.
+   * {@link ReservationStatus#CANCELLED} reservation is removed from the index.
+   * 
+   * @param reservation {@link Reservation} as it is stored in DB
+   */
+  void update(Reservation reservation);
+
+  /**
+   * Evicts reservations which end before the provided moment. Searches starting
+   * before that moment are no longer served by the index.
+   * 
+   * @param cutoff reservations ending before this moment are evicted
+   * 
+   * @return number of evicted reservations
+   */
+  long evictEndedBefore(ZonedDateTime cutoff);
+
+}
@@ -0,0 +1,171 @@
+package com.acme.fastbook.persistence.lock;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.acme.fastbook.exception.BookingItemBusyException;
+import com.acme.fastbook.exception.ReservationTimeoutException;
+import com.acme.fastbook.metrics.MetricNames;
+import com.acme.fastbook.metrics.ReservationMetrics;
+
+import lombok.NonNull;
+
+/**
+ * Basic implementation of {@link BookingItemLockManager} interface.
+ * <p>
+ * Each booking item gets its own {@link ReentrantLock}, so writes to different
+ * booking items never contend with each other. Locks are reference counted and
+ * removed from the registry as soon as no thread holds or waits for them, thus
+ * memory usage is bounded by the number of booking items being written
+ * concurrently rather than by the total number of booking items.
+ * <p>
+ * Every lock request is reported to {@link BookingItemLockMonitor}. Results of
+ * admission control are counted by {@link ReservationMetrics}.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Component
+public class BaseBookingItemLockManager implements BookingItemLockManager {
+
+  /** Locks currently in use, keyed by booking item ID */
+  private final ConcurrentMap<UUID, ReferenceCountedLock> locks = new ConcurrentHashMap<>();
+
+  /** Monitor of lock contention */
+  @Autowired
+  private BookingItemLockMonitor lockMonitor;
+
+  /** Metrics of reservation hot paths */
+  @Autowired
+  private ReservationMetrics reservationMetrics;
+
+  @Override
+  public <T> T executeWithLock(final @NonNull UUID bookingItemId, final @NonNull Supplier<T> action) {
+
+    final ReferenceCountedLock lock = acquireReference(bookingItemId, Integer.MAX_VALUE);
+
+    try {
+      final BookingItemLockMonitor.LockObservation observation = lockMonitor.lockRequested(bookingItemId);
+      lock.lock();
+      observation.acquired();
+      try {
+        return action.get();
+      } finally {
+        lock.unlock();
+        observation.released();
+      }
+    } finally {
+      releaseReference(bookingItemId);
+    }
+  }
+
+  @Override
+  public <T> T executeWithAdmission(final @NonNull UUID bookingItemId, final int maxQueueDepth,
+      final long maxWaitMillis, final @NonNull Supplier<T> action) {
+
+    final ReferenceCountedLock lock;
+    try {
+      lock = acquireReference(bookingItemId, maxQueueDepth);
+    } catch (BookingItemBusyException ex) {
+      reservationMetrics.countAdmission(bookingItemId, MetricNames.ADMISSION_QUEUE_FULL, 1);
+      throw ex;
+    }
+
+    try {
+      final BookingItemLockMonitor.LockObservation observation = lockMonitor.lockRequested(bookingItemId);
+      if (!tryLock(lock, maxWaitMillis)) {
+        observation.abandoned();
+        reservationMetrics.countAdmission(bookingItemId, MetricNames.ADMISSION_TIMEOUT, 1);
+        throw new ReservationTimeoutException(String.format(
+            "BookingItem with ID = [%s] is busy, reservation is not processed in time, please try again.",
+            bookingItemId));
+      }
+      observation.acquired();
+      reservationMetrics.countAdmission(bookingItemId, MetricNames.ADMISSION_ADMITTED, 1);
+      try {
+        return action.get();
+      } finally {
+        lock.unlock();
+        observation.released();
+      }
+    } finally {
+      releaseReference(bookingItemId);
+    }
+  }
+
+  /**
+   * Waits for the lock not longer than the provided time. Interrupted wait is
+   * given up.
+   * 
+   * @param lock          lock to be acquired
+   * @param maxWaitMillis maximum time to wait in milliseconds
+   * 
+   * @return true if the lock is acquired
+   */
+  private static boolean tryLock(final ReentrantLock lock, final long maxWaitMillis) {
+    try {
+      return lock.tryLock(maxWaitMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Gets the lock for the provided booking item ID, creating it if needed, and
+   * registers one more reference to it
+   * 
+   * @param bookingItemId booking item ID
+   * @param maxReferences maximum number of threads which may already hold or
+   *                      wait for the lock
+   * 
+   * @return lock associated with the booking item ID
+   * 
+   * @throws BookingItemBusyException if the lock already has
+   *                                  {@code maxReferences} references
+   */
+  private ReferenceCountedLock acquireReference(final UUID bookingItemId, final int maxReferences) {
+    // Exception thrown by the function leaves the registry unchanged
+    return locks.compute(bookingItemId, (id, lock) -> {
+      final ReferenceCountedLock result = (lock == null) ? new ReferenceCountedLock() : lock;
+      if (result.references >= maxReferences) {
+        throw new BookingItemBusyException(String.format(
+            "Too many reservations of BookingItem with ID = [%s] are pending, please try again.", bookingItemId));
+      }
+      result.references++;
+      return result;
+    });
+  }
+
+  /**
+   * Releases one reference to the lock associated with the provided booking item
+   * ID. The lock is removed from the registry when it is not referenced anymore.
+   * 
+   * @param bookingItemId booking item ID
+   */
+  private void releaseReference(final UUID bookingItemId) {
+    locks.computeIfPresent(bookingItemId, (id, lock) -> --lock.references == 0 ? null : lock);
+  }
+
+  /**
+   * {@link ReentrantLock} that keeps track of the number of threads using it.
+   * Counter is only modified within {@link ConcurrentMap#compute} functions,
+   * which are executed atomically per key.
+   */
+  private static class ReferenceCountedLock extends ReentrantLock {
+
+    /** Serial version UID */
+    private static final long serialVersionUID = -3403357417627427519L;
+
+    /** Number of threads holding or waiting for the lock */
+    private int references;
+  }
+
+}
@@ -0,0 +1,252 @@
+package com.acme.fastbook.persistence.lock;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.acme.fastbook.metrics.MetricNames;
+import com.acme.fastbook.model.config.ConcurrencyConfig;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Basic implementation of {@link BookingItemLockMonitor} interface.
+ * <p>
+ * Queue depth and wait and hold time histograms are kept per booking item in a
+ * bounded cache, so only statistics of the least recently locked booking items
+ * are lost when the bound is reached. Wait and hold times of all booking items
+ * are also recorded by Micrometer timers. Waits and holds longer than
+ * {@link ConcurrencyConfig#getSlowLockThresholdMillis()} are logged.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Slf4j
+@Component
+public class BaseBookingItemLockMonitor implements BookingItemLockMonitor {
+
+  /** Upper bounds of histogram buckets in milliseconds */
+  private static final long[] BUCKET_BOUNDS_MILLIS = { 1, 5, 10, 50, 100, 500, 1000, 5000 };
+
+  /** Orders statistics by queue depth, then by total wait time, descending */
+  private static final Comparator<BookingItemLockStatistics> CONTENTION_ORDER = Comparator
+      .comparingInt(BookingItemLockStatistics::getQueueDepth)
+      .thenComparingDouble(statistics -> statistics.getWaitTime().getTotalMillis()).reversed();
+
+  /** Micrometer registry */
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** Lock statistics by booking item ID */
+  private Cache<UUID, LockStatistics> statistics;
+
+  /** Number of threads currently waiting for any lock */
+  private final AtomicInteger waitingThreads = new AtomicInteger();
+
+  /** Timer of waiting for a lock */
+  private Timer waitTimer;
+
+  /** Timer of holding a lock */
+  private Timer holdTimer;
+
+  /** Wait or hold time in nanoseconds above which a warning is logged */
+  private long slowLockThresholdNanos;
+
+  /**
+   * Creates statistics storage and registers metrics
+   */
+  @PostConstruct
+  public void init() {
+
+    final ConcurrencyConfig concurrencyConfig = fastBookConfig.getConcurrencyConfig();
+
+    statistics = Caffeine.newBuilder().maximumSize(concurrencyConfig.getLockStatisticsMaxBookingItems()).build();
+    slowLockThresholdNanos = TimeUnit.MILLISECONDS.toNanos(concurrencyConfig.getSlowLockThresholdMillis());
+
+    waitTimer = meterRegistry.timer(MetricNames.LOCK_WAIT);
+    holdTimer = meterRegistry.timer(MetricNames.LOCK_HOLD);
+    meterRegistry.gauge(MetricNames.LOCK_WAITING, waitingThreads);
+  }
+
+  @Override
+  public LockObservation lockRequested(final @NonNull UUID bookingItemId) {
+
+    final LockStatistics lockStatistics = statistics.get(bookingItemId, id -> new LockStatistics());
+    lockStatistics.queueDepth.incrementAndGet();
+    waitingThreads.incrementAndGet();
+
+    return new LockObservation() {
+
+      /** Time the lock is requested */
+      private final long requested = System.nanoTime();
+
+      /** Time the lock is acquired */
+      private long acquired;
+
+      @Override
+      public void acquired() {
+        acquired = System.nanoTime();
+        waitingThreads.decrementAndGet();
+        final int queueDepth = lockStatistics.queueDepth.decrementAndGet();
+
+        final long waitNanos = acquired - requested;
+        lockStatistics.waitTime.record(waitNanos);
+        waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+
+        if (waitNanos > slowLockThresholdNanos) {
+          log.warn("Lock of booking item {} acquired after {} ms, {} threads still waiting", bookingItemId,
+              TimeUnit.NANOSECONDS.toMillis(waitNanos), queueDepth);
+        }
+      }
+
+      @Override
+      public void abandoned() {
+        waitingThreads.decrementAndGet();
+        lockStatistics.queueDepth.decrementAndGet();
+        log.warn("Lock of booking item {} not acquired in {} ms", bookingItemId,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requested));
+      }
+
+      @Override
+      public void released() {
+        final long holdNanos = System.nanoTime() - acquired;
+        lockStatistics.holdTime.record(holdNanos);
+        holdTimer.record(holdNanos, TimeUnit.NANOSECONDS);
+
+        if (holdNanos > slowLockThresholdNanos) {
+          log.warn("Lock of booking item {} held for {} ms", bookingItemId, TimeUnit.NANOSECONDS.toMillis(holdNanos));
+        }
+      }
+    };
+  }
+
+  @Override
+  public List<BookingItemLockStatistics> getStatistics(final int limit) {
+    return statistics.asMap().entrySet().stream()
+        .map(entry -> entry.getValue().toSnapshot(entry.getKey()))
+        .sorted(CONTENTION_ORDER)
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<BookingItemLockStatistics> getStatistics(final @NonNull UUID bookingItemId) {
+    return Optional.ofNullable(statistics.getIfPresent(bookingItemId))
+        .map(lockStatistics -> lockStatistics.toSnapshot(bookingItemId));
+  }
+
+  /**
+   * Mutable lock statistics of one booking item
+   */
+  private static class LockStatistics {
+
+    /** Number of threads currently waiting for the lock */
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    /** Histogram of time spent waiting for the lock */
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+
+    /** Histogram of time the lock is held */
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+
+    /**
+     * Takes a snapshot of the statistics
+     * 
+     * @param bookingItemId booking item ID
+     * 
+     * @return snapshot of the statistics
+     */
+    private BookingItemLockStatistics toSnapshot(final UUID bookingItemId) {
+      return new BookingItemLockStatistics(bookingItemId, queueDepth.get(), waitTime.toSnapshot(),
+          holdTime.toSnapshot());
+    }
+  }
+
+  /**
+   * Lock-free histogram of latencies with fixed bucket bounds
+   */
+  private static class LatencyHistogram {
+
+    /** Number of values per bucket; the last bucket is unbounded */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+
+    /** Sum of values in nanoseconds */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /** Maximum value in nanoseconds */
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records the value
+     * 
+     * @param nanos value in nanoseconds
+     */
+    private void record(final long nanos) {
+
+      final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+      int bucket = 0;
+      while (bucket < BUCKET_BOUNDS_MILLIS.length && millis >= BUCKET_BOUNDS_MILLIS[bucket]) {
+        bucket++;
+      }
+
+      buckets.incrementAndGet(bucket);
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Takes a snapshot of the histogram
+     * 
+     * @return snapshot of the histogram
+     */
+    private LatencyDistribution toSnapshot() {
+
+      final Map<String, Long> bucketCounts = new LinkedHashMap<>();
+      long count = 0;
+      for (int bucket = 0; bucket < buckets.length(); bucket++) {
+        final long bucketCount = buckets.get(bucket);
+        bucketCounts.put(bucket < BUCKET_BOUNDS_MILLIS.length ? "lt-" + BUCKET_BOUNDS_MILLIS[bucket]
+            : "ge-" + BUCKET_BOUNDS_MILLIS[bucket - 1], bucketCount);
+        count += bucketCount;
+      }
+
+      return new LatencyDistribution(count, toMillis(totalNanos.sum()), toMillis(maxNanos.get()), bucketCounts);
+    }
+
+    /**
+     * Converts nanoseconds to fractional milliseconds
+     * 
+     * @param nanos value in nanoseconds
+     * 
+     * @return value in milliseconds
+     */
+    private static double toMillis(final long nanos) {
+      return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+  }
+
+}
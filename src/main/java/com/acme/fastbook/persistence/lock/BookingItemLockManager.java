@@ -0,0 +1,54 @@
+package com.acme.fastbook.persistence.lock;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import com.acme.fastbook.exception.BookingItemBusyException;
+import com.acme.fastbook.exception.ReservationTimeoutException;
+import com.acme.fastbook.model.BookingItem;
+
+/**
+ * Lock manager used to serialize write operations performed on the same
+ * {@link BookingItem}. Operations on different booking items are not blocked by
+ * each other.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface BookingItemLockManager {
+
+  /**
+   * Executes the {@code action} while holding an exclusive lock associated with
+   * the provided {@code bookingItemId}. The lock is released when the action
+   * completes, normally or exceptionally.
+   * 
+   * @param <T>           type of the action result
+   * @param bookingItemId ID of {@link BookingItem} to be locked
+   * @param action        action to be executed under the lock
+   * 
+   * @return result of the action
+   */
+  <T> T executeWithLock(UUID bookingItemId, Supplier<T> action);
+
+  /**
+   * Executes the {@code action} while holding the lock associated with the
+   * provided {@code bookingItemId}, if it is admitted: not more than
+   * {@code maxQueueDepth} threads hold or wait for the lock, and the lock is
+   * acquired within {@code maxWaitMillis}.
+   * 
+   * @param <T>           type of the action result
+   * @param bookingItemId ID of {@link BookingItem} to be locked
+   * @param maxQueueDepth maximum number of threads holding or waiting for the
+   *                      lock
+   * @param maxWaitMillis maximum time to wait for the lock in milliseconds
+   * @param action        action to be executed under the lock
+   * 
+   * @return result of the action
+   * 
+   * @throws BookingItemBusyException    if too many threads hold or wait for the
+   *                                     lock
+   * @throws ReservationTimeoutException if the lock is not acquired in time
+   */
+  <T> T executeWithAdmission(UUID bookingItemId, int maxQueueDepth, long maxWaitMillis, Supplier<T> action);
+
+}
@@ -0,0 +1,69 @@
+package com.acme.fastbook.persistence.lock;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Monitor of booking item locks used by {@link BookingItemLockManager}. It is
+ * notified about every lock request and keeps contention statistics per
+ * booking item.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface BookingItemLockMonitor {
+
+  /**
+   * Notifies the monitor that the current thread requests the lock of the
+   * booking item
+   * 
+   * @param bookingItemId booking item ID
+   * 
+   * @return observation to be notified when the lock is acquired and released
+   */
+  LockObservation lockRequested(UUID bookingItemId);
+
+  /**
+   * Gets lock statistics of the most contended booking items: the ones with the
+   * longest queue first, then the ones with the longest total wait time
+   * 
+   * @param limit maximum number of booking items
+   * 
+   * @return lock statistics
+   */
+  List<BookingItemLockStatistics> getStatistics(int limit);
+
+  /**
+   * Gets lock statistics of the booking item
+   * 
+   * @param bookingItemId booking item ID
+   * 
+   * @return lock statistics, or empty {@link Optional} if the lock of the booking
+   *         item has not been requested
+   */
+  Optional<BookingItemLockStatistics> getStatistics(UUID bookingItemId);
+
+  /**
+   * Observation of one lock request
+   */
+  interface LockObservation {
+
+    /**
+     * Notifies that the lock is acquired by the requesting thread
+     */
+    void acquired();
+
+    /**
+     * Notifies that the requesting thread stopped waiting without acquiring the
+     * lock
+     */
+    void abandoned();
+
+    /**
+     * Notifies that the lock is released by the requesting thread
+     */
+    void released();
+  }
+
+}
@@ -0,0 +1,28 @@
+package com.acme.fastbook.persistence.lock;
+
+import java.util.UUID;
+
+import lombok.Data;
+
+/**
+ * Snapshot of lock statistics of one booking item
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class BookingItemLockStatistics {
+
+  /** Booking item ID */
+  private final UUID bookingItemId;
+
+  /** Number of threads currently waiting for the lock */
+  private final int queueDepth;
+
+  /** Distribution of time spent waiting for the lock */
+  private final LatencyDistribution waitTime;
+
+  /** Distribution of time the lock is held */
+  private final LatencyDistribution holdTime;
+
+}
@@ -0,0 +1,32 @@
+package com.acme.fastbook.persistence.lock;
+
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Snapshot of a latency distribution
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class LatencyDistribution {
+
+  /** Number of recorded values */
+  private final long count;
+
+  /** Sum of recorded values in milliseconds */
+  private final double totalMillis;
+
+  /** Maximum recorded value in milliseconds */
+  private final double maxMillis;
+
+  /**
+   * Number of recorded values per bucket, keyed by exclusive bucket upper bound
+   * in milliseconds, e.g. {@code "lt-10"}; the last bucket is keyed by its lower
+   * bound, e.g. {@code "ge-5000"}
+   */
+  private final Map<String, Long> buckets;
+
+}
@@ -0,0 +1,46 @@
+package com.acme.fastbook.persistence.model;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of an archiving run. It is written in the same transaction as every
+ * archived batch, so a run interrupted by a restart is resumed with the same
+ * cutoff.
+ * 
+ * @author Mykhaylo Symulyk
+ */
+@Entity
+@Table(name = "archive_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveCheckpointEntity {
+
+  /** Name of the archiving job */
+  @Id
+  private String job;
+
+  /** Reservations which ended before this date are archived by the run */
+  private ZonedDateTime cutoff;
+
+  /** ID of the last archived reservation, null if nothing is archived yet */
+  private UUID lastReservationId;
+
+  /** Number of reservations archived by the run */
+  private long archivedCount;
+
+  /** Whether the run is finished */
+  private boolean finished;
+
+  /** Time of the last update of the checkpoint */
+  private ZonedDateTime updatedAt;
+}
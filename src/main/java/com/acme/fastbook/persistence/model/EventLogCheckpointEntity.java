@@ -0,0 +1,46 @@
+package com.acme.fastbook.persistence.model;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Description of the last snapshot of the reservation event log. It is written
+ * in the same transaction as the snapshot.
+ * 
+ * @author Mykhaylo Symulyk
+ */
+@Entity
+@Table(name = "event_log_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventLogCheckpointEntity {
+
+  /** Name of the snapshot */
+  @Id
+  private String name;
+
+  /**
+   * Events after this one are replayed on top of the snapshot. Events appended
+   * by transactions which were still running when the snapshot was taken may
+   * have lower IDs than the last event seen by the snapshot, so replay starts
+   * from the last event seen by the previous snapshot.
+   */
+  private long replayFromEventId;
+
+  /** ID of the last event appended when the snapshot was taken */
+  private long lastEventId;
+
+  /** Number of reservations in the snapshot */
+  private long reservationCount;
+
+  /** Time when the snapshot was taken */
+  private ZonedDateTime createdAt;
+}
@@ -0,0 +1,67 @@
+package com.acme.fastbook.persistence.model;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Completed or cancelled reservation moved out of the reservation table by the
+ * archiver. Columns are the ones of {@link ReservationEntity}, so that rows are
+ * copied by a single INSERT ... SELECT statement.
+ * 
+ * @author Mykhaylo Symulyk
+ */
+@Entity
+@Table(name = "reservation_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationArchiveEntity {
+
+  /** Reservation unique id */
+  @Id
+  private UUID id;
+
+  /** Booking Item ID. It is not a foreign key, archive is never joined. */
+  @Column(name = "booking_item_id")
+  private UUID bookingItemId;
+
+  /** Status of the reservation */
+  @Enumerated(EnumType.STRING)
+  private ReservationStatus reservationStatus;
+
+  /** Customer name */
+  private String customerName;
+
+  /** Customer email */
+  private String customerEmail;
+
+  /** Start date of reservation */
+  @Column(name = "start_date")
+  private ZonedDateTime startDate;
+
+  /** End date of reservation */
+  @Column(name = "end_date")
+  private ZonedDateTime endDate;
+
+  /** Cost per day */
+  private BigDecimal dailyCost;
+
+  /** Last version of the reservation */
+  private Long version;
+
+  /** Time when the reservation was archived */
+  @Column(name = "archived_at")
+  private ZonedDateTime archivedAt;
+}
@@ -0,0 +1,44 @@
+package com.acme.fastbook.persistence.model;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Night occupied by a reservation. Primary key (booking item, day) guarantees
+ * that the same night of a booking item can not be occupied twice.
+ * 
+ * @author Mykhaylo Symulyk
+ */
+@Entity
+@Table(name = "reservation_day", indexes = @Index(name = "idx_reservation_day_reservation_id", columnList = "reservation_id"))
+@IdClass(ReservationDayId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDayEntity {
+
+  /** Booking Item ID */
+  @Id
+  @Column(name = "booking_item_id")
+  private UUID bookingItemId;
+
+  /** Occupied night, that is, the day when the night starts (UTC) */
+  @Id
+  @Column(name = "day")
+  private LocalDate day;
+
+  /** ID of the reservation occupying the night */
+  @Column(name = "reservation_id", nullable = false)
+  private UUID reservationId;
+}
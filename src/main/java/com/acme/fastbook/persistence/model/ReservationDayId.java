@@ -0,0 +1,29 @@
+package com.acme.fastbook.persistence.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Composite primary key of {@link ReservationDayEntity}
+ * 
+ * @author Mykhaylo Symulyk
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDayId implements Serializable {
+
+  /** Serial version UID */
+  private static final long serialVersionUID = -1187260476345081913L;
+
+  /** Booking Item ID */
+  private UUID bookingItemId;
+
+  /** Occupied night */
+  private LocalDate day;
+}
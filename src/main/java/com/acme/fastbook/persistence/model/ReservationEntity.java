@@ -4,14 +4,17 @@ import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -23,7 +26,9 @@ import lombok.NoArgsConstructor;
  * @author Mykhaylo Symulyk
  */
 @Entity
-@Table(name = "reservation")
+@Table(name = "reservation", indexes = {
+    @Index(name = "idx_reservation_booking_item_dates", columnList = "booking_item_id, start_date, end_date"),
+    @Index(name = "idx_reservation_status_end_date", columnList = "reservation_status, end_date") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,6 +45,7 @@ public class ReservationEntity {
 
   /** Status of the reservation */
   @Enumerated(EnumType.STRING)
+  @Column(name = "reservation_status")
   private ReservationStatus reservationStatus;
 
   /** Customer name */
@@ -49,11 +55,17 @@ public class ReservationEntity {
   private String customerEmail;
 
   /** Start date of reservation */
+  @Column(name = "start_date")
   private ZonedDateTime startDate;
 
   /** End date of reservation */
+  @Column(name = "end_date")
   private ZonedDateTime endDate;
 
   /** Cost per day */
   private BigDecimal dailyCost;
+
+  /** Version used for optimistic locking. Null for a new reservation. */
+  @Version
+  private Long version;
 }
@@ -0,0 +1,84 @@
+package com.acme.fastbook.persistence.model;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event of the append-only reservation event log. Events are never updated nor
+ * deleted. Their IDs are allocated from a sequence in blocks of the JDBC batch
+ * size, so events appended by a transaction are inserted in JDBC batches. IDs
+ * follow the order in which events are appended, and events of the same
+ * reservation are appended in the order of its versions.
+ * <p>
+ * {@link ReservationEventType#CREATED}, {@link ReservationEventType#DATES_CHANGED}
+ * and {@link ReservationEventType#UPDATED} events carry the whole state of the
+ * reservation after the change. Other events carry only reservation and
+ * booking item IDs.
+ * 
+ * @author Mykhaylo Symulyk
+ */
+@Entity
+@Table(name = "reservation_event")
+@Data
+@NoArgsConstructor
+public class ReservationEventEntity {
+
+  /** Sequence number of the event */
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_event_seq")
+  @SequenceGenerator(name = "reservation_event_seq", sequenceName = "reservation_event_seq", allocationSize = 50)
+  private Long id;
+
+  /** Type of the event */
+  @Enumerated(EnumType.STRING)
+  @Column(name = "event_type", nullable = false)
+  private ReservationEventType eventType;
+
+  /** Reservation unique id */
+  @Column(name = "reservation_id", nullable = false)
+  private UUID reservationId;
+
+  /** Booking Item ID. It is not a foreign key, the log is never joined. */
+  @Column(name = "booking_item_id", nullable = false)
+  private UUID bookingItemId;
+
+  /** Status of the reservation */
+  @Enumerated(EnumType.STRING)
+  private ReservationStatus reservationStatus;
+
+  /** Customer name */
+  private String customerName;
+
+  /** Customer email */
+  private String customerEmail;
+
+  /** Start date of reservation */
+  private ZonedDateTime startDate;
+
+  /** End date of reservation */
+  private ZonedDateTime endDate;
+
+  /** Cost per day */
+  private BigDecimal dailyCost;
+
+  /** Version of the reservation after the change */
+  private Long version;
+
+  /** Time when the event was appended */
+  @Column(name = "occurred_at", nullable = false)
+  private ZonedDateTime occurredAt;
+}
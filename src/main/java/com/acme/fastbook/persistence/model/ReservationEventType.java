@@ -0,0 +1,28 @@
+package com.acme.fastbook.persistence.model;
+
+/**
+ * Types of events appended to the reservation event log
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public enum ReservationEventType {
+
+  /** Reservation is created. Event carries its whole state. */
+  CREATED,
+
+  /** Dates of the reservation are changed. Event carries its whole state. */
+  DATES_CHANGED,
+
+  /** Other properties of the reservation are changed. Event carries its whole state. */
+  UPDATED,
+
+  /** Reservation is cancelled and releases its dates */
+  CANCELLED,
+
+  /** Reservation ended and is completed by the archiver */
+  COMPLETED,
+
+  /** Reservation is moved to the archive */
+  ARCHIVED
+}
@@ -0,0 +1,23 @@
+package com.acme.fastbook.persistence.model;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Read-only projection of {@link ReservationEntity} holding its ID and the ID
+ * of its booking item. It is created by a JPQL constructor expression.
+ * 
+ * @author Mykhaylo Symulyk
+ */
+@Data
+@AllArgsConstructor
+public class ReservationRef {
+
+  /** Reservation ID */
+  private final UUID id;
+
+  /** Booking Item ID */
+  private final UUID bookingItemId;
+}
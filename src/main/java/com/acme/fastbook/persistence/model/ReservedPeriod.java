@@ -0,0 +1,33 @@
+package com.acme.fastbook.persistence.model;
+
+import java.time.ZonedDateTime;
+
+import lombok.Data;
+
+/**
+ * Read-only projection of {@link ReservationEntity} holding only the reserved
+ * period as epoch milliseconds. It is created by a JPQL constructor expression,
+ * so reservations are not loaded into the persistence context.
+ * 
+ * @author Mykhaylo Symulyk
+ */
+@Data
+public class ReservedPeriod {
+
+  /** Start date of reservation in epoch milliseconds */
+  private final long startEpochMilli;
+
+  /** End date of reservation in epoch milliseconds */
+  private final long endEpochMilli;
+
+  /**
+   * Constructor used by JPQL constructor expression
+   * 
+   * @param startDate start date of reservation
+   * @param endDate   end date of reservation
+   */
+  public ReservedPeriod(final ZonedDateTime startDate, final ZonedDateTime endDate) {
+    this.startEpochMilli = startDate.toInstant().toEpochMilli();
+    this.endEpochMilli = endDate.toInstant().toEpochMilli();
+  }
+}
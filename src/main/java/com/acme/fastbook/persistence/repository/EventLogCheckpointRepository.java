@@ -0,0 +1,17 @@
+package com.acme.fastbook.persistence.repository;
+
+import org.springframework.data.repository.CrudRepository;
+
+import com.acme.fastbook.persistence.model.EventLogCheckpointEntity;
+
+/**
+ * DB Repository implementation to manage DB data for
+ * {@link EventLogCheckpointEntity}. It inherits methods from Spring's
+ * {@link CrudRepository} interface.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface EventLogCheckpointRepository extends CrudRepository<EventLogCheckpointEntity, String> {
+
+}
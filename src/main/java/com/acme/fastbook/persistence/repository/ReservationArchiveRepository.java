@@ -0,0 +1,38 @@
+package com.acme.fastbook.persistence.repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.acme.fastbook.persistence.model.ReservationArchiveEntity;
+import com.acme.fastbook.persistence.model.ReservationEntity;
+
+/**
+ * DB Repository implementation to manage DB data for
+ * {@link ReservationArchiveEntity}. It inherits methods from Spring's
+ * {@link CrudRepository} interface.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationArchiveRepository extends CrudRepository<ReservationArchiveEntity, UUID> {
+
+  /**
+   * Copies reservations from the reservation table to the archive table by a
+   * single statement. Copied {@link ReservationEntity}-s are not deleted.
+   * 
+   * @param ids        reservation IDs
+   * @param archivedAt time of archiving
+   * 
+   * @return number of copied rows
+   */
+  @Modifying
+  @Query(value = SqlConstant.COPY_RESERVATIONS_TO_ARCHIVE_INSERT, nativeQuery = true)
+  int copyFromReservations(@Param("ids") Collection<UUID> ids, @Param("archivedAt") ZonedDateTime archivedAt);
+
+}
@@ -0,0 +1,48 @@
+package com.acme.fastbook.persistence.repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.acme.fastbook.persistence.model.ReservationDayEntity;
+import com.acme.fastbook.persistence.model.ReservationDayId;
+
+/**
+ * DB Repository implementation to manage DB data for
+ * {@link ReservationDayEntity}. It inherits methods from Spring's
+ * {@link CrudRepository} interface and batch operations from
+ * {@link ReservationDayRepositoryCustom}.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationDayRepository
+    extends CrudRepository<ReservationDayEntity, ReservationDayId>, ReservationDayRepositoryCustom {
+
+  /**
+   * Deletes all nights occupied by the reservation with the provided ID
+   * 
+   * @param reservationId reservation ID
+   * 
+   * @return number of deleted rows
+   */
+  @Modifying
+  @Query("DELETE FROM ReservationDayEntity d WHERE d.reservationId = :reservationId")
+  int deleteByReservationId(@Param("reservationId") UUID reservationId);
+
+  /**
+   * Deletes all nights occupied by the reservations with the provided IDs
+   * 
+   * @param reservationIds reservation IDs
+   * 
+   * @return number of deleted rows
+   */
+  @Modifying
+  @Query("DELETE FROM ReservationDayEntity d WHERE d.reservationId IN :reservationIds")
+  int deleteByReservationIds(@Param("reservationIds") Collection<UUID> reservationIds);
+
+}
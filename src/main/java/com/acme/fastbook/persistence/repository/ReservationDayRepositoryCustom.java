@@ -0,0 +1,33 @@
+package com.acme.fastbook.persistence.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.dao.DuplicateKeyException;
+
+import com.acme.fastbook.persistence.model.ReservationDayEntity;
+
+/**
+ * Custom operations on {@link ReservationDayEntity} which are not supported by
+ * Spring Data derived queries
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationDayRepositoryCustom {
+
+  /**
+   * Inserts one row per provided day using a single JDBC batch, without checking
+   * if rows already exist
+   * 
+   * @param bookingItemId booking item ID
+   * @param reservationId ID of the reservation occupying the days
+   * @param days          days to be occupied
+   * 
+   * @throws DuplicateKeyException if at least one of the days is already
+   *                               occupied
+   */
+  void insertAll(UUID bookingItemId, UUID reservationId, List<LocalDate> days);
+
+}
@@ -0,0 +1,35 @@
+package com.acme.fastbook.persistence.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Implementation of {@link ReservationDayRepositoryCustom} based on
+ * {@link JdbcTemplate}. JDBC is used directly so that rows are inserted with one
+ * batch and without the SELECT that JPA would issue for entities with assigned
+ * IDs.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+class ReservationDayRepositoryCustomImpl implements ReservationDayRepositoryCustom {
+
+  /** {@link JdbcTemplate} bean. It participates in the current JPA transaction */
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void insertAll(final UUID bookingItemId, final UUID reservationId, final List<LocalDate> days) {
+    jdbcTemplate.batchUpdate(SqlConstant.INSERT_RESERVATION_DAY, days, days.size(), (ps, day) -> {
+      ps.setObject(1, bookingItemId);
+      ps.setDate(2, Date.valueOf(day));
+      ps.setObject(3, reservationId);
+    });
+  }
+
+}
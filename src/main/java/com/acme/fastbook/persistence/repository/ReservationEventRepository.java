@@ -0,0 +1,48 @@
+package com.acme.fastbook.persistence.repository;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.acme.fastbook.persistence.model.ReservationEventEntity;
+
+/**
+ * DB Repository implementation to manage DB data for
+ * {@link ReservationEventEntity}. It inherits methods from Spring's
+ * {@link CrudRepository} interface.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationEventRepository extends CrudRepository<ReservationEventEntity, Long> {
+
+  /**
+   * Gets the ID of the last appended event
+   * 
+   * @return ID of the last event, 0 if the log is empty
+   */
+  @Query(SqlConstant.LAST_EVENT_ID_SELECT)
+  long findLastEventId();
+
+  /**
+   * Streams events appended after the provided one in the order they were
+   * appended. Stream must be consumed and closed within a transaction.
+   * 
+   * @param afterId ID of the event to start after
+   * 
+   * @return stream of ReservationEventEntity
+   */
+  @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = SqlConstant.STREAM_FETCH_SIZE),
+      @QueryHint(name = HINT_READONLY, value = "true") })
+  @Query(SqlConstant.EVENTS_AFTER_SELECT)
+  Stream<ReservationEventEntity> streamAfter(@Param("afterId") long afterId);
+
+}
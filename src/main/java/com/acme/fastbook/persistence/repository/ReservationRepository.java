@@ -1,52 +1,231 @@
 package com.acme.fastbook.persistence.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 import com.acme.fastbook.persistence.model.BookingItemEntity;
 import com.acme.fastbook.persistence.model.ReservationEntity;
+import com.acme.fastbook.persistence.model.ReservationRef;
 import com.acme.fastbook.persistence.model.ReservationStatus;
+import com.acme.fastbook.persistence.model.ReservedPeriod;
 
 /**
  * DB Repository implementation to manage DB data for {@link ReservationEntity}.
- * It inherits methods from Spring's {@link CrudRepository} interface.
+ * It inherits methods from Spring's {@link CrudRepository} interface and batch
+ * operations from {@link ReservationRepositoryCustom}.
  * 
  * @author Mykhaylo Symulyk
  *
  */
-public interface ReservationRepository extends CrudRepository<ReservationEntity, UUID> {
+public interface ReservationRepository
+    extends CrudRepository<ReservationEntity, UUID>, ReservationRepositoryCustom {
 
   /**
    * Finds all {@link ReservationEntity} related related to {@code bookingItemId}
    * 
-   * @param bookingItemId {@link BookingItemEntity} to search for
+   * @param bookingItemId ID of {@link BookingItemEntity} to search for
+   * 
+   * @return list of ReservationEntity
+   */
+  @Query(SqlConstant.RESERVATIONS_SELECT_CLAUSE + SqlConstant.BY_BOOKING_ITEM_WHERE_CLAUSE)
+  List<ReservationEntity> findByBookingItemId(@Param("bookingItemId") UUID bookingItemId);
+
+  /**
+   * Finds the first page of Reservations for the provided bookingItemId ordered
+   * by start date and id
+   * 
+   * @param bookingItemId id of {@link BookingItemEntity}
+   * @param pageable      page size, the page number must be 0
+   * 
+   * @return list of Reservations
+   */
+  @Query(SqlConstant.RESERVATIONS_SELECT_CLAUSE + SqlConstant.BY_BOOKING_ITEM_WHERE_CLAUSE
+      + SqlConstant.BY_KEYSET_ORDER_CLAUSE)
+  List<ReservationEntity> findFirstPageByBookingItemId(@Param("bookingItemId") UUID bookingItemId,
+      Pageable pageable);
+
+  /**
+   * Finds the page of Reservations for the provided bookingItemId which follow
+   * the reservation with the provided start date and id, ordered by start date
+   * and id. Unlike offset pagination, the preceding reservations are not read.
+   * 
+   * @param bookingItemId  id of {@link BookingItemEntity}
+   * @param afterStartDate start date of the last reservation of the previous page
+   * @param afterId        id of the last reservation of the previous page
+   * @param pageable       page size, the page number must be 0
+   * 
+   * @return list of Reservations
+   */
+  @Query(SqlConstant.RESERVATIONS_SELECT_CLAUSE + SqlConstant.BY_BOOKING_ITEM_WHERE_CLAUSE
+      + SqlConstant.AFTER_KEYSET_CLAUSE + SqlConstant.BY_KEYSET_ORDER_CLAUSE)
+  List<ReservationEntity> findPageByBookingItemIdAfter(@Param("bookingItemId") UUID bookingItemId,
+      @Param("afterStartDate") ZonedDateTime afterStartDate, @Param("afterId") UUID afterId, Pageable pageable);
+
+  /**
+   * Streams all Reservations for the provided bookingItemId ordered by start
+   * date and id. Stream must be consumed and closed within a transaction.
+   * 
+   * @param bookingItemId id of {@link BookingItemEntity}
+   * 
+   * @return stream of Reservations
+   */
+  @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = SqlConstant.STREAM_FETCH_SIZE),
+      @QueryHint(name = HINT_READONLY, value = "true") })
+  @Query(SqlConstant.RESERVATIONS_SELECT_CLAUSE + SqlConstant.BY_BOOKING_ITEM_WHERE_CLAUSE
+      + SqlConstant.BY_KEYSET_ORDER_CLAUSE)
+  Stream<ReservationEntity> streamByBookingItemId(@Param("bookingItemId") UUID bookingItemId);
+
+  /**
+   * Sets the status of the active reservation to {@code cancelled} by a single
+   * conditional UPDATE and increments its version
+   * 
+   * @param id        reservation ID
+   * @param active    active status
+   * @param cancelled cancelled status
+   * 
+   * @return number of updated rows: 0 if reservation is not found or not active
+   */
+  @Modifying(clearAutomatically = true)
+  @Query(SqlConstant.CANCEL_RESERVATION_UPDATE)
+  int cancel(@Param("id") UUID id, @Param("active") ReservationStatus active,
+      @Param("cancelled") ReservationStatus cancelled);
+
+  /**
+   * Finds references of reservations having one of the provided statuses and
+   * ended before the cutoff, ordered by end date and id
+   * 
+   * @param statuses List of included statuses
+   * @param cutoff   reservations ending at this date or later are not found
+   * @param pageable maximal number of reservations, the page number must be 0
+   * 
+   * @return list of reservation references
+   */
+  @Query(SqlConstant.ENDED_RESERVATIONS_SELECT)
+  List<ReservationRef> findEndedBefore(@Param("statuses") List<ReservationStatus> statuses,
+      @Param("cutoff") ZonedDateTime cutoff, Pageable pageable);
+
+  /**
+   * Sets the status of the provided reservations to {@code completed} and
+   * increments their version, unless their status is not {@code active} anymore
+   * 
+   * @param ids       reservation IDs
+   * @param active    active status
+   * @param completed completed status
+   * 
+   * @return number of updated rows
+   */
+  @Modifying(clearAutomatically = true)
+  @Query(SqlConstant.COMPLETE_RESERVATIONS_UPDATE)
+  int complete(@Param("ids") Collection<UUID> ids, @Param("active") ReservationStatus active,
+      @Param("completed") ReservationStatus completed);
+
+  /**
+   * Deletes reservations by a single statement
+   * 
+   * @param ids reservation IDs
+   * 
+   * @return number of deleted rows
+   */
+  @Modifying(clearAutomatically = true)
+  @Query(SqlConstant.RESERVATIONS_DELETE)
+  int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+  /**
+   * Finds all {@link ReservationEntity} not having the provided status and ending
+   * at {@code endDate} or later
+   * 
+   * @param reservationStatus status to be excluded
+   * @param endDate           minimal end date
+   * 
+   * @return list of ReservationEntity
+   */
+  List<ReservationEntity> findByReservationStatusNotAndEndDateGreaterThanEqual(ReservationStatus reservationStatus,
+      ZonedDateTime endDate);
+
+  /**
+   * Finds all {@link ReservationEntity} not having the provided status, ending
+   * at {@code endDate} or later, and occupying no night, e.g. the ones created
+   * before nights were occupied
+   * 
+   * @param excluded status to be excluded
+   * @param endDate  minimal end date
    * 
    * @return list of ReservationEntity
    */
-  List<ReservationEntity> findByBookingItemId(BookingItemEntity bookingItemId);
+  @Query(SqlConstant.WITHOUT_OCCUPIED_NIGHTS_SELECT)
+  List<ReservationEntity> findWithoutOccupiedNights(@Param("excluded") ReservationStatus excluded,
+      @Param("endDate") ZonedDateTime endDate);
 
   /**
    * Finds and returns all Reservations for the provided bookingItemId and within
    * the provided time period denoted by {@code startRange} and {@code endRange}.
-   * Status of the Reservation should not be in the list of
-   * {@code excludedStatuses}.
+   * Status of the Reservation should be in the list of {@code statuses}.
    * 
    * @param bookingItemId    id of {@link BookingItemEntity}
    * @param startRange       start of the search range
    * @param endRange         end of the search range
-   * @param excludedStatuses List of excluded statuses
+   * @param statuses         List of included statuses
    * 
    * @return list of Reservations
    */
   @Query(SqlConstant.RESERVATIONS_SELECT_CLAUSE + SqlConstant.WITHIN_DATE_RANGE_WHERE_CLAUSE)
   List<ReservationEntity> findAllForBookingItemIdAndWithinDateRange(@Param("bookingItemId") UUID bookingItemId,
       @Param("startRange") ZonedDateTime startRange, @Param("endRange") ZonedDateTime endRange,
-      @Param("excludedStatuses") List<ReservationStatus> excludedStatuses);
+      @Param("statuses") List<ReservationStatus> statuses);
+
+  /**
+   * Finds reserved periods of all Reservations for the provided bookingItemId
+   * and within the provided time period denoted by {@code startRange} and
+   * {@code endRange}, ordered by start date. Status of the Reservation should be
+   * in the list of {@code statuses}. Entities are not loaded.
+   * 
+   * @param bookingItemId id of {@link BookingItemEntity}
+   * @param startRange    start of the search range
+   * @param endRange      end of the search range
+   * @param statuses      List of included statuses
+   * 
+   * @return list of reserved periods
+   */
+  @Query(SqlConstant.RESERVED_PERIODS_SELECT_CLAUSE + SqlConstant.WITHIN_DATE_RANGE_WHERE_CLAUSE
+      + SqlConstant.BY_START_DATE_ORDER_CLAUSE)
+  List<ReservedPeriod> findReservedPeriodsForBookingItemIdAndWithinDateRange(
+      @Param("bookingItemId") UUID bookingItemId, @Param("startRange") ZonedDateTime startRange,
+      @Param("endRange") ZonedDateTime endRange, @Param("statuses") List<ReservationStatus> statuses);
+
+  /**
+   * Finds and returns all Reservations of the provided booking items within the
+   * provided time period denoted by {@code startRange} and {@code endRange},
+   * ordered by booking item and start date. Status of the Reservation should be
+   * in the list of {@code statuses}.
+   * 
+   * @param bookingItemIds   ids of {@link BookingItemEntity}-s
+   * @param startRange       start of the search range
+   * @param endRange         end of the search range
+   * @param statuses         List of included statuses
+   * 
+   * @return list of Reservations
+   */
+  @Query(SqlConstant.RESERVATIONS_SELECT_CLAUSE + SqlConstant.WITHIN_DATE_RANGE_FOR_BOOKING_ITEMS_WHERE_CLAUSE
+      + SqlConstant.BY_BOOKING_ITEM_ORDER_CLAUSE)
+  List<ReservationEntity> findAllForBookingItemIdsAndWithinDateRange(
+      @Param("bookingItemIds") Collection<UUID> bookingItemIds, @Param("startRange") ZonedDateTime startRange,
+      @Param("endRange") ZonedDateTime endRange,
+      @Param("statuses") List<ReservationStatus> statuses);
 
   /**
    * Gets the number of reservations for the provided date range
@@ -54,13 +233,13 @@ public interface ReservationRepository extends CrudRepository<ReservationEntity,
    * @param bookingItemId    ID of {@link BookingItemEntity}
    * @param startRange       start of the search range
    * @param endRange         end of the search range
-   * @param excludedStatuses List of excluded statuses
+   * @param statuses         List of included statuses
    * 
    * @return number of reservations within the provided range
    */
   @Query(SqlConstant.COUNT_SELECT_CLAUSE + SqlConstant.WITHIN_DATE_RANGE_WHERE_CLAUSE)
   long getNumberOfReservations(@Param("bookingItemId") UUID bookingItemId,
       @Param("startRange") ZonedDateTime startRange, @Param("endRange") ZonedDateTime endRange,
-      @Param("excludedStatuses") List<ReservationStatus> excludedStatuses);
+      @Param("statuses") List<ReservationStatus> statuses);
 
 }
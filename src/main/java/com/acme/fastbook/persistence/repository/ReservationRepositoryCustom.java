@@ -0,0 +1,51 @@
+package com.acme.fastbook.persistence.repository;
+
+import java.util.List;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import com.acme.fastbook.persistence.model.ReservationEntity;
+
+/**
+ * Custom operations on {@link ReservationEntity} which are not supported by
+ * Spring Data derived queries
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationRepositoryCustom {
+
+  /**
+   * Persists new reservations. Unlike {@code saveAll}, it does not issue a
+   * SELECT per reservation with an assigned ID, so inserts are sent to DB in
+   * JDBC batches of {@code hibernate.jdbc.batch_size}.
+   * 
+   * @param reservations new reservations
+   * 
+   * @return persisted reservations
+   */
+  List<ReservationEntity> persistAll(List<ReservationEntity> reservations);
+
+  /**
+   * Persists the new reservation or merges the existing one. Unlike
+   * {@code save}, the booking item is referenced without being loaded and
+   * without being checked for its version.
+   * 
+   * @param reservation reservation to be written, new if its version is null
+   * 
+   * @return written reservation
+   * 
+   * @throws OptimisticLockingFailureException if the reservation was updated
+   *                                           concurrently
+   */
+  ReservationEntity write(ReservationEntity reservation);
+
+  /**
+   * Detaches the reservation from the persistence context, so that reservations
+   * read one by one from a stream do not accumulate in the context
+   * 
+   * @param reservation reservation to be detached
+   */
+  void detach(ReservationEntity reservation);
+
+}
@@ -0,0 +1,65 @@
+package com.acme.fastbook.persistence.repository;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import com.acme.fastbook.persistence.model.BookingItemEntity;
+import com.acme.fastbook.persistence.model.ReservationEntity;
+
+/**
+ * Implementation of {@link ReservationRepositoryCustom} based on
+ * {@link EntityManager}
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+class ReservationRepositoryCustomImpl implements ReservationRepositoryCustom {
+
+  /** {@link EntityManager} of the current transaction */
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<ReservationEntity> persistAll(final List<ReservationEntity> reservations) {
+
+    for (ReservationEntity reservation : reservations) {
+      referenceBookingItem(reservation);
+      entityManager.persist(reservation);
+    }
+
+    entityManager.flush();
+    return reservations;
+  }
+
+  @Override
+  public ReservationEntity write(final ReservationEntity reservation) {
+
+    referenceBookingItem(reservation);
+
+    if (reservation.getVersion() == null) {
+      entityManager.persist(reservation);
+      return reservation;
+    }
+    return entityManager.merge(reservation);
+  }
+
+  @Override
+  public void detach(final ReservationEntity reservation) {
+    entityManager.detach(reservation);
+  }
+
+  /**
+   * Replaces the booking item of the reservation by a reference. Reference
+   * avoids loading the booking item to check if it exists, and it is never
+   * considered as transient, unlike a detached booking item without version.
+   * 
+   * @param reservation reservation to be written
+   */
+  private void referenceBookingItem(final ReservationEntity reservation) {
+    reservation.setBookingItemId(
+        entityManager.getReference(BookingItemEntity.class, reservation.getBookingItemId().getId()));
+  }
+
+}
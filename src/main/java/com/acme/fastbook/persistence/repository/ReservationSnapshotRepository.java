@@ -0,0 +1,62 @@
+package com.acme.fastbook.persistence.repository;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.acme.fastbook.persistence.model.ReservationEntity;
+import com.acme.fastbook.persistence.model.ReservationSnapshotEntity;
+
+/**
+ * DB Repository implementation to manage DB data for
+ * {@link ReservationSnapshotEntity}. It inherits methods from Spring's
+ * {@link CrudRepository} interface.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationSnapshotRepository extends CrudRepository<ReservationSnapshotEntity, UUID> {
+
+  /**
+   * Copies active reservations from the reservation table to the snapshot table
+   * by a single statement
+   * 
+   * @param active name of the active {@link ReservationEntity} status
+   * 
+   * @return number of copied rows
+   */
+  @Modifying
+  @Query(value = SqlConstant.COPY_RESERVATIONS_TO_SNAPSHOT_INSERT, nativeQuery = true)
+  int copyFromReservations(@Param("active") String active);
+
+  /**
+   * Deletes the whole snapshot by a single statement
+   * 
+   * @return number of deleted rows
+   */
+  @Modifying(clearAutomatically = true)
+  @Query(SqlConstant.SNAPSHOTS_DELETE)
+  int deleteSnapshot();
+
+  /**
+   * Streams the whole snapshot. Stream must be consumed and closed within a
+   * transaction.
+   * 
+   * @return stream of ReservationSnapshotEntity
+   */
+  @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = SqlConstant.STREAM_FETCH_SIZE),
+      @QueryHint(name = HINT_READONLY, value = "true") })
+  @Query(SqlConstant.SNAPSHOTS_SELECT)
+  Stream<ReservationSnapshotEntity> streamSnapshot();
+
+}
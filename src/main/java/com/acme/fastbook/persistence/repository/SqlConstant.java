@@ -11,17 +11,111 @@ class SqlConstant {
   /** Select all reservations */
   static final String RESERVATIONS_SELECT_CLAUSE = "SELECT r FROM ReservationEntity r";
 
+  /** Select reserved periods of reservations without loading entities */
+  static final String RESERVED_PERIODS_SELECT_CLAUSE = "SELECT NEW com.acme.fastbook.persistence.model.ReservedPeriod"
+      + "(r.startDate, r.endDate) FROM ReservationEntity r";
+
   /** Count the number of reservations */
   static final String COUNT_SELECT_CLAUSE = "SELECT COUNT(r) FROM ReservationEntity r";
 
+  /** Where clause to select reservations of the booking item */
+  static final String BY_BOOKING_ITEM_WHERE_CLAUSE = " WHERE r.bookingItemId.id = :bookingItemId";
+
   /**
-   * Where clause to select reservations within the date range excluding some
-   * ReservationStatuses
+   * Where clause to select reservations of the booking item overlapping the
+   * date range (bounds inclusive) and having one of the provided
+   * ReservationStatuses. Every column is compared directly to a parameter, so
+   * the composite index on (booking_item_id, start_date, end_date) can be used.
    */
   static final String WITHIN_DATE_RANGE_WHERE_CLAUSE = " WHERE " + "r.bookingItemId.id = :bookingItemId "
-      + "AND r.reservationStatus NOT IN :excludedStatuses " + "AND ("
-      + "(r.startDate <= :startRange AND r.endDate >= :startRange) " + "OR "
-      + "(r.startDate >= :startRange AND r.endDate <= :endRange) " + "OR "
-      + "(r.startDate <= :endRange AND r.endDate >= :endRange) " + ")";
+      + "AND r.startDate <= :endRange " + "AND r.endDate >= :startRange " + "AND r.reservationStatus IN :statuses";
+
+  /**
+   * Where clause to select reservations of several booking items overlapping
+   * the date range (bounds inclusive) and having one of the provided
+   * ReservationStatuses
+   */
+  static final String WITHIN_DATE_RANGE_FOR_BOOKING_ITEMS_WHERE_CLAUSE = " WHERE "
+      + "r.bookingItemId.id IN :bookingItemIds " + "AND r.startDate <= :endRange " + "AND r.endDate >= :startRange "
+      + "AND r.reservationStatus IN :statuses";
+
+  /** Cancel the reservation if it is active */
+  static final String CANCEL_RESERVATION_UPDATE = "UPDATE ReservationEntity r "
+      + "SET r.reservationStatus = :cancelled, r.version = r.version + 1 "
+      + "WHERE r.id = :id AND r.reservationStatus = :active";
+
+  /**
+   * Select references of reservations having one of the statuses and ended
+   * before the cutoff, oldest first
+   */
+  static final String ENDED_RESERVATIONS_SELECT = "SELECT NEW com.acme.fastbook.persistence.model.ReservationRef"
+      + "(r.id, r.bookingItemId.id) FROM ReservationEntity r "
+      + "WHERE r.reservationStatus IN :statuses AND r.endDate < :cutoff ORDER BY r.endDate, r.id";
+
+  /** Complete active reservations and increment their version */
+  static final String COMPLETE_RESERVATIONS_UPDATE = "UPDATE ReservationEntity r "
+      + "SET r.reservationStatus = :completed, r.version = r.version + 1 "
+      + "WHERE r.id IN :ids AND r.reservationStatus = :active";
+
+  /** Delete reservations */
+  static final String RESERVATIONS_DELETE = "DELETE FROM ReservationEntity r WHERE r.id IN :ids";
+
+  /** Copy reservations to the archive table (native SQL) */
+  static final String COPY_RESERVATIONS_TO_ARCHIVE_INSERT = "INSERT INTO reservation_archive "
+      + "(id, booking_item_id, reservation_status, customer_name, customer_email, start_date, end_date, "
+      + "daily_cost, version, archived_at) "
+      + "SELECT id, booking_item_id, reservation_status, customer_name, customer_email, start_date, end_date, "
+      + "daily_cost, version, :archivedAt FROM reservation WHERE id IN (:ids)";
+
+  /** Select the ID of the last event of the reservation event log, 0 if empty */
+  static final String LAST_EVENT_ID_SELECT = "SELECT COALESCE(MAX(e.id), 0) FROM ReservationEventEntity e";
+
+  /** Select events of the reservation event log following the provided one */
+  static final String EVENTS_AFTER_SELECT = "SELECT e FROM ReservationEventEntity e WHERE e.id > :afterId "
+      + "ORDER BY e.id";
+
+  /** Select the snapshot of reservations */
+  static final String SNAPSHOTS_SELECT = "SELECT s FROM ReservationSnapshotEntity s";
+
+  /** Delete the snapshot of reservations */
+  static final String SNAPSHOTS_DELETE = "DELETE FROM ReservationSnapshotEntity s";
+
+  /** Copy active reservations to the snapshot table (native SQL) */
+  static final String COPY_RESERVATIONS_TO_SNAPSHOT_INSERT = "INSERT INTO reservation_snapshot "
+      + "(id, booking_item_id, reservation_status, customer_name, customer_email, start_date, end_date, "
+      + "daily_cost, version) "
+      + "SELECT id, booking_item_id, reservation_status, customer_name, customer_email, start_date, end_date, "
+      + "daily_cost, version FROM reservation WHERE reservation_status = :active";
+
+  /**
+   * Select reservations not having the provided status, ending at the provided
+   * date or later, and occupying no night in {@code reservation_day} table
+   */
+  static final String WITHOUT_OCCUPIED_NIGHTS_SELECT = "SELECT r FROM ReservationEntity r "
+      + "WHERE r.reservationStatus <> :excluded AND r.endDate >= :endDate "
+      + "AND NOT EXISTS (SELECT d.day FROM ReservationDayEntity d WHERE d.reservationId = r.id)";
+
+  /** Order reservations by booking item */
+  static final String BY_BOOKING_ITEM_ORDER_CLAUSE = " ORDER BY r.bookingItemId.id, r.startDate";
+
+  /** Order reservations by start date */
+  static final String BY_START_DATE_ORDER_CLAUSE = " ORDER BY r.startDate";
+
+  /**
+   * Condition to select reservations following the provided key of keyset
+   * pagination, that is, its start date and id
+   */
+  static final String AFTER_KEYSET_CLAUSE = " AND (r.startDate > :afterStartDate "
+      + "OR (r.startDate = :afterStartDate AND r.id > :afterId))";
+
+  /** Order reservations by the key of keyset pagination */
+  static final String BY_KEYSET_ORDER_CLAUSE = " ORDER BY r.startDate, r.id";
+
+  /** Number of rows fetched from DB at once when reservations are streamed */
+  static final String STREAM_FETCH_SIZE = "500";
+
+  /** Insert a night occupied by a reservation (native SQL) */
+  static final String INSERT_RESERVATION_DAY = "INSERT INTO reservation_day (booking_item_id, day, reservation_id) "
+      + "VALUES (?, ?, ?)";
 
 }
@@ -0,0 +1,335 @@
+package com.acme.fastbook.persistence.sequencer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.acme.fastbook.exception.BookingItemBusyException;
+import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.exception.ReservationCreationException;
+import com.acme.fastbook.exception.ReservationTimeoutException;
+import com.acme.fastbook.metrics.MetricNames;
+import com.acme.fastbook.metrics.ReservationMetrics;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.model.config.ConcurrencyConfig;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.model.config.ReservationWriteMode;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Basic implementation of {@link BookingItemSequencer} interface.
+ * <p>
+ * Each booking item with pending reservations gets its own queue bounded by
+ * {@code admission-max-queue-depth}. The reservation which creates the queue
+ * schedules a drain of it on the worker pool. The drain takes up to
+ * {@code sequencer-max-batch-size} reservations at a time, and removes the
+ * queue from the registry once it is empty, so the next reservation schedules
+ * a new drain. Queues are only accessed within
+ * {@link ConcurrentMap#compute} functions, which are executed atomically per
+ * key, thus there is at most one drain per booking item, and memory usage is
+ * bounded by the number of booking items with pending reservations.
+ * <p>
+ * A reservation which is not taken from the queue within
+ * {@code admission-max-wait-millis} is removed from it and rejected. Once it is
+ * taken, its submitter waits until its batch is written. Results of admission
+ * control are counted by {@link ReservationMetrics}.
+ * <p>
+ * If a batch fails as a whole, e.g. because of a DB error, its reservations
+ * are written again one by one, so only the failing ones are rejected.
+ * <p>
+ * Worker threads are started only in {@link ReservationWriteMode#SEQUENCER}
+ * mode.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Component
+@Slf4j
+public class BaseBookingItemSequencer implements BookingItemSequencer {
+
+  /** Queues of pending reservations, keyed by booking item ID */
+  private final ConcurrentMap<UUID, Queue<PendingReservation>> queues = new ConcurrentHashMap<>();
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** Metrics of reservation hot paths */
+  @Autowired
+  private ReservationMetrics reservationMetrics;
+
+  /** Pool of threads draining the queues, null if the sequencer is not used */
+  private ExecutorService workers;
+
+  /**
+   * Starts the worker threads if new reservations are written by the sequencer
+   */
+  @PostConstruct
+  public void startWorkers() {
+    final ConcurrencyConfig concurrencyConfig = fastBookConfig.getConcurrencyConfig();
+
+    if (concurrencyConfig.getWriteMode() == ReservationWriteMode.SEQUENCER) {
+      workers = Executors.newFixedThreadPool(concurrencyConfig.getSequencerWorkerThreads(), new WorkerThreadFactory());
+      log.info("New reservations are written by [{}] sequencer threads", concurrencyConfig.getSequencerWorkerThreads());
+    }
+  }
+
+  /**
+   * Stops the worker threads. Reservations which are still queued are rejected.
+   */
+  @PreDestroy
+  public void stopWorkers() {
+    if (workers == null) {
+      return;
+    }
+
+    workers.shutdownNow();
+    for (UUID bookingItemId : queues.keySet()) {
+      queues.computeIfPresent(bookingItemId, (id, queue) -> {
+        queue.forEach(pending -> pending.result
+            .completeExceptionally(new ReservationCreationException("Application is shutting down.")));
+        return null;
+      });
+    }
+  }
+
+  @Override
+  public Reservation submit(final @NonNull Reservation reservation, final List<ReservationStatus> excludedStatuses,
+      final @NonNull BatchWriter writer) {
+
+    if (workers == null) {
+      throw new IllegalStateException(String.format("Sequencer is not started in [%s] write mode.",
+          fastBookConfig.getConcurrencyConfig().getWriteMode()));
+    }
+
+    final UUID bookingItemId = reservation.getBookingItemId();
+    final PendingReservation pending = new PendingReservation(reservation, excludedStatuses, writer);
+    final ConcurrencyConfig concurrencyConfig = fastBookConfig.getConcurrencyConfig();
+
+    try {
+      // Exception thrown by the function leaves the queue unchanged
+      queues.compute(bookingItemId, (id, queue) -> {
+        if (queue == null) {
+          pending.drainRequired = true;
+          queue = new ArrayDeque<>();
+        }
+        if (queue.size() >= concurrencyConfig.getAdmissionMaxQueueDepth()) {
+          throw new BookingItemBusyException(String.format(
+              "Too many reservations of BookingItem with ID = [%s] are pending, please try again.", bookingItemId));
+        }
+        queue.add(pending);
+        return queue;
+      });
+    } catch (BookingItemBusyException ex) {
+      reservationMetrics.countAdmission(bookingItemId, MetricNames.ADMISSION_QUEUE_FULL, 1);
+      throw ex;
+    }
+
+    if (pending.drainRequired) {
+      workers.execute(() -> drain(bookingItemId));
+    }
+
+    try {
+      pending.result.get(concurrencyConfig.getAdmissionMaxWaitMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      giveUpIfQueued(pending);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      giveUpIfQueued(pending);
+    } catch (ExecutionException ex) {
+      // Rethrown by join() below
+    }
+
+    try {
+      return pending.result.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * Removes the reservation from the queue of its booking item and rejects it,
+   * unless it is already taken to be written
+   * 
+   * @param pending pending reservation
+   */
+  private void giveUpIfQueued(final PendingReservation pending) {
+    final UUID bookingItemId = pending.reservation.getBookingItemId();
+
+    queues.computeIfPresent(bookingItemId, (id, queue) -> {
+      if (queue.remove(pending)) {
+        reservationMetrics.countAdmission(bookingItemId, MetricNames.ADMISSION_TIMEOUT, 1);
+        pending.result.completeExceptionally(new ReservationTimeoutException(String.format(
+            "BookingItem with ID = [%s] is busy, reservation is not processed in time, please try again.",
+            bookingItemId)));
+      }
+      return queue;
+    });
+  }
+
+  /**
+   * Writes batches of pending reservations of the booking item until its queue
+   * is empty
+   * 
+   * @param bookingItemId booking item ID
+   */
+  private void drain(final UUID bookingItemId) {
+
+    final int maxBatchSize = fastBookConfig.getConcurrencyConfig().getSequencerMaxBatchSize();
+
+    for (;;) {
+      final List<PendingReservation> batch = new ArrayList<>(maxBatchSize);
+
+      queues.computeIfPresent(bookingItemId, (id, queue) -> {
+        while (batch.size() < maxBatchSize && !queue.isEmpty()) {
+          batch.add(queue.poll());
+        }
+        return batch.isEmpty() ? null : queue;
+      });
+
+      if (batch.isEmpty()) {
+        return;
+      }
+      reservationMetrics.countAdmission(bookingItemId, MetricNames.ADMISSION_ADMITTED, batch.size());
+
+      // Reservations are batched only with the ones sharing their writer and
+      // excluded statuses
+      final Map<List<Object>, List<PendingReservation>> groups = batch.stream()
+          .collect(Collectors.groupingBy(pending -> Arrays.asList(pending.writer, pending.excludedStatuses),
+              LinkedHashMap::new, Collectors.toList()));
+
+      groups.values().forEach(group -> write(bookingItemId, group));
+    }
+  }
+
+  /**
+   * Writes the batch of pending reservations and completes them. If the batch
+   * fails, reservations are written one by one.
+   * 
+   * @param bookingItemId booking item ID
+   * @param batch         pending reservations with the same writer and excluded
+   *                      statuses
+   */
+  private void write(final UUID bookingItemId, final List<PendingReservation> batch) {
+
+    final PendingReservation first = batch.get(0);
+    final List<Reservation> candidates = batch.stream().map(pending -> pending.reservation)
+        .collect(Collectors.toList());
+
+    final Map<UUID, Reservation> createdById;
+    try {
+      createdById = first.writer.write(bookingItemId, candidates, first.excludedStatuses).stream()
+          .collect(Collectors.toMap(Reservation::getId, Function.identity()));
+    } catch (RuntimeException ex) {
+      if (batch.size() == 1) {
+        first.result.completeExceptionally(ex);
+      } else {
+        log.warn("Batch of [{}] reservations for BookingItem with ID = [{}] failed, writing them one by one: {}",
+            batch.size(), bookingItemId, ex.getMessage());
+        batch.forEach(pending -> write(bookingItemId, Collections.singletonList(pending)));
+      }
+      return;
+    }
+
+    log.debug("Batch of [{}] reservations for BookingItem with ID = [{}] is written, [{}] created.", batch.size(),
+        bookingItemId, createdById.size());
+
+    for (PendingReservation pending : batch) {
+      final Reservation created = createdById.get(pending.reservation.getId());
+      if (created != null) {
+        pending.result.complete(created);
+      } else {
+        pending.result.completeExceptionally(new InvalidRequestException(
+            String.format(InvalidRequestException.DATES_NOT_AVAILABLE_MSG,
+                pending.reservation.getDateRange().getStartDate(), pending.reservation.getDateRange().getEndDate())));
+      }
+    }
+  }
+
+  /**
+   * New reservation waiting in the queue, with the result its submitter waits
+   * for
+   */
+  private static class PendingReservation {
+
+    /** New reservation */
+    private final Reservation reservation;
+
+    /** List of excluded statuses */
+    private final List<ReservationStatus> excludedStatuses;
+
+    /** Writer of the batch */
+    private final BatchWriter writer;
+
+    /** Reservation wrote to DB, or the reason it is rejected */
+    private final CompletableFuture<Reservation> result = new CompletableFuture<>();
+
+    /**
+     * Whether the reservation created the queue and has to schedule its drain.
+     * Only modified within {@link ConcurrentMap#compute} function.
+     */
+    private boolean drainRequired;
+
+    /**
+     * Constructor
+     * 
+     * @param reservation      new reservation
+     * @param excludedStatuses List of excluded statuses
+     * @param writer           writer of the batch
+     */
+    private PendingReservation(final Reservation reservation, final List<ReservationStatus> excludedStatuses,
+        final BatchWriter writer) {
+      this.reservation = reservation;
+      this.excludedStatuses = excludedStatuses;
+      this.writer = writer;
+    }
+  }
+
+  /**
+   * Creates named daemon threads of the worker pool
+   */
+  private static class WorkerThreadFactory implements ThreadFactory {
+
+    /** Number of the next thread */
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, "booking-sequencer-" + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+}
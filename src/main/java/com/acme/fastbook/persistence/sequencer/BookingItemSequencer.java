@@ -0,0 +1,65 @@
+package com.acme.fastbook.persistence.sequencer;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.exception.ReservationTimeoutException;
+import com.acme.fastbook.exception.BookingItemBusyException;
+import com.acme.fastbook.model.BookingItem;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationStatus;
+
+/**
+ * Single writer of new reservations per {@link BookingItem}. New reservations
+ * are queued per booking item and written by one worker at a time, which takes
+ * all queued reservations at once and writes them as a batch. Reservations of
+ * the same batch are checked against each other in memory, so a burst of
+ * requests for the same dates costs one transaction instead of one per request.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface BookingItemSequencer {
+
+  /**
+   * Queues the new reservation and waits until the batch it belongs to is
+   * written. Reservation which is still queued after
+   * {@code admission-max-wait-millis} is removed from the queue.
+   * 
+   * @param reservation      new {@link Reservation} with assigned ID
+   * @param excludedStatuses List of excluded statuses
+   * @param writer           writer of the batch; reservations are batched only
+   *                         with the ones submitted with the same writer and
+   *                         excluded statuses
+   * 
+   * @return Reservation wrote to DB
+   * 
+   * @throws InvalidRequestException     if reservation dates are not available
+   * @throws BookingItemBusyException    if the queue of the booking item is full
+   * @throws ReservationTimeoutException if the reservation is not taken from the
+   *                                     queue in time
+   */
+  Reservation submit(Reservation reservation, List<ReservationStatus> excludedStatuses, BatchWriter writer);
+
+  /**
+   * Writer of a batch of new reservations of the same booking item
+   */
+  @FunctionalInterface
+  interface BatchWriter {
+
+    /**
+     * Writes reservations whose dates are available, in a single transaction
+     * 
+     * @param bookingItemId    ID of {@link BookingItem}
+     * @param candidates       new reservations of the booking item in the order
+     *                         of submission
+     * @param excludedStatuses List of excluded statuses
+     * 
+     * @return Reservations wrote to DB; rejected reservations are not included
+     */
+    List<Reservation> write(UUID bookingItemId, List<Reservation> candidates,
+        List<ReservationStatus> excludedStatuses);
+  }
+
+}
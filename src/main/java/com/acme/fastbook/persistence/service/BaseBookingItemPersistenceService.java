@@ -5,9 +5,13 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.acme.fastbook.config.CachingConfig;
 import com.acme.fastbook.model.BookingItem;
 import com.acme.fastbook.model.BookingItemModelMapper;
 import com.acme.fastbook.persistence.model.BookingItemEntity;
@@ -16,7 +20,9 @@ import com.acme.fastbook.persistence.repository.BookingItemRepository;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Basic implementation of {@link BookingItemPersistenceService} interface
+ * Basic implementation of {@link BookingItemPersistenceService} interface.
+ * Found booking items are cached, since they are read by every request and
+ * change rarely. Caches are cleared when a booking item is created.
  * 
  * @author Mykhaylo Symulyk
  *
@@ -32,6 +38,9 @@ public class BaseBookingItemPersistenceService implements BookingItemPersistence
   @Autowired
   private BookingItemRepository bookingItemRepository;
 
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CachingConfig.BOOKING_ITEM_CACHE, key = "#result.id"),
+      @CacheEvict(cacheNames = CachingConfig.ALL_BOOKING_ITEMS_CACHE, allEntries = true) })
   @Transactional
   @Override
   public BookingItem create(final BookingItem bookingItem) {
@@ -40,6 +49,7 @@ public class BaseBookingItemPersistenceService implements BookingItemPersistence
     return modelMapper.mapToBookingItem(entityDb);
   }
 
+  @Cacheable(cacheNames = CachingConfig.BOOKING_ITEM_CACHE, unless = "#result == null")
   @Transactional(readOnly = true)
   @Override
   public Optional<BookingItem> findById(UUID id) {
@@ -51,6 +61,7 @@ public class BaseBookingItemPersistenceService implements BookingItemPersistence
         : Optional.empty();
   }
 
+  @Cacheable(cacheNames = CachingConfig.ALL_BOOKING_ITEMS_CACHE, key = "'all'")
   @Transactional(readOnly = true)
   @Override
   public List<BookingItem> findAll() {
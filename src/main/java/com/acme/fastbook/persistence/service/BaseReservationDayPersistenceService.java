@@ -0,0 +1,117 @@
+package com.acme.fastbook.persistence.service;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationModelMapper;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.model.config.ReservationWriteMode;
+import com.acme.fastbook.model.helper.DateRangeHelper;
+import com.acme.fastbook.persistence.model.ReservationEntity;
+import com.acme.fastbook.persistence.model.ReservationStatus;
+import com.acme.fastbook.persistence.repository.ReservationDayRepository;
+import com.acme.fastbook.persistence.repository.ReservationRepository;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Basic implementation of {@link ReservationDayPersistenceService} interface.
+ * <p>
+ * In {@link ReservationWriteMode#OCCUPANCY_TABLE} mode, nights of existing
+ * reservations are backfilled at startup, so that reservations created in
+ * another mode are protected as well. Application fails to start if they
+ * overlap with each other.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Service
+@Slf4j
+public class BaseReservationDayPersistenceService implements ReservationDayPersistenceService {
+
+  /** {@link ReservationDayRepository} bean */
+  @Autowired
+  private ReservationDayRepository reservationDayRepository;
+
+  /** {@link ReservationRepository} bean */
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  /** Mapper for {@link Reservation} class */
+  @Autowired
+  private ReservationModelMapper modelMapper;
+
+  /** Template used to backfill nights within a transaction */
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** Application clock */
+  @Autowired
+  private Clock clock;
+
+  /**
+   * Backfills nights of existing reservations if DB enforces non-overlapping
+   * reservations
+   */
+  @PostConstruct
+  public void backfillOnStartup() {
+    if (fastBookConfig.getConcurrencyConfig().getWriteMode() == ReservationWriteMode.OCCUPANCY_TABLE) {
+      log.info("Nights of [{}] existing reservation(s) were occupied.", backfill());
+    }
+  }
+
+  @Override
+  public void occupy(final @NonNull Reservation reservation) {
+    try {
+      reservationDayRepository.insertAll(reservation.getBookingItemId(), reservation.getId(),
+          DateRangeHelper.getBookedNights(reservation.getDateRange()));
+    } catch (DataIntegrityViolationException ex) {
+      throw new InvalidRequestException(
+          String.format(InvalidRequestException.DATES_NOT_AVAILABLE_MSG,
+              reservation.getDateRange().getStartDate(), reservation.getDateRange().getEndDate()),
+          ex);
+    }
+  }
+
+  @Override
+  public void release(final @NonNull UUID reservationId) {
+    final int nbDays = reservationDayRepository.deleteByReservationId(reservationId);
+    log.debug("[{}] night(s) of Reservation with ID = [{}] were released.", nbDays, reservationId);
+  }
+
+  @Override
+  public long backfill() {
+    return transactionTemplate.execute(status -> {
+      final List<ReservationEntity> entitiesDb = reservationRepository
+          .findWithoutOccupiedNights(ReservationStatus.CANCELLED, ZonedDateTime.now(clock));
+
+      for (ReservationEntity entity : entitiesDb) {
+        try {
+          occupy(modelMapper.mapToReservation(entity));
+        } catch (InvalidRequestException ex) {
+          throw new IllegalStateException(String.format(
+              "Nights of Reservation with ID = [%s] can not be occupied, it overlaps with another reservation.",
+              entity.getId()), ex);
+        }
+      }
+      return (long) entitiesDb.size();
+    });
+  }
+
+}
@@ -1,32 +1,111 @@
 package com.acme.fastbook.persistence.service;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.exception.ReservationConflictException;
 import com.acme.fastbook.exception.ReservationNotFoundException;
 import com.acme.fastbook.exception.ReservationUpdateException;
+import com.acme.fastbook.metrics.MetricNames;
+import com.acme.fastbook.metrics.ReservationMetrics;
 import com.acme.fastbook.model.BookingItem;
+import com.acme.fastbook.model.DateRange;
 import com.acme.fastbook.model.Reservation;
 import com.acme.fastbook.model.ReservationModelMapper;
 import com.acme.fastbook.model.ReservationStatus;
-import com.acme.fastbook.persistence.model.BookingItemEntity;
+import com.acme.fastbook.model.config.ConcurrencyConfig;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.model.config.ReservationWriteMode;
+import com.acme.fastbook.persistence.event.ReservationChangedEvent;
+import com.acme.fastbook.persistence.eventlog.ReservationEventLog;
+import com.acme.fastbook.persistence.index.AvailabilityCalendar;
+import com.acme.fastbook.persistence.index.AvailabilityCalendarRegistry;
+import com.acme.fastbook.persistence.index.ReservationIndex;
+import com.acme.fastbook.persistence.lock.BookingItemLockManager;
 import com.acme.fastbook.persistence.model.ReservationEntity;
+import com.acme.fastbook.persistence.model.ReservationEventType;
+import com.acme.fastbook.persistence.model.ReservedPeriod;
+import com.acme.fastbook.persistence.repository.ReservationArchiveRepository;
 import com.acme.fastbook.persistence.repository.ReservationRepository;
-import com.acme.fastbook.utils.CopyUtils;
+import com.acme.fastbook.persistence.sequencer.BookingItemSequencer;
 
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Basic implementation of {@link ReservationPersistenceService} interface
+ * Basic implementation of {@link ReservationPersistenceService} interface.
+ * <p>
+ * In {@link ReservationWriteMode#LOCK} mode, write operations are serialized
+ * per booking item using {@link BookingItemLockManager}. The lock is acquired
+ * before the transaction starts and released after it is committed, so the next
+ * writer for the same booking item always sees the committed state.
+ * <p>
+ * In {@link ReservationWriteMode#OCCUPANCY_TABLE} mode, no JVM lock is taken:
+ * booked nights are written along with the reservation and DB rejects overlaps
+ * by the unique constraint of {@code reservation_day} table. In this mode only
+ * {@link ReservationStatus#CANCELLED} reservations release their nights,
+ * regardless of the provided excluded statuses. Nights are local dates in the
+ * offset of the request, so reservations of the same booking item made in
+ * different offsets are also checked against each other by the exact overlap
+ * check, which does not see concurrent uncommitted writes.
+ * <p>
+ * In {@link ReservationWriteMode#SEQUENCER} mode, new reservations are queued
+ * to {@link BookingItemSequencer}, which writes them in batches by the same
+ * logic as {@link #checkDatesAndCreateAll(List, List)}. Other writes take the
+ * booking item lock as in {@link ReservationWriteMode#LOCK} mode.
+ * <p>
+ * New reservations are admitted by admission control in
+ * {@link ReservationWriteMode#LOCK} and {@link ReservationWriteMode#SEQUENCER}
+ * modes: they are rejected without waiting when too many writes of the booking
+ * item are pending, and rejected after waiting too long for their turn. Batch
+ * writes and updates are not subject to admission control.
+ * <p>
+ * Updates which keep reservation dates, e.g. cancellations, do not take the
+ * lock in any mode. Concurrent updates of the same reservation are detected by
+ * its version and retried.
+ * <p>
+ * Before a new reservation waits for its turn, its dates are checked against
+ * the {@link AvailabilityCalendar} of the booking item without any lock. The
+ * calendar is an immutable snapshot which may lag behind writes in progress, so
+ * it can only reject reservations whose nights are already occupied. Dates
+ * which look free are checked again by the write itself.
+ * <p>
+ * Overlap and availability searches are served by {@link ReservationIndex}
+ * when the index covers the search range, otherwise by DB. After a write is
+ * committed, {@link ReservationChangedEvent} is published while the booking
+ * item lock, if any, is still held. Changes published without the lock may be
+ * observed out of order, so listeners compare reservation versions. Reads by
+ * ID are served by the index as well when it holds the reservation, while
+ * writes read the reservation from DB.
+ * <p>
+ * Every write is appended to {@link ReservationEventLog} within its
+ * transaction, from the state it has written, so the log holds committed
+ * changes only.
  * 
  * @author Mykhaylo Symulyk
  *
@@ -38,6 +117,10 @@ public class BaseReservationPersistenceService implements ReservationPersistence
   /** Error message to use when reservation is not found */
   private static final String RESERVATION_NOT_FOUND_ERROR_MSG = "Reservation with ID = [%s] is not found.";
 
+  /** Error message: reservation can not be cancelled in its status */
+  private static final String RESERVATION_NOT_CANCELLABLE_ERROR_MSG = "Reservation with ID = [%s] is [%s] "
+      + "and can not be cancelled.";
+
   /** Mapper for {@link Reservation} class */
   @Autowired
   private ReservationModelMapper modelMapper;
@@ -46,9 +129,263 @@ public class BaseReservationPersistenceService implements ReservationPersistence
   @Autowired
   private ReservationRepository reservationRepository;
 
-  @Transactional
+  /** {@link ReservationArchiveRepository} bean */
+  @Autowired
+  private ReservationArchiveRepository reservationArchiveRepository;
+
+  /** {@link BookingItemLockManager} bean */
+  @Autowired
+  private BookingItemLockManager lockManager;
+
+  /** Template used to run a transaction within the booking item lock */
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  /** {@link ReservationDayPersistenceService} bean */
+  @Autowired
+  private ReservationDayPersistenceService reservationDayPersistenceService;
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** In-memory index of reservations */
+  @Autowired
+  private ReservationIndex reservationIndex;
+
+  /** Registry of availability calendars used to reject new reservations early */
+  @Autowired
+  private AvailabilityCalendarRegistry availabilityCalendarRegistry;
+
+  /** Publisher of {@link ReservationChangedEvent} */
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  /** Metrics of reservation hot paths */
+  @Autowired
+  private ReservationMetrics reservationMetrics;
+
+  /** Single writer of new reservations per booking item */
+  @Autowired
+  private BookingItemSequencer sequencer;
+
+  /** Append-only log of reservation changes */
+  @Autowired
+  private ReservationEventLog reservationEventLog;
+
+  /**
+   * Writer of batches queued by {@link BookingItemSequencer}. It is kept in a
+   * field, because the sequencer batches only reservations submitted with the
+   * same writer.
+   */
+  private final BookingItemSequencer.BatchWriter sequencedBatchWriter = this::createAllWithLock;
+
   @Override
-  public synchronized Reservation checkDatesAndCreate(final @NonNull Reservation reservation,
+  public Reservation checkDatesAndCreate(final @NonNull Reservation reservation,
+      final List<ReservationStatus> excludedStatuses) {
+
+    return reservationMetrics.recordWrite(MetricNames.OPERATION_CREATE, reservation.getBookingItemId(), () -> {
+      rejectIfOccupiedInCalendar(reservation, excludedStatuses);
+
+      if (isOccupancyTableMode()) {
+        return publishChange(transactionTemplate.execute(status -> createAndOccupyNights(reservation)));
+      }
+
+      if (isSequencerMode()) {
+        return sequencer.submit(reservation, excludedStatuses, sequencedBatchWriter);
+      }
+
+      final ConcurrencyConfig concurrencyConfig = fastBookConfig.getConcurrencyConfig();
+
+      return lockManager.executeWithAdmission(reservation.getBookingItemId(),
+          concurrencyConfig.getAdmissionMaxQueueDepth(), concurrencyConfig.getAdmissionMaxWaitMillis(),
+          () -> publishChange(
+              transactionTemplate.execute(status -> createIfDatesAvailable(reservation, excludedStatuses))));
+    });
+  }
+
+  @Override
+  public BatchCreationResult checkDatesAndCreateAll(final @NonNull List<Reservation> reservations,
+      final List<ReservationStatus> excludedStatuses) {
+
+    final Map<UUID, List<Reservation>> reservationsByBookingItem = reservations.stream()
+        .collect(Collectors.groupingBy(Reservation::getBookingItemId, LinkedHashMap::new, Collectors.toList()));
+
+    final BatchCreationResult result = new BatchCreationResult();
+
+    reservationsByBookingItem.forEach((bookingItemId, candidates) -> {
+      final List<Reservation> createdForBookingItem;
+      try {
+        createdForBookingItem = isOccupancyTableMode()
+            ? createAllAndOccupyNights(bookingItemId, candidates, excludedStatuses)
+            : createAllWithLock(bookingItemId, candidates, excludedStatuses);
+      } catch (RuntimeException ex) {
+        log.warn("Batch of reservations for BookingItem with ID = [{}] is not written.", bookingItemId, ex);
+        reservationMetrics.countOutcome(MetricNames.OPERATION_CREATE, bookingItemId, MetricNames.OUTCOME_ERROR,
+            candidates.size());
+        result.getFailures().put(bookingItemId, ex);
+        return;
+      }
+
+      reservationMetrics.countOutcome(MetricNames.OPERATION_CREATE, bookingItemId, MetricNames.OUTCOME_SUCCESS,
+          createdForBookingItem.size());
+      reservationMetrics.countOutcome(MetricNames.OPERATION_CREATE, bookingItemId, MetricNames.OUTCOME_REJECTED,
+          candidates.size() - createdForBookingItem.size());
+      result.getCreated().addAll(createdForBookingItem);
+    });
+
+    return result;
+  }
+
+  /**
+   * @implSpec In this implementation, it is acceptable to not provide new
+   *           reservation dates. In that case the dates check will not be
+   *           performed thus dates of the existing Reservation will not be
+   *           updated and only semantic properties will be updated.
+   */
+  @Override
+  public Reservation checkDatesAndUpdate(final @NonNull Reservation newReservation,
+      final List<ReservationStatus> excludedStatuses) {
+
+    return reservationMetrics.recordWrite(MetricNames.OPERATION_UPDATE, Reservation::getBookingItemId,
+        () -> retryOnConflict(newReservation.getId(), () -> {
+          if (isOccupancyTableMode()) {
+            return publishChange(
+                transactionTemplate.execute(status -> updateAndOccupyNights(newReservation, excludedStatuses)));
+          }
+
+          // Update which keeps the dates, e.g. cancellation, can not overlap with
+          // other reservations, so it relies on the version check only
+          if (newReservation.getDateRange() == null) {
+            return publishChange(
+                transactionTemplate.execute(status -> updateIfDatesAvailable(newReservation, excludedStatuses)));
+          }
+
+          // Booking item of the reservation never changes, so it is safe to read it
+          // before the lock is acquired
+          final UUID bookingItemId = getReservation(newReservation.getId()).getBookingItemId();
+
+          return lockManager.executeWithLock(bookingItemId, () -> publishChange(
+              transactionTemplate.execute(status -> updateIfDatesAvailable(newReservation, excludedStatuses))));
+        }));
+  }
+
+  @Override
+  public Reservation cancel(final @NonNull UUID reservationId) {
+
+    return reservationMetrics.recordWrite(MetricNames.OPERATION_CANCEL, Reservation::getBookingItemId,
+        () -> transactionTemplate.execute(status -> cancelIfActive(reservationId)).map(this::publishChange)
+            .orElseGet(() -> getCancelledOrThrow(reservationId)));
+  }
+
+  /**
+   * Gets the reservation which was not cancelled by the conditional UPDATE.
+   * Cancelling the cancelled reservation has no effect, while the reservation
+   * in any other status, e.g. completed, whether or not it is moved to the
+   * archive, can not be cancelled.
+   * 
+   * @param reservationId ID of the reservation to be cancelled
+   * 
+   * @return already cancelled Reservation
+   * 
+   * @throws ReservationNotFoundException if the reservation is not found
+   * @throws ReservationConflictException if the reservation is not cancelled
+   */
+  private Reservation getCancelledOrThrow(final UUID reservationId) {
+
+    final Reservation reservation = readReservation(reservationId);
+
+    if (reservation.getReservationStatus() != ReservationStatus.CANCELLED) {
+      throw new ReservationConflictException(
+          String.format(RESERVATION_NOT_CANCELLABLE_ERROR_MSG, reservationId, reservation.getReservationStatus()));
+    }
+
+    return reservation;
+  }
+
+  /**
+   * Cancels the active reservation by a conditional UPDATE without loading it
+   * first.
+   * Cancelled reservation releases its nights in
+   * {@link ReservationWriteMode#OCCUPANCY_TABLE} mode. Must be called within a
+   * transaction.
+   * 
+   * @param reservationId ID of the reservation to be cancelled
+   * 
+   * @return cancelled Reservation, or empty {@link Optional} if the reservation
+   *         is not found or not active
+   */
+  private Optional<Reservation> cancelIfActive(final UUID reservationId) {
+
+    if (reservationRepository.cancel(reservationId, com.acme.fastbook.persistence.model.ReservationStatus.ACTIVE,
+        com.acme.fastbook.persistence.model.ReservationStatus.CANCELLED) == 0) {
+      return Optional.empty();
+    }
+
+    if (isOccupancyTableMode()) {
+      reservationDayPersistenceService.release(reservationId);
+    }
+
+    log.info("Reservation with ID = [{}] was cancelled in DB.", reservationId);
+    return Optional.of(appendEvent(ReservationEventType.CANCELLED, readReservation(reservationId)));
+  }
+
+  /**
+   * Executes the update, and executes it again if the reservation was updated
+   * concurrently. Attempts are delayed by exponential backoff with full jitter,
+   * so conflicting writers do not retry in lockstep.
+   * 
+   * @param reservationId ID of the updated reservation
+   * @param update        update to be executed in its own transaction
+   * 
+   * @return updated reservation
+   * 
+   * @throws ReservationConflictException if all attempts conflict with
+   *                                      concurrent updates
+   */
+  private Reservation retryOnConflict(final UUID reservationId, final Supplier<Reservation> update) {
+
+    final ConcurrencyConfig concurrencyConfig = fastBookConfig.getConcurrencyConfig();
+
+    for (int attempt = 1;; attempt++) {
+      try {
+        return update.get();
+      } catch (OptimisticLockingFailureException ex) {
+        if (attempt >= concurrencyConfig.getUpdateMaxAttempts()) {
+          throw new ReservationConflictException(String.format(
+              "Reservation with ID = [%s] is being updated concurrently, please try again.", reservationId), ex);
+        }
+        log.debug("Update of Reservation with ID = [{}] conflicts with a concurrent update, attempt [{}].",
+            reservationId, attempt);
+        backOff(concurrencyConfig.getUpdateRetryBaseDelayMillis() << (attempt - 1));
+      }
+    }
+  }
+
+  /**
+   * Sleeps for a random delay below the provided one
+   * 
+   * @param maxDelayMillis maximum delay in milliseconds
+   */
+  private static void backOff(final long maxDelayMillis) {
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelayMillis + 1));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ReservationUpdateException("Reservation update is interrupted.", ex);
+    }
+  }
+
+  /**
+   * Creates the reservation if its dates are available. Must be called within
+   * the booking item lock and a transaction.
+   * 
+   * @param reservation      {@link Reservation} object to write in DB
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @return Reservation wrote to DB
+   */
+  private Reservation createIfDatesAvailable(final Reservation reservation,
       final List<ReservationStatus> excludedStatuses) {
 
     long nbReservations = getNumberOfReservations(reservation.getBookingItemId(),
@@ -56,37 +393,63 @@ public class BaseReservationPersistenceService implements ReservationPersistence
 
     if (nbReservations == 0L) {
       final ReservationEntity reservationEntity = modelMapper.mapToDbEntity(reservation);
-      return write(reservationEntity);
+      return appendEvent(ReservationEventType.CREATED, write(reservationEntity));
     } else {
-      throw new InvalidRequestException(
-          String.format("Reservation can no be created: dates are not available: [%s] - [%s]",
-              reservation.getDateRange().getStartDate(), reservation.getDateRange().getEndDate()));
+      throw new InvalidRequestException(String.format(InvalidRequestException.DATES_NOT_AVAILABLE_MSG,
+          reservation.getDateRange().getStartDate(), reservation.getDateRange().getEndDate()));
     }
   }
 
   /**
-   * @implSpec In this implementation, it is acceptable to not provide new
-   *           reservation dates. In that case the dates check will not be
-   *           performed thus dates of the existing Reservation will not be
-   *           updated and only semantic properties will be updated.
+   * Rejects the new reservation if the availability calendar of its booking
+   * item shows at least one of its nights as occupied. No lock is taken. The
+   * calendar contains every reservation which is not cancelled, so it is used
+   * only if nothing else is excluded. Reservation is not rejected if the
+   * calendar is not available or does not cover its dates.
+   * 
+   * @param reservation      new {@link Reservation}
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @throws InvalidRequestException if dates of the reservation are occupied
    */
-  @Transactional
-  @Override
-  public synchronized Reservation checkDatesAndUpdate(final @NonNull Reservation newReservation,
+  private void rejectIfOccupiedInCalendar(final Reservation reservation,
       final List<ReservationStatus> excludedStatuses) {
 
-    final UUID reservationId = newReservation.getId();
-    final Reservation reservationFromDb = getReservation(reservationId);
-    // throw exception if reservation.status is in statusesToExclude list
-    final ReservationStatus currentStatus = reservationFromDb.getReservationStatus();
+    if (!Collections.singletonList(ReservationStatus.CANCELLED).equals(excludedStatuses)) {
+      return;
+    }
 
-    List<ReservationStatus> statuses = Optional.ofNullable(excludedStatuses).orElse(Collections.emptyList());
+    final DateRange dateRange = reservation.getDateRange();
+    final boolean occupied = reservationMetrics.recordSearch(MetricNames.SOURCE_CALENDAR,
+        () -> availabilityCalendarRegistry.getCalendar(reservation.getBookingItemId())
+            .filter(calendar -> calendar.covers(dateRange)).map(calendar -> !calendar.isFree(dateRange))
+            .orElse(false));
 
-    if (statuses.contains(currentStatus)) {
-      throw new ReservationUpdateException(
-          String.format("Reservation with id = [%s] can not be updated because it has status [%s].",
-              reservationId.toString(), currentStatus));
+    if (occupied) {
+      log.debug("Reservation with ID = [{}] is rejected by the availability calendar.", reservation.getId());
+      throw new InvalidRequestException(
+          String.format(InvalidRequestException.DATES_NOT_AVAILABLE_MSG, dateRange.getStartDate(),
+              dateRange.getEndDate()));
     }
+  }
+
+  /**
+   * Updates the reservation if its new dates are available. Must be called
+   * within a transaction, and within the booking item lock if new dates are
+   * provided. Concurrent update of the same reservation is detected by its
+   * version.
+   * 
+   * @param newReservation   {@link Reservation} object with properties to update
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @return Reservation updated in DB
+   */
+  private Reservation updateIfDatesAvailable(final Reservation newReservation,
+      final List<ReservationStatus> excludedStatuses) {
+
+    final UUID reservationId = newReservation.getId();
+    final Reservation reservationFromDb = readReservation(reservationId);
+    verifyStatusIsUpdatable(reservationFromDb, excludedStatuses);
 
     // Reservations overlapping with new dates. If there is anything else beside
     // this same reservation (with old dates) -> exception
@@ -95,31 +458,341 @@ public class BaseReservationPersistenceService implements ReservationPersistence
     // Check dates if new reservation has new dates provided, otherwise just skip
     // and update semantic information only
     if (newReservation.getDateRange() != null) {
-      overlappingReservations = findAllForBookingItemIdAndWithinDateRange(newReservation.getBookingItemId(),
+      overlappingReservations = findAllForBookingItemIdAndWithinDateRange(reservationFromDb.getBookingItemId(),
           newReservation.getDateRange().getStartDate(), newReservation.getDateRange().getEndDate(), excludedStatuses);
 
       overlappingReservations.removeIf(res -> res.getId().equals(reservationId));
     }
 
     if (overlappingReservations.isEmpty()) {
-      CopyUtils.copyNonNullProperties(newReservation, reservationFromDb);
-      return write(modelMapper.mapToDbEntity(reservationFromDb));
+      modelMapper.patch(newReservation, reservationFromDb);
+      return appendEvent(getUpdateEventType(newReservation, reservationFromDb),
+          write(modelMapper.mapToDbEntity(reservationFromDb)));
     } else {
       throw new InvalidRequestException(
-          String.format("Reservation can no be created: dates are not available: [%s] - [%s]",
+          String.format(InvalidRequestException.DATES_NOT_AVAILABLE_MSG,
               newReservation.getDateRange().getStartDate(), newReservation.getDateRange().getEndDate()));
     }
 
   }
 
-  @Transactional(readOnly = true)
+  /**
+   * Creates reservations of the booking item whose dates are available in a
+   * single transaction within the booking item lock
+   * 
+   * @param bookingItemId    booking item ID
+   * @param candidates       new reservations of the booking item
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @return Reservations wrote to DB
+   */
+  private List<Reservation> createAllWithLock(final UUID bookingItemId, final List<Reservation> candidates,
+      final List<ReservationStatus> excludedStatuses) {
+
+    return lockManager.executeWithLock(bookingItemId, () -> publishChanges(transactionTemplate
+        .execute(status -> persistAll(selectAvailable(bookingItemId, candidates, excludedStatuses)))));
+  }
+
+  /**
+   * Creates reservations of the booking item and occupies their nights. If DB
+   * rejects the batch because another writer occupied some nights after the
+   * check, reservations are created one by one, so only the conflicting ones
+   * are rejected.
+   * 
+   * @param bookingItemId    booking item ID
+   * @param candidates       new reservations of the booking item
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @return Reservations wrote to DB
+   */
+  private List<Reservation> createAllAndOccupyNights(final UUID bookingItemId, final List<Reservation> candidates,
+      final List<ReservationStatus> excludedStatuses) {
+
+    try {
+      return publishChanges(transactionTemplate.execute(status -> {
+        final List<Reservation> available = selectAvailable(bookingItemId, candidates, excludedStatuses);
+        available.forEach(reservationDayPersistenceService::occupy);
+        return persistAll(available);
+      }));
+    } catch (InvalidRequestException ex) {
+      log.info("Batch of reservations for BookingItem with ID = [{}] conflicts with a concurrent write: {}",
+          bookingItemId, ex.getMessage());
+    }
+
+    final List<Reservation> created = new ArrayList<>(candidates.size());
+    for (Reservation candidate : candidates) {
+      try {
+        created.add(publishChange(transactionTemplate.execute(status -> createAndOccupyNights(candidate))));
+      } catch (InvalidRequestException ex) {
+        log.debug("Reservation with ID = [{}] is rejected: {}", candidate.getId(), ex.getMessage());
+      }
+    }
+    return created;
+  }
+
+  /**
+   * Selects reservations whose dates are available: they do not overlap with
+   * reservations in DB, nor with reservations selected before them. Must be
+   * called within a transaction.
+   * 
+   * @param bookingItemId    booking item ID
+   * @param candidates       new reservations of the booking item
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @return available reservations in the original order
+   */
+  private List<Reservation> selectAvailable(final UUID bookingItemId, final List<Reservation> candidates,
+      final List<ReservationStatus> excludedStatuses) {
+
+    final ZonedDateTime startRange = candidates.stream().map(res -> res.getDateRange().getStartDate())
+        .min(Comparator.naturalOrder()).get();
+    final ZonedDateTime endRange = candidates.stream().map(res -> res.getDateRange().getEndDate())
+        .max(Comparator.naturalOrder()).get();
+
+    final OccupiedRanges occupiedRanges = new OccupiedRanges();
+    findAllForBookingItemIdAndWithinDateRange(bookingItemId, startRange, endRange, excludedStatuses)
+        .forEach(res -> occupiedRanges.occupy(res.getDateRange()));
+
+    final List<Reservation> available = new ArrayList<>(candidates.size());
+    for (Reservation candidate : candidates) {
+      if (occupiedRanges.overlaps(candidate.getDateRange())) {
+        log.debug("Reservation with ID = [{}] is rejected: dates are not available.", candidate.getId());
+      } else {
+        occupiedRanges.occupy(candidate.getDateRange());
+        available.add(candidate);
+      }
+    }
+    return available;
+  }
+
+  /**
+   * Writes new reservations in JDBC batches
+   * 
+   * @param reservations new reservations
+   * 
+   * @return Reservations wrote to DB
+   */
+  private List<Reservation> persistAll(final List<Reservation> reservations) {
+
+    final List<ReservationEntity> entities = reservations.stream().map(modelMapper::mapToDbEntity)
+        .collect(Collectors.toList());
+
+    final List<ReservationEntity> entitiesDb = reservationRepository.persistAll(entities);
+
+    final List<Reservation> created = modelMapper.mapListOfReservationEntitiesToReservations(entitiesDb);
+    created.forEach(reservation -> appendEvent(ReservationEventType.CREATED, reservation));
+
+    log.info("[{}] Reservations were created in DB.", entitiesDb.size());
+    return created;
+  }
+
+  /**
+   * Creates the reservation and occupies its nights. DB rejects the write if at
+   * least one night is already occupied. Must be called within a transaction.
+   * 
+   * @param reservation {@link Reservation} object to write in DB
+   * 
+   * @return Reservation wrote to DB
+   */
+  private Reservation createAndOccupyNights(final Reservation reservation) {
+    reservationDayPersistenceService.occupy(reservation);
+    rejectIfOverlapping(reservation);
+    return appendEvent(ReservationEventType.CREATED, write(modelMapper.mapToDbEntity(reservation)));
+  }
+
+  /**
+   * Updates the reservation and moves its occupied nights if new dates are
+   * provided. Cancelled reservation releases its nights. DB rejects the write if
+   * at least one of new nights is occupied by another reservation. Must be
+   * called within a transaction.
+   * 
+   * @param newReservation   {@link Reservation} object with properties to update
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @return Reservation updated in DB
+   */
+  private Reservation updateAndOccupyNights(final Reservation newReservation,
+      final List<ReservationStatus> excludedStatuses) {
+
+    final Reservation reservationFromDb = readReservation(newReservation.getId());
+    verifyStatusIsUpdatable(reservationFromDb, excludedStatuses);
+
+    modelMapper.patch(newReservation, reservationFromDb);
+
+    if (reservationFromDb.getReservationStatus() == ReservationStatus.CANCELLED) {
+      reservationDayPersistenceService.release(reservationFromDb.getId());
+    } else if (newReservation.getDateRange() != null) {
+      reservationDayPersistenceService.release(reservationFromDb.getId());
+      reservationDayPersistenceService.occupy(reservationFromDb);
+      rejectIfOverlapping(reservationFromDb);
+    }
+
+    return appendEvent(getUpdateEventType(newReservation, reservationFromDb),
+        write(modelMapper.mapToDbEntity(reservationFromDb)));
+  }
+
+  /**
+   * Rejects the reservation if its dates overlap with another reservation which
+   * is not cancelled. Nights occupied in {@code reservation_day} table are local
+   * dates in the offset of the request, so they miss overlaps with reservations
+   * made in other offsets. Must be called within a transaction.
+   * 
+   * @param reservation {@link Reservation} object with dates to check
+   * 
+   * @throws InvalidRequestException if dates of the reservation are occupied
+   */
+  private void rejectIfOverlapping(final Reservation reservation) {
+
+    final DateRange dateRange = reservation.getDateRange();
+    final boolean overlapping = findAllForBookingItemIdAndWithinDateRange(reservation.getBookingItemId(),
+        dateRange.getStartDate(), dateRange.getEndDate(), Collections.singletonList(ReservationStatus.CANCELLED))
+            .stream().anyMatch(res -> !res.getId().equals(reservation.getId()));
+
+    if (overlapping) {
+      throw new InvalidRequestException(
+          String.format(InvalidRequestException.DATES_NOT_AVAILABLE_MSG, dateRange.getStartDate(),
+              dateRange.getEndDate()));
+    }
+  }
+
+  /**
+   * Throws an exception if the reservation has one of the excluded statuses
+   * 
+   * @param reservation      {@link Reservation} object from DB
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @throws ReservationUpdateException if reservation can not be updated
+   */
+  private void verifyStatusIsUpdatable(final Reservation reservation,
+      final List<ReservationStatus> excludedStatuses) {
+
+    final ReservationStatus currentStatus = reservation.getReservationStatus();
+
+    List<ReservationStatus> statuses = Optional.ofNullable(excludedStatuses).orElse(Collections.emptyList());
+
+    if (statuses.contains(currentStatus)) {
+      throw new ReservationUpdateException(
+          String.format("Reservation with id = [%s] can not be updated because it has status [%s].",
+              reservation.getId().toString(), currentStatus));
+    }
+  }
+
+  /**
+   * Appends the change of the reservation to {@link ReservationEventLog}. Must be
+   * called within the transaction which has written the change.
+   * 
+   * @param eventType   type of the change
+   * @param reservation {@link Reservation} wrote to DB
+   * 
+   * @return the same reservation
+   */
+  private Reservation appendEvent(final ReservationEventType eventType, final Reservation reservation) {
+    reservationEventLog.append(eventType, reservation);
+    return reservation;
+  }
+
+  /**
+   * Gets the type of the event describing the update of the reservation
+   * 
+   * @param newReservation {@link Reservation} object with properties to update
+   * @param updated        {@link Reservation} object with updated properties
+   * 
+   * @return type of the event
+   */
+  private static ReservationEventType getUpdateEventType(final Reservation newReservation,
+      final Reservation updated) {
+
+    if (updated.getReservationStatus() == ReservationStatus.CANCELLED) {
+      return ReservationEventType.CANCELLED;
+    }
+    return newReservation.getDateRange() != null ? ReservationEventType.DATES_CHANGED : ReservationEventType.UPDATED;
+  }
+
+  /**
+   * Publishes {@link ReservationChangedEvent} for the committed reservation
+   * 
+   * @param reservation {@link Reservation} as it is stored in DB
+   * 
+   * @return the same reservation
+   */
+  private Reservation publishChange(final Reservation reservation) {
+    eventPublisher.publishEvent(new ReservationChangedEvent(reservation));
+    return reservation;
+  }
+
+  /**
+   * Publishes {@link ReservationChangedEvent} for every committed reservation
+   * 
+   * @param reservations {@link Reservation}-s as they are stored in DB
+   * 
+   * @return the same reservations
+   */
+  private List<Reservation> publishChanges(final List<Reservation> reservations) {
+    reservations.forEach(this::publishChange);
+    return reservations;
+  }
+
+  /**
+   * Checks if reservations found by {@link ReservationIndex} can be used for the
+   * search. Index does not contain cancelled reservations, so it can serve only
+   * searches which exclude them.
+   * 
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @return true if index can be used
+   */
+  private static boolean isIndexApplicable(final List<ReservationStatus> excludedStatuses) {
+    return excludedStatuses != null && excludedStatuses.contains(ReservationStatus.CANCELLED);
+  }
+
+  /**
+   * Checks if DB enforces non-overlapping reservations
+   * 
+   * @return true if {@link ReservationWriteMode#OCCUPANCY_TABLE} mode is
+   *         configured
+   */
+  private boolean isOccupancyTableMode() {
+    return fastBookConfig.getConcurrencyConfig().getWriteMode() == ReservationWriteMode.OCCUPANCY_TABLE;
+  }
+
+  /**
+   * Checks if new reservations are written by {@link BookingItemSequencer}
+   * 
+   * @return true if {@link ReservationWriteMode#SEQUENCER} mode is configured
+   */
+  private boolean isSequencerMode() {
+    return fastBookConfig.getConcurrencyConfig().getWriteMode() == ReservationWriteMode.SEQUENCER;
+  }
+
   @Override
   public Reservation getReservation(final UUID id) {
-    ReservationEntity reservationEntity = reservationRepository.findById(id).orElseThrow(
-        () -> new ReservationNotFoundException(String.format(RESERVATION_NOT_FOUND_ERROR_MSG, id.toString())));
+    return reservationIndex.findById(id).orElseGet(() -> readReservation(id));
+  }
 
-    return modelMapper.mapToReservation(reservationEntity);
+  /**
+   * Reads {@link Reservation} object from DB for the provided {@code id}. If the
+   * reservation is not found, it is searched in the archive. Writes read the
+   * reservation by this method rather than from {@link ReservationIndex},
+   * because they need the state committed in DB.
+   * 
+   * @param id id of Reservation
+   * 
+   * @return {@link Reservation} object from DB
+   * 
+   * @throws ReservationNotFoundException if the reservation is not found
+   */
+  private Reservation readReservation(final UUID id) {
+    return transactionTemplate.execute(status -> {
+      final Optional<ReservationEntity> reservationEntity = reservationRepository.findById(id);
 
+      if (reservationEntity.isPresent()) {
+        return Optional.of(modelMapper.mapToReservation(reservationEntity.get()));
+      }
+
+      // Completed and cancelled reservations might have been moved to the archive
+      return reservationArchiveRepository.findById(id).map(modelMapper::mapArchivedToReservation);
+    }).orElseThrow(
+        () -> new ReservationNotFoundException(String.format(RESERVATION_NOT_FOUND_ERROR_MSG, id.toString())));
   }
 
   @Transactional(readOnly = true)
@@ -127,25 +800,128 @@ public class BaseReservationPersistenceService implements ReservationPersistence
   public List<Reservation> findAllForBookingItemIdAndWithinDateRange(final UUID bookingItemId,
       final ZonedDateTime startRange, final ZonedDateTime endRange, final List<ReservationStatus> excludedStatuses) {
 
+    if (isIndexApplicable(excludedStatuses)) {
+      final Optional<List<Reservation>> indexed = reservationMetrics.recordSearch(MetricNames.SOURCE_INDEX,
+          () -> reservationIndex.findOverlapping(bookingItemId, startRange, endRange));
+      if (indexed.isPresent()) {
+        return indexed.get().stream().filter(res -> !excludedStatuses.contains(res.getReservationStatus()))
+            .collect(Collectors.toList());
+      }
+    }
+
     List<com.acme.fastbook.persistence.model.ReservationStatus> statusesAsDbEntities = modelMapper
-        .mapListOfStatusesToDbEntityStatuses(excludedStatuses);
+        .mapExcludedStatusesToIncludedDbEntityStatuses(excludedStatuses);
 
-    final List<ReservationEntity> entitiesDb = reservationRepository
-        .findAllForBookingItemIdAndWithinDateRange(bookingItemId, startRange, endRange, statusesAsDbEntities);
+    final List<ReservationEntity> entitiesDb = reservationMetrics.recordSearch(MetricNames.SOURCE_DB,
+        () -> reservationRepository.findAllForBookingItemIdAndWithinDateRange(bookingItemId, startRange, endRange,
+            statusesAsDbEntities));
 
     return modelMapper.mapListOfReservationEntitiesToReservations(entitiesDb);
   }
 
+  @Transactional(readOnly = true)
+  @Override
+  public long[] findReservedPeriods(final UUID bookingItemId, final ZonedDateTime startRange,
+      final ZonedDateTime endRange, final List<ReservationStatus> excludedStatuses) {
+
+    if (isIndexApplicable(excludedStatuses)) {
+      final Optional<List<Reservation>> indexed = reservationMetrics.recordSearch(MetricNames.SOURCE_INDEX,
+          () -> reservationIndex.findOverlapping(bookingItemId, startRange, endRange));
+      if (indexed.isPresent()) {
+        return indexed.get().stream().filter(res -> !excludedStatuses.contains(res.getReservationStatus()))
+            .flatMapToLong(res -> LongStream.of(res.getDateRange().getStartDate().toInstant().toEpochMilli(),
+                res.getDateRange().getEndDate().toInstant().toEpochMilli()))
+            .toArray();
+      }
+    }
+
+    final List<ReservedPeriod> periods = reservationMetrics.recordSearch(MetricNames.SOURCE_DB,
+        () -> reservationRepository.findReservedPeriodsForBookingItemIdAndWithinDateRange(bookingItemId,
+            startRange, endRange, modelMapper.mapExcludedStatusesToIncludedDbEntityStatuses(excludedStatuses)));
+
+    final long[] reservedPeriods = new long[periods.size() * 2];
+    int i = 0;
+    for (ReservedPeriod period : periods) {
+      reservedPeriods[i++] = period.getStartEpochMilli();
+      reservedPeriods[i++] = period.getEndEpochMilli();
+    }
+
+    return reservedPeriods;
+  }
+
+  @Transactional(readOnly = true)
+  @Override
+  public Map<UUID, List<Reservation>> findAllForBookingItemIdsAndWithinDateRange(
+      final @NonNull Collection<UUID> bookingItemIds, final ZonedDateTime startRange, final ZonedDateTime endRange,
+      final List<ReservationStatus> excludedStatuses) {
+
+    final Map<UUID, List<Reservation>> reservationsById = new LinkedHashMap<>();
+    final List<UUID> notIndexedIds = new ArrayList<>();
+
+    for (UUID bookingItemId : bookingItemIds) {
+      final Optional<List<Reservation>> indexed = isIndexApplicable(excludedStatuses)
+          ? reservationMetrics.recordSearch(MetricNames.SOURCE_INDEX,
+              () -> reservationIndex.findOverlapping(bookingItemId, startRange, endRange))
+          : Optional.empty();
+
+      if (indexed.isPresent()) {
+        reservationsById.put(bookingItemId, indexed.get().stream()
+            .filter(res -> !excludedStatuses.contains(res.getReservationStatus())).collect(Collectors.toList()));
+      } else {
+        reservationsById.put(bookingItemId, new ArrayList<>());
+        notIndexedIds.add(bookingItemId);
+      }
+    }
+
+    if (!notIndexedIds.isEmpty()) {
+      final List<ReservationEntity> entitiesDb = reservationMetrics.recordSearch(MetricNames.SOURCE_DB,
+          () -> reservationRepository.findAllForBookingItemIdsAndWithinDateRange(notIndexedIds, startRange,
+              endRange, modelMapper.mapExcludedStatusesToIncludedDbEntityStatuses(excludedStatuses)));
+
+      for (Reservation reservation : modelMapper.mapListOfReservationEntitiesToReservations(entitiesDb)) {
+        reservationsById.get(reservation.getBookingItemId()).add(reservation);
+      }
+    }
+
+    return reservationsById;
+  }
+
   @Transactional(readOnly = true)
   @Override
   public List<Reservation> getAllReservationsForBookingItemId(final UUID bookingItemId) {
 
-    final BookingItemEntity bookingItemEntity = modelMapper.presentUuidAsBookingItemEntity(bookingItemId);
-    List<ReservationEntity> reservationsFromDb = reservationRepository.findByBookingItemId(bookingItemEntity);
+    List<ReservationEntity> reservationsFromDb = reservationRepository.findByBookingItemId(bookingItemId);
+
+    return modelMapper.mapListOfReservationEntitiesToReservations(reservationsFromDb);
+  }
+
+  @Transactional(readOnly = true)
+  @Override
+  public List<Reservation> getReservationsPageForBookingItemId(final @NonNull UUID bookingItemId,
+      final ZonedDateTime afterStartDate, final UUID afterId, final int limit) {
+
+    final Pageable pageable = PageRequest.of(0, limit);
+
+    final List<ReservationEntity> reservationsFromDb = (afterStartDate == null || afterId == null)
+        ? reservationRepository.findFirstPageByBookingItemId(bookingItemId, pageable)
+        : reservationRepository.findPageByBookingItemIdAfter(bookingItemId, afterStartDate, afterId, pageable);
 
     return modelMapper.mapListOfReservationEntitiesToReservations(reservationsFromDb);
   }
 
+  @Transactional(readOnly = true)
+  @Override
+  public void forEachReservationForBookingItemId(final @NonNull UUID bookingItemId,
+      final @NonNull Consumer<Reservation> action) {
+
+    try (Stream<ReservationEntity> reservationsFromDb = reservationRepository.streamByBookingItemId(bookingItemId)) {
+      reservationsFromDb.forEach(reservationEntity -> {
+        action.accept(modelMapper.mapToReservation(reservationEntity));
+        reservationRepository.detach(reservationEntity);
+      });
+    }
+  }
+
   /**
    * Writes new or updates an existing Reservation
    * 
@@ -155,7 +931,7 @@ public class BaseReservationPersistenceService implements ReservationPersistence
    */
   private Reservation write(final ReservationEntity reservationEntity) {
 
-    final ReservationEntity resultEntity = reservationRepository.save(reservationEntity);
+    final ReservationEntity resultEntity = reservationRepository.write(reservationEntity);
 
     log.info("Reservation with ID = [{}] was created/updated in DB.", reservationEntity.getId().toString());
     return modelMapper.mapToReservation(resultEntity);
@@ -175,10 +951,21 @@ public class BaseReservationPersistenceService implements ReservationPersistence
   private long getNumberOfReservations(final UUID bookingItemId, final ZonedDateTime startRange,
       final ZonedDateTime endRange, final List<ReservationStatus> excludedStatuses) {
 
+    // Index contains only statuses other than CANCELLED, so the count is exact
+    // only if nothing else is excluded
+    if (excludedStatuses != null && excludedStatuses.equals(Collections.singletonList(ReservationStatus.CANCELLED))) {
+      final OptionalLong indexed = reservationMetrics.recordSearch(MetricNames.SOURCE_INDEX,
+          () -> reservationIndex.countOverlapping(bookingItemId, startRange, endRange));
+      if (indexed.isPresent()) {
+        return indexed.getAsLong();
+      }
+    }
+
     List<com.acme.fastbook.persistence.model.ReservationStatus> statusesAsDbEntities = modelMapper
-        .mapListOfStatusesToDbEntityStatuses(excludedStatuses);
+        .mapExcludedStatusesToIncludedDbEntityStatuses(excludedStatuses);
 
-    return reservationRepository.getNumberOfReservations(bookingItemId, startRange, endRange, statusesAsDbEntities);
+    return reservationMetrics.recordSearch(MetricNames.SOURCE_DB, () -> reservationRepository
+        .getNumberOfReservations(bookingItemId, startRange, endRange, statusesAsDbEntities));
   }
 
 }
@@ -0,0 +1,33 @@
+package com.acme.fastbook.persistence.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.acme.fastbook.model.Reservation;
+
+import lombok.Data;
+
+/**
+ * Outcome of a batch of new reservations. Reservations of each booking item are
+ * written in their own transaction, so a failure of one booking item does not
+ * roll back reservations of the others.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Data
+public class BatchCreationResult {
+
+  /** Reservations wrote to DB */
+  private final List<Reservation> created = new ArrayList<>();
+
+  /**
+   * Errors by ID of booking items whose reservations were not written at all,
+   * e.g. because of a DB failure. Reservations of these booking items are not
+   * rejected because of their dates.
+   */
+  private final Map<UUID, RuntimeException> failures = new LinkedHashMap<>();
+}
@@ -0,0 +1,61 @@
+package com.acme.fastbook.persistence.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.acme.fastbook.model.DateRange;
+
+/**
+ * Set of occupied date ranges of a single booking item. Ranges overlapping each
+ * other are merged, so the stored ranges are disjoint and ordered by start
+ * date. Overlap check and insertion take logarithmic time. Like the overlap
+ * search in DB, ranges touching each other at the boundary overlap.
+ * <p>
+ * This class is not thread safe.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+class OccupiedRanges {
+
+  /** Disjoint occupied ranges: end date by start date */
+  private final NavigableMap<Instant, Instant> ranges = new TreeMap<>();
+
+  /**
+   * Checks if the date range overlaps with at least one occupied range
+   * 
+   * @param dateRange date range
+   * 
+   * @return true if the date range overlaps
+   */
+  boolean overlaps(final DateRange dateRange) {
+    // Ranges are disjoint, so the latest one starting before the end of the date
+    // range also ends the latest among them
+    final Map.Entry<Instant, Instant> latest = ranges.floorEntry(dateRange.getEndDate().toInstant());
+    return latest != null && !latest.getValue().isBefore(dateRange.getStartDate().toInstant());
+  }
+
+  /**
+   * Adds the date range to the occupied ones
+   * 
+   * @param dateRange date range
+   */
+  void occupy(final DateRange dateRange) {
+
+    Instant start = dateRange.getStartDate().toInstant();
+    Instant end = dateRange.getEndDate().toInstant();
+
+    Map.Entry<Instant, Instant> latest = ranges.floorEntry(end);
+    while (latest != null && !latest.getValue().isBefore(start)) {
+      ranges.remove(latest.getKey());
+      start = latest.getKey().isBefore(start) ? latest.getKey() : start;
+      end = latest.getValue().isAfter(end) ? latest.getValue() : end;
+      latest = ranges.floorEntry(end);
+    }
+
+    ranges.put(start, end);
+  }
+
+}
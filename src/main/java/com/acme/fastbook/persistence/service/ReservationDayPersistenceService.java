@@ -0,0 +1,48 @@
+package com.acme.fastbook.persistence.service;
+
+import java.util.UUID;
+
+import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.config.ReservationWriteMode;
+
+/**
+ * Service interface to manage nights occupied by {@link Reservation}-s. Used by
+ * {@link ReservationPersistenceService} when DB enforces non-overlapping
+ * reservations.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationDayPersistenceService {
+
+  /**
+   * Occupies all nights of the reservation. Must be called within a transaction.
+   * 
+   * @param reservation {@link Reservation} with booking item and dates
+   * 
+   * @throws InvalidRequestException if at least one night is already occupied
+   */
+  void occupy(Reservation reservation);
+
+  /**
+   * Releases all nights occupied by the reservation. Must be called within a
+   * transaction.
+   * 
+   * @param reservationId ID of {@link Reservation}
+   */
+  void release(UUID reservationId);
+
+  /**
+   * Occupies nights of the reservations which are not cancelled, not ended yet
+   * and occupy no night, e.g. the ones created before
+   * {@link ReservationWriteMode#OCCUPANCY_TABLE} mode was switched on. All
+   * nights are occupied in a single transaction.
+   * 
+   * @return number of reservations whose nights were occupied
+   * 
+   * @throws IllegalStateException if the reservations overlap with each other
+   */
+  long backfill();
+
+}
@@ -1,9 +1,16 @@
 package com.acme.fastbook.persistence.service;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import com.acme.fastbook.exception.BookingItemBusyException;
+import com.acme.fastbook.exception.ReservationConflictException;
+import com.acme.fastbook.exception.ReservationNotFoundException;
+import com.acme.fastbook.exception.ReservationTimeoutException;
 import com.acme.fastbook.model.BookingItem;
 import com.acme.fastbook.model.Reservation;
 import com.acme.fastbook.model.ReservationStatus;
@@ -28,9 +35,34 @@ public interface ReservationPersistenceService {
    * 
    * @return Reservation wrote to DB. It might be different from the original
    *         reservation object.
+   * 
+   * @throws BookingItemBusyException    if too many writes of the booking item
+   *                                     are pending
+   * @throws ReservationTimeoutException if the reservation does not get its
+   *                                     turn in time
    */
   Reservation checkDatesAndCreate(Reservation reservation, List<ReservationStatus> excludedStatuses);
 
+  /**
+   * Creates many reservations at once. Reservations are grouped by booking item;
+   * a reservation is created if its dates overlap neither with reservations in
+   * DB nor with reservations of the same booking item accepted earlier in the
+   * list. Reservations with statuses from the supplied list of
+   * {@code excludedStatuses} are excluded from the search logic.
+   * <p>
+   * Reservations of each booking item are written in their own transaction. If
+   * writing reservations of a booking item fails, reservations of the booking
+   * items written before stay committed, and the remaining booking items are
+   * still processed.
+   * 
+   * @param reservations     new {@link Reservation} objects with assigned IDs
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @return Reservations wrote to DB, and errors of booking items which failed;
+   *         rejected reservations are not included
+   */
+  BatchCreationResult checkDatesAndCreateAll(List<Reservation> reservations, List<ReservationStatus> excludedStatuses);
+
   /**
    * Checks if reservation dates are available for the Reservation being updated
    * and updates existing reservation in DB. Reservations with statuses from the
@@ -44,11 +76,30 @@ public interface ReservationPersistenceService {
   Reservation checkDatesAndUpdate(Reservation reservation, List<ReservationStatus> excludedStatuses);
 
   /**
-   * Gets {@link Reservation} object from DB for the provided {@code id}
+   * Cancels the active reservation. Cancellation never creates overlaps, so
+   * dates are not checked. Cancelling the cancelled reservation has no effect,
+   * including the cancelled reservation moved to the archive.
+   * 
+   * @param reservationId ID of the reservation to be cancelled
+   * 
+   * @return cancelled Reservation
+   * 
+   * @throws ReservationNotFoundException if the reservation is not found
+   * @throws ReservationConflictException if the reservation can not be
+   *                                      cancelled in its status
+   */
+  Reservation cancel(UUID reservationId);
+
+  /**
+   * Gets {@link Reservation} object for the provided {@code id} from the
+   * in-memory index if it holds the reservation, otherwise from DB. If the
+   * reservation is not found in DB, it is searched in the archive.
    * 
    * @param id id of Reservation
    * 
-   * @return {@link Reservation} object from DB
+   * @return {@link Reservation} object as it was last written
+   * 
+   * @throws ReservationNotFoundException if the reservation is not found
    */
   Reservation getReservation(UUID id);
 
@@ -68,6 +119,39 @@ public interface ReservationPersistenceService {
   List<Reservation> findAllForBookingItemIdAndWithinDateRange(UUID bookingItemId, ZonedDateTime startRange,
       ZonedDateTime endRange, List<ReservationStatus> excludedStatuses);
 
+  /**
+   * Finds reserved periods of active reservations for provided Booking Item ID
+   * and range of dates, boundaries included. Status of the Reservation should
+   * not be in the list of {@code excludedStatuses}. Only the dates are read, so
+   * it is cheaper than
+   * {@link #findAllForBookingItemIdAndWithinDateRange(UUID, ZonedDateTime, ZonedDateTime, List)}
+   * when other reservation details are not needed.
+   * 
+   * @param bookingItemId    ID of {@link BookingItem}
+   * @param startRange       start of the search range
+   * @param endRange         end of the search range
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @return start and end epoch milliseconds of every reservation one after
+   *         another, sorted by start
+   */
+  long[] findReservedPeriods(UUID bookingItemId, ZonedDateTime startRange, ZonedDateTime endRange,
+      List<ReservationStatus> excludedStatuses);
+
+  /**
+   * Gets reservations of several booking items within the provided date range.
+   * Reservations are fetched by a single query when they are not indexed.
+   * 
+   * @param bookingItemIds   IDs of {@link BookingItem}-s
+   * @param startRange       start of the search range
+   * @param endRange         end of the search range
+   * @param excludedStatuses List of excluded statuses
+   * 
+   * @return reservations by booking item ID; every requested ID is present
+   */
+  Map<UUID, List<Reservation>> findAllForBookingItemIdsAndWithinDateRange(Collection<UUID> bookingItemIds,
+      ZonedDateTime startRange, ZonedDateTime endRange, List<ReservationStatus> excludedStatuses);
+
   /**
    * Gets all {@link Reservation}-s for the given {@code bookingItemId}
    * 
@@ -77,4 +161,32 @@ public interface ReservationPersistenceService {
    */
   List<Reservation> getAllReservationsForBookingItemId(UUID bookingItemId);
 
+  /**
+   * Gets a page of {@link Reservation}-s for the given {@code bookingItemId}
+   * ordered by start date and id. The page starts after the reservation with
+   * the provided start date and id, or at the first reservation if they are not
+   * provided.
+   * 
+   * @param bookingItemId  booking item ID to be searched for
+   * @param afterStartDate start date of the last reservation of the previous
+   *                       page, null for the first page
+   * @param afterId        id of the last reservation of the previous page, null
+   *                       for the first page
+   * @param limit          maximal number of reservations in the page
+   * 
+   * @return list of Reservation
+   */
+  List<Reservation> getReservationsPageForBookingItemId(UUID bookingItemId, ZonedDateTime afterStartDate,
+      UUID afterId, int limit);
+
+  /**
+   * Passes all {@link Reservation}-s for the given {@code bookingItemId} to the
+   * provided action one by one, ordered by start date and id. Reservations are
+   * streamed from DB and are not kept in memory.
+   * 
+   * @param bookingItemId booking item ID to be searched for
+   * @param action        action to be performed for every reservation
+   */
+  void forEachReservationForBookingItemId(UUID bookingItemId, Consumer<Reservation> action);
+
 }
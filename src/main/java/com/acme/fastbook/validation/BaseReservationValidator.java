@@ -0,0 +1,213 @@
+package com.acme.fastbook.validation;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.model.config.ReservationConfig;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Basic implementation of {@link ReservationValidator} interface.
+ * <p>
+ * Rules and their error messages are built once from {@link ReservationConfig}
+ * when the application starts. Validation of a valid request allocates no
+ * objects: dates are compared as epoch milliseconds taken from the injected
+ * {@link Clock}, and the error message is built only if a rule fails. Days are
+ * counted as whole periods of 24 hours.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@Component
+public class BaseReservationValidator implements ReservationValidator {
+
+  /** Number of milliseconds in a day */
+  private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** Application clock */
+  @Autowired
+  private Clock clock;
+
+  /** Rules of the new reservation request */
+  private Rule[] newReservationRules;
+
+  /** Rules of the reservation update request */
+  private Rule[] reservationUpdateRules;
+
+  /**
+   * Builds validation rules from the configuration
+   */
+  @PostConstruct
+  public void buildRules() {
+
+    final ReservationConfig reservationConfig = fastBookConfig.getReservationConfig();
+    final int minAdvanceDays = reservationConfig.getMinAdvanceDays();
+    final int maxAdvanceDays = reservationConfig.getMaxAdvanceDays();
+    final int maxStayPeriod = reservationConfig.getMaxPeriodDays();
+
+    newReservationRules = new Rule[] {
+        new Rule((res, now) -> Objects.nonNull(res.getCustomerName()),
+            "Property reservation.customerName must not be Null."),
+        new Rule((res, now) -> Objects.nonNull(res.getCustomerEmail()),
+            "Property reservation.customerEmail must not be Null."),
+        new Rule((res, now) -> Objects.nonNull(getStartDate(res)), "Property reservation.startDate must not be Null."),
+        new Rule((res, now) -> Objects.nonNull(getEndDate(res)), "Property reservation.endDate must not be Null."),
+
+        // Date rules pass if the date is not provided, it is reported by the rules above
+        new Rule((res, now) -> getStartDate(res) == null || toEpochMilli(getStartDate(res)) > now,
+            "Property reservation.startDate must not be in the past."),
+        new Rule((res, now) -> getStartDate(res) == null
+            || daysBetween(now, toEpochMilli(getStartDate(res))) >= minAdvanceDays,
+            "Reservation.startDate must be at least " + minAdvanceDays + " day(s) in advance."),
+        new Rule((res, now) -> getStartDate(res) == null
+            || daysBetween(now, toEpochMilli(getStartDate(res))) <= maxAdvanceDays,
+            "Reservation.startDate must not be more than " + maxAdvanceDays + " day(s) in advance."),
+        new Rule((res, now) -> getEndDate(res) == null || toEpochMilli(getEndDate(res)) > now,
+            "Property reservation.endDate must not be in the past."),
+        new Rule((res, now) -> getStartDate(res) == null || getEndDate(res) == null
+            || daysBetween(toEpochMilli(getStartDate(res)), toEpochMilli(getEndDate(res))) <= maxStayPeriod,
+            "Property reservation.endDate is beyond maximum stay period " + maxStayPeriod + " days.") };
+
+    reservationUpdateRules = new Rule[] {
+        new Rule((res, now) -> Objects.isNull(res.getId()),
+            "Property reservation.id is not allowed to be updated. It must be Null."),
+        new Rule((res, now) -> Objects.isNull(res.getBookingItemId()),
+            "Property reservation.bookingItemId is not allowed to be updated. It must be Null."),
+        new Rule((res, now) -> Objects.isNull(res.getReservationStatus()),
+            "Property reservation.reservationStatus is not allowed to be updated. It must be Null."),
+        new Rule((res, now) -> Objects.isNull(res.getCustomerName()),
+            "Property reservation.customerName is not allowed to be updated. It must be Null."),
+        new Rule((res, now) -> Objects.isNull(res.getCustomerEmail()),
+            "Property reservation.customerEmail is not allowed to be updated. It must be Null."),
+        new Rule((res, now) -> Objects.isNull(res.getDailyCost()),
+            "Property reservation.dailyCost is not allowed to be updated. It must be Null.") };
+  }
+
+  @Override
+  public String validateNewReservation(final Reservation reservation) {
+    return validate(reservation, newReservationRules);
+  }
+
+  @Override
+  public String validateReservationUpdate(final Reservation reservation) {
+    return validate(reservation, reservationUpdateRules);
+  }
+
+  /**
+   * Runs all rules upon the reservation
+   * 
+   * @param reservation reservation to be validated
+   * @param rules       rules to be applied
+   * 
+   * @return all error messages separated by line separators, or an empty String
+   */
+  private String validate(final Reservation reservation, final Rule[] rules) {
+
+    final long now = clock.millis();
+    StringBuilder errorMessages = null;
+
+    for (int i = 0; i < rules.length; i++) {
+      if (!rules[i].predicate.test(reservation, now)) {
+        if (errorMessages == null) {
+          errorMessages = new StringBuilder();
+        } else {
+          errorMessages.append(System.lineSeparator());
+        }
+        errorMessages.append(rules[i].errorMessage);
+      }
+    }
+
+    return errorMessages == null ? "" : errorMessages.toString();
+  }
+
+  /**
+   * Gets the start date of the reservation
+   * 
+   * @param reservation reservation
+   * 
+   * @return start date, or null if it is not provided
+   */
+  private static ZonedDateTime getStartDate(final Reservation reservation) {
+    return reservation.getDateRange() == null ? null : reservation.getDateRange().getStartDate();
+  }
+
+  /**
+   * Gets the end date of the reservation
+   * 
+   * @param reservation reservation
+   * 
+   * @return end date, or null if it is not provided
+   */
+  private static ZonedDateTime getEndDate(final Reservation reservation) {
+    return reservation.getDateRange() == null ? null : reservation.getDateRange().getEndDate();
+  }
+
+  /**
+   * Converts the date to epoch milliseconds without creating an
+   * {@link java.time.Instant}
+   * 
+   * @param date date to be converted
+   * 
+   * @return epoch milliseconds
+   */
+  private static long toEpochMilli(final ZonedDateTime date) {
+    return TimeUnit.SECONDS.toMillis(date.toEpochSecond()) + TimeUnit.NANOSECONDS.toMillis(date.getNano());
+  }
+
+  /**
+   * Gets the number of whole days between two moments
+   * 
+   * @param fromMillis start, epoch milliseconds
+   * @param toMillis   end, epoch milliseconds
+   * 
+   * @return number of days, negative if end is before start
+   */
+  private static long daysBetween(final long fromMillis, final long toMillis) {
+    return (toMillis - fromMillis) / MILLIS_PER_DAY;
+  }
+
+  /**
+   * Predicate of a reservation at the given moment
+   */
+  @FunctionalInterface
+  private interface RulePredicate {
+
+    /**
+     * Evaluates the predicate
+     * 
+     * @param reservation reservation to be validated
+     * @param now         current moment, epoch milliseconds
+     * 
+     * @return true if the reservation satisfies the rule
+     */
+    boolean test(Reservation reservation, long now);
+  }
+
+  /**
+   * Validation rule with its precomputed error message
+   */
+  @AllArgsConstructor
+  private static class Rule {
+
+    /** Predicate which must be satisfied */
+    private final RulePredicate predicate;
+
+    /** Error message used if the predicate is not satisfied */
+    private final String errorMessage;
+  }
+
+}
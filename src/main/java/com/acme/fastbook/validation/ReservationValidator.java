@@ -0,0 +1,35 @@
+package com.acme.fastbook.validation;
+
+import com.acme.fastbook.model.Reservation;
+
+/**
+ * Validator of reservation requests
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public interface ReservationValidator {
+
+  /**
+   * Validates the request to create a new reservation
+   * 
+   * @param reservation reservation to be validated
+   * 
+   * @return String that contains all error messages separated by line
+   *         separators. If the reservation is valid, an empty String will be
+   *         returned.
+   */
+  String validateNewReservation(Reservation reservation);
+
+  /**
+   * Validates the request to update an existing reservation
+   * 
+   * @param reservation reservation to be validated
+   * 
+   * @return String that contains all error messages separated by line
+   *         separators. If the reservation is valid, an empty String will be
+   *         returned.
+   */
+  String validateReservationUpdate(Reservation reservation);
+
+}
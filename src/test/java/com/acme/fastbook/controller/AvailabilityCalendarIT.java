@@ -0,0 +1,156 @@
+package com.acme.fastbook.controller;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.persistence.index.AvailabilityCalendar;
+import com.acme.fastbook.persistence.index.AvailabilityCalendarRegistry;
+import com.acme.fastbook.test.config.TestRequestConstant;
+
+/**
+ * Integration test to test that the availability calendar pre-check of new
+ * reservations agrees with the DB check for booking items with check-in and
+ * check-out times other than midnight and requests in mixed offsets
+ *
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:fastbookdb-calendar;DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+public class AvailabilityCalendarIT {
+
+  /** Booking item reserved in mixed offsets */
+  private static final UUID MIXED_OFFSETS_ID = UUID.fromString("5c1e7a3e-6b0d-4f57-9a43-0242ac130010");
+
+  /** Booking item reserved in a single offset */
+  private static final UUID SINGLE_OFFSET_ID = UUID.fromString("5c1e7a3e-6b0d-4f57-9a43-0242ac130011");
+
+  /** Check-in time of both booking items, more than 12 hours after check-out */
+  private static final String CHECKIN_TIME = "20:00";
+
+  /** Check-out time of both booking items */
+  private static final String CHECKOUT_TIME = "06:00";
+
+  /** Booking item controller */
+  @Autowired
+  private BookingItemController bookingItemController;
+
+  /** Availability calendar registry */
+  @Autowired
+  private AvailabilityCalendarRegistry availabilityCalendarRegistry;
+
+  /** JDBC template inserting the booking items */
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /**
+   * Tests that overlapping reservations are rejected and adjacent ones are
+   * accepted whatever the offsets of the requests, and that the calendar only
+   * answers for the booking item whose reservations it can check exactly
+   */
+  @Test
+  public void testMixedOffsetsAreCheckedExactly() {
+
+    insertBookingItem(MIXED_OFFSETS_ID);
+    insertBookingItem(SINGLE_OFFSET_ID);
+
+    // [D 06:00Z, D 16:00Z], on a single UTC day
+    final Reservation singleUtcDay = create(MIXED_OFFSETS_ID, day(0, "+14:00"), day(1, "+14:00"));
+    // [D 19:00Z, D+1 05:00Z] starts on the UTC day the previous one ends on
+    final Reservation sameUtcDay = create(MIXED_OFFSETS_ID, day(0, "+01:00"), day(1, "+01:00"));
+    // [D 20:00Z, D+1 06:00Z] overlaps the second reservation
+    assertRejected(MIXED_OFFSETS_ID, day(0, "Z"), day(1, "Z"));
+    // [D 06:00Z, D 16:00Z] is the first reservation in another offset
+    assertRejected(MIXED_OFFSETS_ID, day(-1, "-10:00"), day(0, "-10:00"));
+
+    final AvailabilityCalendar mixedOffsets = availabilityCalendarRegistry.getCalendar(MIXED_OFFSETS_ID).get();
+    assertFalse("Calendar holding single UTC day reservations is not expected to answer.",
+        mixedOffsets.covers(sameUtcDay.getDateRange()));
+    assertFalse(mixedOffsets.covers(singleUtcDay.getDateRange()));
+
+    // [D 19:00Z, D+2 05:00Z]
+    create(SINGLE_OFFSET_ID, day(0, "+01:00"), day(2, "+01:00"));
+    // [D+2 19:00Z, D+3 05:00Z] starts on the UTC day the previous one ends on
+    final Reservation adjacent = create(SINGLE_OFFSET_ID, day(2, "+01:00"), day(3, "+01:00"));
+
+    final AvailabilityCalendar singleOffset = availabilityCalendarRegistry.getCalendar(SINGLE_OFFSET_ID).get();
+    final DateRange overlapping = new DateRange(adjacent.getDateRange().getStartDate().minusDays(1),
+        adjacent.getDateRange().getEndDate().minusDays(1));
+    assertTrue(singleOffset.covers(overlapping));
+    assertFalse(singleOffset.isFree(overlapping));
+    assertRejected(SINGLE_OFFSET_ID, day(1, "+01:00"), day(2, "+01:00"));
+  }
+
+  /**
+   * Inserts a booking item with the check-in and check-out times of the test
+   *
+   * @param bookingItemId booking item ID
+   */
+  private void insertBookingItem(final UUID bookingItemId) {
+    jdbcTemplate.update("INSERT INTO booking_item (id, title, description, address, base_daily_cost, checkin_time, "
+        + "checkout_time) VALUES (REPLACE(?, '-', ''), 'Night lodge', 'Lodge for night stays', "
+        + "'Date Line Street, 1', 99.99, ?, ?)", bookingItemId.toString(), CHECKIN_TIME, CHECKOUT_TIME);
+  }
+
+  /**
+   * Gets the date a number of days after the first reservation day in the
+   * offset. The time of day is replaced by the check-in or check-out time.
+   *
+   * @param days   number of days after the first reservation day
+   * @param offset offset ID
+   *
+   * @return date
+   */
+  private static ZonedDateTime day(final int days, final String offset) {
+    return TestRequestConstant.RESERVATION_START_DATE.toLocalDate().plusDays(days).atTime(LocalTime.NOON)
+        .atZone(ZoneOffset.of(offset));
+  }
+
+  /**
+   * Creates a reservation of the booking item through the controller
+   *
+   * @param bookingItemId booking item ID
+   * @param startDate     start date
+   * @param endDate       end date
+   *
+   * @return created reservation
+   */
+  private Reservation create(final UUID bookingItemId, final ZonedDateTime startDate, final ZonedDateTime endDate) {
+    return bookingItemController.newReservation(bookingItemId,
+        TestRequestConstant.newReservationObj(startDate, endDate));
+  }
+
+  /**
+   * Asserts that a reservation of the booking item is rejected as overlapping
+   *
+   * @param bookingItemId booking item ID
+   * @param startDate     start date
+   * @param endDate       end date
+   */
+  private void assertRejected(final UUID bookingItemId, final ZonedDateTime startDate, final ZonedDateTime endDate) {
+    try {
+      create(bookingItemId, startDate, endDate);
+      fail(String.format("Reservation [%s - %s] is expected to be rejected.", startDate, endDate));
+    } catch (InvalidRequestException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package com.acme.fastbook.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.api.AvailabilityDatesRequest;
+import com.acme.fastbook.persistence.index.AvailabilitySnapshotCache;
+import com.acme.fastbook.test.config.TestRequestConstant;
+
+/**
+ * Integration test to test that available ranges computed from the
+ * availability calendar are the same as the ones computed from reserved
+ * periods
+ *
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:fastbookdb-ranges;DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+public class AvailabilityRangesIT {
+
+  /** Booking item whose availability is served by the calendar */
+  private static final UUID COVERED_ID = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[0]);
+
+  /** Booking item whose availability is computed from reserved periods */
+  private static final UUID UNCOVERED_ID = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[1]);
+
+  /** Offset of the search and of the reservations within it */
+  private static final ZoneOffset OFFSET = ZoneOffset.ofHours(2);
+
+  /** Booking item controller */
+  @Autowired
+  private BookingItemController bookingItemController;
+
+  /** Cache of computed availability responses */
+  @Autowired
+  private AvailabilitySnapshotCache availabilitySnapshotCache;
+
+  /**
+   * Tests that the same search of booking items with the same reservations
+   * within the search range yields the same available ranges, whether or not it
+   * is served by the calendar
+   */
+  @Test
+  public void testCalendarAndReservedPeriodsYieldSameRanges() {
+
+    for (UUID bookingItemId : new UUID[] { COVERED_ID, UNCOVERED_ID }) {
+      create(bookingItemId, day(2), day(3));
+      create(bookingItemId, day(5), day(6));
+    }
+    // reservation in another offset, after the search range, keeps the calendar
+    // from covering the search
+    create(UNCOVERED_ID, day(10).withZoneSameLocal(ZoneOffset.ofHours(-10)),
+        day(11).withZoneSameLocal(ZoneOffset.ofHours(-10)));
+
+    final DateRange adjustedRange = new DateRange(day(0).with(LocalTime.of(0, 1)), day(8).with(LocalTime.MIDNIGHT));
+    assertTrue("Search is expected to be served by the calendar.",
+        availabilitySnapshotCache.getAvailability(COVERED_ID, adjustedRange).isPresent());
+    assertFalse("Search is not expected to be served by the calendar.",
+        availabilitySnapshotCache.getAvailability(UNCOVERED_ID, adjustedRange).isPresent());
+
+    final List<DateRange> fromCalendar = findAvailableRanges(COVERED_ID);
+    assertEquals(3, fromCalendar.size());
+    assertEquals(new DateRange(day(3).with(LocalTime.of(0, 1)), day(5).with(LocalTime.MIDNIGHT)),
+        fromCalendar.get(1));
+    assertEquals(fromCalendar, findAvailableRanges(UNCOVERED_ID));
+  }
+
+  /**
+   * Gets noon of the day a number of days after the first reservation day, in
+   * the offset of the search
+   *
+   * @param days number of days after the first reservation day
+   *
+   * @return date
+   */
+  private static ZonedDateTime day(final int days) {
+    return TestRequestConstant.RESERVATION_START_DATE.toLocalDate().plusDays(days).atTime(LocalTime.NOON)
+        .atZone(OFFSET);
+  }
+
+  /**
+   * Creates a reservation of the booking item through the controller
+   *
+   * @param bookingItemId booking item ID
+   * @param startDate     start date
+   * @param endDate       end date
+   */
+  private void create(final UUID bookingItemId, final ZonedDateTime startDate, final ZonedDateTime endDate) {
+    bookingItemController.newReservation(bookingItemId, TestRequestConstant.newReservationObj(startDate, endDate));
+  }
+
+  /**
+   * Finds available ranges of the booking item within the search range through
+   * the controller
+   *
+   * @param bookingItemId booking item ID
+   *
+   * @return available ranges
+   */
+  private List<DateRange> findAvailableRanges(final UUID bookingItemId) {
+    final AvailabilityDatesRequest request = new AvailabilityDatesRequest();
+    request.setDateRange(new DateRange(day(0), day(8)));
+    return bookingItemController
+        .getAvailabilityDates(bookingItemId, request, new ServletWebRequest(new MockHttpServletRequest()))
+        .getAvailabilityDates();
+  }
+}
@@ -1,9 +1,27 @@
 package com.acme.fastbook.controller;
 
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.Test;
@@ -12,15 +30,25 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import com.acme.fastbook.model.DateRange;
 import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.api.AvailabilityDatesRequest;
+import com.acme.fastbook.model.api.AvailabilityDatesResponse;
+import com.acme.fastbook.model.api.BatchAvailabilityDatesRequest;
+import com.acme.fastbook.model.api.BatchReservationRequest;
+import com.acme.fastbook.model.config.FastBookConfig;
+import com.acme.fastbook.persistence.index.AvailabilitySnapshotCache;
 import com.acme.fastbook.persistence.service.ReservationPersistenceService;
 import com.acme.fastbook.test.config.TestRequestConstant;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
@@ -47,6 +75,22 @@ public class BookingItemControllerIT {
   @Autowired
   private MockMvc mockMvc;
 
+  /** Controller object */
+  @Autowired
+  private BookingItemController bookingItemController;
+
+  /** Controller object */
+  @Autowired
+  private ReservationController reservationController;
+
+  /** Application configuration object */
+  @Autowired
+  private FastBookConfig fastBookConfig;
+
+  /** Cache of computed availability responses */
+  @Autowired
+  private AvailabilitySnapshotCache availabilitySnapshotCache;
+
   /**
    * Integration test to test processing path of
    * {@link BookingItemController#newReservation(UUID, Reservation)) endpoint.
@@ -58,8 +102,7 @@ public class BookingItemControllerIT {
   public void testNewReservation() throws Exception {
 
     MvcResult mvcResult = mockMvc
-        .perform(post("/fastbook/booking-item/{id}/book", "a42d22e0-42fb-11eb-b378-0242ac130002") // UUID from
-                                                                                                  // /src/test/resources/insert-booking-item.sql
+        .perform(post("/fastbook/booking-item/{id}/book", TestRequestConstant.BOOKING_ITEM_ID)
             .content(TestRequestConstant.CREATE_RESERVATION_REQUEST_JSON).contentType(MediaType.APPLICATION_JSON)
             .accept(MediaType.APPLICATION_JSON))
         .andExpect(status().is2xxSuccessful()).andExpect(MockMvcResultMatchers.jsonPath("$.id").exists()).andReturn();
@@ -73,4 +116,492 @@ public class BookingItemControllerIT {
 
   }
 
+  /**
+   * Integration test to test processing path of
+   * {@link BookingItemController#getAvailabilityDates(UUID, AvailabilityDatesRequest)}
+   * endpoint. When a reservation exists within the search range, then nights
+   * before and after it are expected to be returned as available date ranges,
+   * adjusted to checkin (00:01) and checkout (00:00) times.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testGetAvailabilityDates() throws Exception {
+
+    // booking item which is not used by other tests within these dates
+    final String bookingItemId = TestRequestConstant.BOOKING_ITEM_IDS[2];
+    final ZonedDateTime searchStart = TestRequestConstant.RESERVATION_START_DATE.plusDays(15);
+    final ZonedDateTime reservationStart = searchStart.plusDays(2);
+
+    final Reservation reservation = TestRequestConstant.newReservationObj();
+    reservation.setDateRange(new DateRange(reservationStart, reservationStart.plusDays(1)));
+    bookingItemController.newReservation(UUID.fromString(bookingItemId), reservation);
+
+    final AvailabilityDatesRequest request = new AvailabilityDatesRequest();
+    request.setDateRange(new DateRange(searchStart, searchStart.plusDays(6)));
+
+    mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-availability-dates", bookingItemId)
+            .content(objectMapper.writeValueAsString(request)).contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.availability-dates.length()").value(2))
+        .andExpect(jsonPath("$.availability-dates[0].start-date").value(format(searchStart, 0, 1)))
+        .andExpect(jsonPath("$.availability-dates[0].end-date").value(format(reservationStart, 0, 0)))
+        .andExpect(jsonPath("$.availability-dates[1].start-date").value(format(reservationStart.plusDays(1), 0, 1)))
+        .andExpect(jsonPath("$.availability-dates[1].end-date").value(format(searchStart.plusDays(6), 0, 0)));
+  }
+
+  /**
+   * Test that availability response is not re-sent while reservations of the
+   * booking item are not changed, and is re-sent after a new reservation
+   * 
+   * @throws Exception if request fails
+   */
+  @Test
+  public void testGetAvailabilityDatesNotModified() throws Exception {
+
+    // booking item which is not used by other tests within these dates
+    final String bookingItemId = TestRequestConstant.BOOKING_ITEM_IDS[2];
+    final ZonedDateTime searchStart = TestRequestConstant.RESERVATION_START_DATE.plusDays(22);
+
+    final AvailabilityDatesRequest request = new AvailabilityDatesRequest();
+    request.setDateRange(new DateRange(searchStart, searchStart.plusDays(6)));
+    final String content = objectMapper.writeValueAsString(request);
+
+    final String eTag = mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-availability-dates", bookingItemId).content(content)
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.ETAG))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-availability-dates", bookingItemId).content(content)
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+
+    final Reservation reservation = TestRequestConstant.newReservationObj();
+    reservation.setDateRange(new DateRange(searchStart.plusDays(2), searchStart.plusDays(3)));
+    bookingItemController.newReservation(UUID.fromString(bookingItemId), reservation);
+
+    mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-availability-dates", bookingItemId).content(content)
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.availability-dates.length()").value(2));
+  }
+
+  /**
+   * Test that the cached availability response of a search window is served
+   * while reservations of the booking item are not changed, and is rebuilt after
+   * a reservation within the window is created, updated and cancelled
+   * 
+   * @throws Exception if request fails
+   */
+  @Test
+  public void testCachedAvailabilityIsRebuiltAfterWrites() throws Exception {
+
+    // booking item which is not used by other tests within these dates
+    final String bookingItemId = TestRequestConstant.BOOKING_ITEM_IDS[1];
+    final UUID bookingItemUuid = UUID.fromString(bookingItemId);
+    final ZonedDateTime searchStart = TestRequestConstant.RESERVATION_START_DATE.plusDays(1);
+    final DateRange adjustedRange = new DateRange(searchStart.withHour(0).withMinute(1),
+        searchStart.plusDays(6).withHour(0).withMinute(0));
+
+    final AvailabilityDatesRequest request = new AvailabilityDatesRequest();
+    request.setDateRange(new DateRange(searchStart, searchStart.plusDays(6)));
+    final String content = objectMapper.writeValueAsString(request);
+
+    assertAvailableRanges(bookingItemId, content, 1);
+    final AvailabilityDatesResponse initial = availabilitySnapshotCache.getAvailability(bookingItemUuid,
+        adjustedRange).get();
+    assertSame("Response is expected to be cached.", initial,
+        availabilitySnapshotCache.getAvailability(bookingItemUuid, adjustedRange).get());
+
+    final Reservation created = bookingItemController.newReservation(bookingItemUuid,
+        newReservationObj(bookingItemId, searchStart.plusDays(2), searchStart.plusDays(3)));
+
+    final AvailabilityDatesResponse afterCreate = availabilitySnapshotCache.getAvailability(bookingItemUuid,
+        adjustedRange).get();
+    assertNotSame("Response is expected to be rebuilt after create.", initial, afterCreate);
+    assertEquals(2, afterCreate.getAvailabilityDates().size());
+    assertAvailableRanges(bookingItemId, content, 2)
+        .andExpect(jsonPath("$.availability-dates[0].end-date").value(format(searchStart.plusDays(2), 0, 0)));
+
+    final Reservation update = new Reservation();
+    update.setDateRange(new DateRange(searchStart.plusDays(4), searchStart.plusDays(5)));
+    reservationController.updateReservation(created.getId(), update);
+
+    final AvailabilityDatesResponse afterUpdate = availabilitySnapshotCache.getAvailability(bookingItemUuid,
+        adjustedRange).get();
+    assertNotSame("Response is expected to be rebuilt after update.", afterCreate, afterUpdate);
+    assertAvailableRanges(bookingItemId, content, 2)
+        .andExpect(jsonPath("$.availability-dates[0].end-date").value(format(searchStart.plusDays(4), 0, 0)));
+
+    reservationController.cancelReservation(created.getId());
+
+    final AvailabilityDatesResponse afterCancel = availabilitySnapshotCache.getAvailability(bookingItemUuid,
+        adjustedRange).get();
+    assertNotSame("Response is expected to be rebuilt after cancel.", afterUpdate, afterCancel);
+    assertEquals(1, afterCancel.getAvailabilityDates().size());
+    assertAvailableRanges(bookingItemId, content, 1);
+  }
+
+  /**
+   * Requests availability dates of the booking item and checks the number of
+   * available ranges
+   * 
+   * @param bookingItemId booking item ID
+   * @param content       JSON request
+   * @param nbRanges      expected number of available ranges
+   * 
+   * @return result actions to check the response further
+   * 
+   * @throws Exception if request fails
+   */
+  private ResultActions assertAvailableRanges(final String bookingItemId, final String content, final int nbRanges)
+      throws Exception {
+    return mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-availability-dates", bookingItemId).content(content)
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.availability-dates.length()").value(nbRanges));
+  }
+
+  /**
+   * Test that unknown booking item is rejected even if the If-None-Match header
+   * matches any version
+   * 
+   * @throws Exception if request fails
+   */
+  @Test
+  public void testUnknownBookingItemIsNotNotModified() throws Exception {
+
+    final String unknownBookingItemId = UUID.randomUUID().toString();
+
+    final AvailabilityDatesRequest request = new AvailabilityDatesRequest();
+    request.setDateRange(new DateRange(TestRequestConstant.RESERVATION_START_DATE,
+        TestRequestConstant.RESERVATION_START_DATE.plusDays(1)));
+
+    mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-reservations", unknownBookingItemId)
+            .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, "*"))
+        .andExpect(status().isBadRequest());
+
+    mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-availability-dates", unknownBookingItemId)
+            .content(objectMapper.writeValueAsString(request)).contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, "*"))
+        .andExpect(status().isBadRequest());
+  }
+
+  /**
+   * Test that batch availability returns availability of every requested booking
+   * item in the requested order
+   * 
+   * @throws Exception if request fails
+   */
+  @Test
+  public void testGetBatchAvailabilityDates() throws Exception {
+
+    // booking items which are not used by other tests within these dates
+    final ZonedDateTime searchStart = TestRequestConstant.RESERVATION_START_DATE.plusDays(10);
+    final ZonedDateTime reservationStart = searchStart.plusDays(2);
+
+    final Reservation reservation = TestRequestConstant.newReservationObj();
+    reservation.setDateRange(new DateRange(reservationStart, reservationStart.plusDays(1)));
+    bookingItemController.newReservation(UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[1]), reservation);
+
+    final BatchAvailabilityDatesRequest batchRequest = new BatchAvailabilityDatesRequest();
+    batchRequest.setBookingItemIds(Arrays.asList(UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[1]),
+        UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[0])));
+    batchRequest.setDateRange(new DateRange(searchStart, searchStart.plusDays(4)));
+
+    final MvcResult asyncResult = mockMvc
+        .perform(post("/fastbook/booking-item/availability:batch").content(objectMapper.writeValueAsString(batchRequest))
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(asyncResult))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].booking-item-id").value(TestRequestConstant.BOOKING_ITEM_IDS[1]))
+        .andExpect(jsonPath("$[0].availability-dates.length()").value(2))
+        .andExpect(jsonPath("$[1].booking-item-id").value(TestRequestConstant.BOOKING_ITEM_IDS[0]))
+        .andExpect(jsonPath("$[1].availability-dates.length()").value(1));
+  }
+
+  /**
+   * Test that batch availability request with too many booking items is
+   * rejected before any booking item is read
+   * 
+   * @throws Exception if request fails
+   */
+  @Test
+  public void testBatchAvailabilityIsLimited() throws Exception {
+
+    final List<UUID> bookingItemIds = new ArrayList<>();
+    for (int i = 0; i <= 1000; i++) {
+      bookingItemIds.add(UUID.randomUUID());
+    }
+
+    final BatchAvailabilityDatesRequest batchRequest = new BatchAvailabilityDatesRequest();
+    batchRequest.setBookingItemIds(bookingItemIds);
+    batchRequest.setDateRange(new DateRange(TestRequestConstant.RESERVATION_START_DATE,
+        TestRequestConstant.RESERVATION_START_DATE.plusDays(1)));
+
+    mockMvc
+        .perform(post("/fastbook/booking-item/availability:batch").content(objectMapper.writeValueAsString(batchRequest))
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value(startsWith("At most [1000] booking items")));
+  }
+
+  /**
+   * Test that batch reservation creates reservations which overlap neither with
+   * each other nor with existing ones, and reports rejected ones
+   * 
+   * @throws Exception if request fails
+   */
+  @Test
+  public void testNewReservations() throws Exception {
+
+    // booking items which are not used by other tests within these dates
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE.plusDays(18);
+
+    final BatchReservationRequest batchRequest = new BatchReservationRequest();
+    batchRequest.setReservations(Arrays.asList(
+        newReservationObj(TestRequestConstant.BOOKING_ITEM_IDS[0], start, start.plusDays(2)),
+        newReservationObj(TestRequestConstant.BOOKING_ITEM_IDS[1], start, start.plusDays(2)),
+        newReservationObj(TestRequestConstant.BOOKING_ITEM_IDS[0], start.plusDays(1), start.plusDays(3)),
+        newReservationObj(UUID.randomUUID().toString(), start, start.plusDays(1))));
+
+    mockMvc
+        .perform(post("/fastbook/booking-item/book:batch").content(objectMapper.writeValueAsString(batchRequest))
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(4))
+        .andExpect(jsonPath("$[0].error-status").doesNotExist())
+        .andExpect(jsonPath("$[0].reservation.reservation-status").value("ACTIVE"))
+        .andExpect(jsonPath("$[1].error-status").doesNotExist())
+        .andExpect(jsonPath("$[2].error-status").value("BAD_REQUEST"))
+        .andExpect(jsonPath("$[3].error-status").value("BAD_REQUEST"));
+  }
+
+  /**
+   * Test that batch reservation keeps reservations of a booking item written
+   * before reservations of another booking item fail to be written, and reports
+   * the failed ones
+   * 
+   * @throws Exception if request fails
+   */
+  @Test
+  public void testNewReservationsPartialFailure() throws Exception {
+
+    // booking items which are not used by other tests within these dates
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE.plusDays(26);
+
+    // customer name longer than its column passes validation, but fails in DB
+    final Reservation failing = newReservationObj(TestRequestConstant.BOOKING_ITEM_IDS[0], start,
+        start.plusDays(1));
+    failing.setCustomerName(String.join("", Collections.nCopies(300, "x")));
+
+    final BatchReservationRequest batchRequest = new BatchReservationRequest();
+    batchRequest.setReservations(Arrays.asList(
+        newReservationObj(TestRequestConstant.BOOKING_ITEM_IDS[1], start, start.plusDays(1)), failing));
+
+    final MvcResult result = mockMvc
+        .perform(post("/fastbook/booking-item/book:batch").content(objectMapper.writeValueAsString(batchRequest))
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].error-status").doesNotExist())
+        .andExpect(jsonPath("$[1].error-status").value("INTERNAL_SERVER_ERROR"))
+        .andReturn();
+
+    final JsonNode results = objectMapper.readTree(result.getResponse().getContentAsString());
+    assertNotNull("Reservation written before the failure is expected to stay committed.",
+        reservationPersistenceService
+            .getReservation(UUID.fromString(results.get(0).get("reservation").get("id").asText())));
+  }
+
+  /**
+   * Test that batch reservation with too many reservations or with a Null
+   * reservation is rejected as a whole
+   * 
+   * @throws Exception if request fails
+   */
+  @Test
+  public void testNewReservationsInvalidBatch() throws Exception {
+
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE;
+    final Reservation reservation = newReservationObj(TestRequestConstant.BOOKING_ITEM_IDS[0], start,
+        start.plusDays(1));
+
+    final BatchReservationRequest batchRequest = new BatchReservationRequest();
+    batchRequest.setReservations(Collections.nCopies(
+        fastBookConfig.getBookingItemConfig().getBookBatchMaxReservations() + 1, reservation));
+
+    mockMvc
+        .perform(post("/fastbook/booking-item/book:batch").content(objectMapper.writeValueAsString(batchRequest))
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+
+    batchRequest.setReservations(Arrays.asList(reservation, null));
+
+    mockMvc
+        .perform(post("/fastbook/booking-item/book:batch").content(objectMapper.writeValueAsString(batchRequest))
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+  }
+
+  /**
+   * Test that booking item cache hits are reported by actuator metrics
+   * 
+   * @throws Exception if request fails
+   */
+  @Test
+  public void testBookingItemCacheHitsAreReported() throws Exception {
+
+    final String bookingItemId = TestRequestConstant.BOOKING_ITEM_IDS[1];
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(get("/fastbook/booking-item/{id}/get-reservations", bookingItemId)
+          .accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+    }
+
+    mockMvc
+        .perform(get("/actuator/metrics/cache.gets").param("tag", "cache:booking-item").param("tag", "result:hit"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.measurements[0].value").value(greaterThanOrEqualTo(1.0)));
+  }
+
+  /**
+   * Test reservation write and lock wait timers and lock statistics of the
+   * booking item are reported
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testReservationMetricsAreExposed() throws Exception {
+
+    final String bookingItemId = TestRequestConstant.BOOKING_ITEM_IDS[2];
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE.plusDays(5);
+
+    mockMvc
+        .perform(post("/fastbook/booking-item/{id}/book", bookingItemId)
+            .content(objectMapper.writeValueAsString(newReservationObj(bookingItemId, start, start.plusDays(1))))
+            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().is2xxSuccessful());
+
+    mockMvc
+        .perform(get("/actuator/metrics/fastbook.reservation.write").param("tag", "operation:create")
+            .param("tag", "outcome:success"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.measurements[0].value").value(greaterThanOrEqualTo(1.0)));
+
+    mockMvc.perform(get("/actuator/metrics/fastbook.lock.wait")).andExpect(status().isOk());
+
+    mockMvc.perform(get("/actuator/bookinglocks/{id}", bookingItemId)).andExpect(status().isOk())
+        .andExpect(jsonPath("$.queue-depth").value(0))
+        .andExpect(jsonPath("$.wait-time.count").value(greaterThanOrEqualTo(1)));
+  }
+
+  /**
+   * Test all reservations of the booking item are returned once by following
+   * page cursors, and by the newline delimited JSON stream, ordered by start
+   * date
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testGetReservationsPagesAndStream() throws Exception {
+
+    final String bookingItemId = TestRequestConstant.BOOKING_ITEM_IDS[0];
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE.plusDays(21);
+
+    for (int i = 0; i < 3; i++) {
+      bookingItemController.newReservation(UUID.fromString(bookingItemId),
+          newReservationObj(bookingItemId, start.plusDays(2 * i), start.plusDays(2 * i + 1)));
+    }
+
+    final int total = reservationPersistenceService
+        .getAllReservationsForBookingItemId(UUID.fromString(bookingItemId)).size();
+
+    final List<String> pagedIds = new ArrayList<>();
+    String cursor = null;
+    do {
+      final MvcResult pageResult = mockMvc
+          .perform(get("/fastbook/booking-item/{id}/get-reservations-page", bookingItemId).param("page-size", "2")
+              .param("cursor", cursor).accept(MediaType.APPLICATION_JSON))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.reservations.length()").value(lessThanOrEqualTo(2)))
+          .andReturn();
+
+      final JsonNode page = objectMapper.readTree(pageResult.getResponse().getContentAsString());
+      page.get("reservations").forEach(reservation -> pagedIds.add(reservation.get("id").asText()));
+      cursor = page.get("next-cursor").isNull() ? null : page.get("next-cursor").asText();
+    } while (cursor != null);
+
+    assertEquals("Every reservation is expected in the pages.", total, pagedIds.size());
+    assertEquals("Reservation is expected in one page only.", total, new HashSet<>(pagedIds).size());
+
+    final MvcResult asyncResult = mockMvc
+        .perform(get("/fastbook/booking-item/{id}/reservations:stream", bookingItemId)
+            .accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    final String ndjson = mockMvc.perform(asyncDispatch(asyncResult))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+        .andReturn().getResponse().getContentAsString();
+
+    final List<String> streamedIds = new ArrayList<>();
+    for (String line : ndjson.split("\n")) {
+      streamedIds.add(objectMapper.readTree(line).get("id").asText());
+    }
+
+    assertEquals("Stream is expected to follow the order of pages.", pagedIds, streamedIds);
+
+    mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-reservations-page", bookingItemId).param("cursor", "broken")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+  }
+
+  /**
+   * Creates new reservation request for the booking item
+   * 
+   * @param bookingItemId booking item ID
+   * @param startDate     start date
+   * @param endDate       end date
+   * 
+   * @return reservation request
+   */
+  private static Reservation newReservationObj(final String bookingItemId, final ZonedDateTime startDate,
+      final ZonedDateTime endDate) {
+    final Reservation reservation = TestRequestConstant.newReservationObj();
+    reservation.setBookingItemId(UUID.fromString(bookingItemId));
+    reservation.setDateRange(new DateRange(startDate, endDate));
+    return reservation;
+  }
+
+  /**
+   * Formats the date at the provided time of day as it is serialized in JSON
+   * 
+   * @param date   date
+   * @param hour   hour of day
+   * @param minute minute of hour
+   * 
+   * @return formatted date-time
+   */
+  private static String format(final ZonedDateTime date, final int hour, final int minute) {
+    return DateTimeFormatter.ISO_INSTANT.format(date.withHour(hour).withMinute(minute).withSecond(0).withNano(0));
+  }
+
 }
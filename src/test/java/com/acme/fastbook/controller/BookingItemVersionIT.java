@@ -0,0 +1,80 @@
+package com.acme.fastbook.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.acme.fastbook.test.config.TestRequestConstant;
+
+/**
+ * Integration test to test that responses of a booking item are validated by
+ * ETags with the default configuration, where the reservation index is
+ * disabled
+ *
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "fastbook-config.cache-config.reservation-index-enabled=false",
+    "spring.datasource.url=jdbc:h2:mem:fastbookdb-version;DB_CLOSE_DELAY=-1" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BookingItemVersionIT {
+
+  /** Booking item whose reservations are read */
+  private static final String BOOKING_ITEM_ID = TestRequestConstant.BOOKING_ITEM_IDS[0];
+
+  /** Booking item controller */
+  @Autowired
+  private BookingItemController bookingItemController;
+
+  /** Mock Spring MVC bean */
+  @Autowired
+  private MockMvc mockMvc;
+
+  /**
+   * Tests that reservations are not re-sent while they are not changed, and are
+   * re-sent after a new reservation
+   *
+   * @throws Exception if request fails
+   */
+  @Test
+  public void testGetReservationsNotModified() throws Exception {
+
+    final String eTag = mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-reservations", BOOKING_ITEM_ID)
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.ETAG))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-reservations", BOOKING_ITEM_ID)
+            .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE;
+    bookingItemController.newReservation(UUID.fromString(BOOKING_ITEM_ID),
+        TestRequestConstant.newReservationObj(start, start.plusDays(1)));
+
+    mockMvc
+        .perform(get("/fastbook/booking-item/{id}/get-reservations", BOOKING_ITEM_ID)
+            .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk());
+  }
+
+}
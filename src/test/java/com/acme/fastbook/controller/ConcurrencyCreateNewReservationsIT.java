@@ -1,8 +1,17 @@
 package com.acme.fastbook.controller;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.time.ZonedDateTime;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.AfterClass;
@@ -15,14 +24,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.exception.ReservationTimeoutException;
+import com.acme.fastbook.metrics.MetricNames;
+import com.acme.fastbook.model.DateRange;
 import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.persistence.lock.BookingItemLockManager;
+import com.acme.fastbook.persistence.lock.BookingItemLockMonitor;
+import com.acme.fastbook.persistence.lock.BookingItemLockStatistics;
 import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+import com.acme.fastbook.test.config.ReservationAssertions;
 import com.acme.fastbook.test.config.TestRequestConstant;
 import com.google.code.tempusfugit.concurrency.ConcurrentRule;
 import com.google.code.tempusfugit.concurrency.RepeatingRule;
 import com.google.code.tempusfugit.concurrency.annotations.Concurrent;
 import com.google.code.tempusfugit.concurrency.annotations.Repeating;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Integration test to test concurrency when creating new reservations for the
  * same dates
@@ -36,10 +56,38 @@ import com.google.code.tempusfugit.concurrency.annotations.Repeating;
 @ActiveProfiles("test")
 public class ConcurrencyCreateNewReservationsIT {
 
+  /**
+   * Start date of reservations submitted by this test. It differs from the dates
+   * used by other tests sharing the same DB.
+   */
+  private static final ZonedDateTime START_DATE = TestRequestConstant.RESERVATION_START_DATE.plusDays(7);
+
+  /** End date of reservations submitted by this test */
+  private static final ZonedDateTime END_DATE = START_DATE.plusDays(2);
+
+  /** Time to wait for an action which is expected to complete */
+  private static final long TIMEOUT_SECONDS = 10L;
+
   /** Controller object */
   @Autowired
   private BookingItemController bookingItemController;
 
+  /** Controller of reservation updates */
+  @Autowired
+  private ReservationController reservationController;
+
+  /** Lock manager used by the application to serialize writes */
+  @Autowired
+  private BookingItemLockManager lockManager;
+
+  /** Monitor of lock contention used by the lock manager */
+  @Autowired
+  private BookingItemLockMonitor lockMonitor;
+
+  /** Micrometer registry of the application */
+  @Autowired
+  private MeterRegistry meterRegistry;
+
   /**
    * ReservationPersistenceService from the application. This is static because
    * itis used in the static context
@@ -71,33 +119,241 @@ public class ConcurrencyCreateNewReservationsIT {
   /**
    * Tests {@link BookingItemController#newReservation(UUID, Reservation)} method
    * under the load. Test case: when submitting new reservations for the same
-   * dates, only one should succeed, all others should throw an exception
+   * dates, only one per booking item should succeed, all others should throw an
+   * exception
    */
   @Test
   @Concurrent(count = 100) // number of threads
   @Repeating(repetition = 10) // number of repetitions in each thread
   public void testConcurrency() {
-    try {
-      bookingItemController.newReservation(UUID.fromString("a42d22e0-42fb-11eb-b378-0242ac130002"),
-          TestRequestConstant.RESERVATION_OBJ);
-    } catch (Exception ex) {
-      // Exception is expected to be thrown by application if dates are not available
-      System.out.println("Exception: " + ex.getMessage());
+    for (String bookingItemId : TestRequestConstant.BOOKING_ITEM_IDS) {
+      try {
+        final Reservation reservation = TestRequestConstant.newReservationObj();
+        reservation.setDateRange(new DateRange(START_DATE, END_DATE));
+        bookingItemController.newReservation(UUID.fromString(bookingItemId), reservation);
+      } catch (Exception ex) {
+        // Exception is expected to be thrown by application if dates are not available
+        System.out.println("Exception: " + ex.getMessage());
+      }
     }
     System.out.println("Test execution number: " + COUNTER.getAndIncrement());
   }
 
+  /**
+   * Tests that holding the lock of one booking item does not block writers of
+   * another booking item, while writers of the same booking item wait until the
+   * lock is released.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testLocksAreScopedToBookingItem() throws Exception {
+    final UUID firstItemId = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[0]);
+    final UUID secondItemId = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[1]);
+
+    final CountDownLatch firstItemLocked = new CountDownLatch(1);
+    final CountDownLatch releaseFirstItem = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    try {
+      final Future<Boolean> holder = executor.submit(() -> lockManager.executeWithLock(firstItemId, () -> {
+        firstItemLocked.countDown();
+        return await(releaseFirstItem);
+      }));
+      assertTrue("Lock of the first booking item is expected to be acquired.",
+          firstItemLocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+      final Future<Boolean> sameItemWriter = executor.submit(() -> lockManager.executeWithLock(firstItemId, () -> true));
+      final Future<Boolean> otherItemWriter = executor
+          .submit(() -> lockManager.executeWithLock(secondItemId, () -> true));
+
+      assertTrue("Writer of another booking item is expected to run in parallel.",
+          otherItemWriter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertFalse("Writer of the same booking item is expected to wait for the lock.", sameItemWriter.isDone());
+      assertTrue("Waiting writer is expected to be reported in the queue of the booking item.",
+          awaitQueueDepth(firstItemId, 1));
+
+      releaseFirstItem.countDown();
+
+      assertTrue(holder.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertTrue("Writer of the same booking item is expected to proceed once the lock is released.",
+          sameItemWriter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertTrue("Lock statistics are expected to be kept for the booking item.",
+          lockMonitor.getStatistics(firstItemId).get().getHoldTime().getCount() >= 2);
+    } finally {
+      releaseFirstItem.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests that cancellation does not wait for the lock of the booking item held
+   * by another writer
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testCancellationDoesNotWaitForLock() throws Exception {
+    final UUID bookingItemId = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[2]);
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE.plusDays(25);
+
+    final Reservation reservation = TestRequestConstant.newReservationObj();
+    reservation.setDateRange(new DateRange(start, start.plusDays(1)));
+    final UUID reservationId = bookingItemController.newReservation(bookingItemId, reservation).getId();
+
+    final CountDownLatch itemLocked = new CountDownLatch(1);
+    final CountDownLatch releaseItem = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      executor.submit(() -> lockManager.executeWithLock(bookingItemId, () -> {
+        itemLocked.countDown();
+        return await(releaseItem);
+      }));
+      assertTrue("Lock of the booking item is expected to be acquired.",
+          itemLocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+      final Future<Reservation> cancellation = executor
+          .submit(() -> reservationController.cancelReservation(reservationId));
+
+      assertEquals("Cancellation is expected to complete while the booking item is locked.",
+          ReservationStatus.CANCELLED, cancellation.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getReservationStatus());
+      assertEquals("Cancellation of the cancelled reservation is expected to have no effect.",
+          ReservationStatus.CANCELLED, reservationController.cancelReservation(reservationId).getReservationStatus());
+    } finally {
+      releaseItem.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests that new reservation which does not get the lock of the booking item
+   * within the admission deadline is shed, and that it is counted
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testNewReservationIsShedAfterDeadline() throws Exception {
+    final UUID bookingItemId = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[1]);
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE.plusDays(15);
+
+    final CountDownLatch itemLocked = new CountDownLatch(1);
+    final CountDownLatch releaseItem = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      executor.submit(() -> lockManager.executeWithLock(bookingItemId, () -> {
+        itemLocked.countDown();
+        return await(releaseItem);
+      }));
+      assertTrue("Lock of the booking item is expected to be acquired.",
+          itemLocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+      final Reservation reservation = TestRequestConstant.newReservationObj();
+      reservation.setDateRange(new DateRange(start, start.plusDays(1)));
+      try {
+        bookingItemController.newReservation(bookingItemId, reservation);
+        fail("Reservation is expected to be shed while the booking item is locked.");
+      } catch (ReservationTimeoutException ex) {
+        // expected
+      }
+
+      assertTrue("Shed reservation is expected to be counted.",
+          meterRegistry.counter(MetricNames.ADMISSION, MetricNames.TAG_OUTCOME, MetricNames.ADMISSION_TIMEOUT,
+              MetricNames.TAG_BOOKING_ITEM, MetricNames.ALL_BOOKING_ITEMS).count() >= 1);
+    } finally {
+      releaseItem.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests that new reservation for occupied dates is rejected without waiting
+   * for the lock of the booking item held by another writer
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testOccupiedDatesAreRejectedWithoutLock() throws Exception {
+    final UUID bookingItemId = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[2]);
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE.plusDays(11);
+
+    final Reservation reservation = TestRequestConstant.newReservationObj();
+    reservation.setDateRange(new DateRange(start, start.plusDays(2)));
+    bookingItemController.newReservation(bookingItemId, reservation);
+
+    final CountDownLatch itemLocked = new CountDownLatch(1);
+    final CountDownLatch releaseItem = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      executor.submit(() -> lockManager.executeWithLock(bookingItemId, () -> {
+        itemLocked.countDown();
+        return await(releaseItem);
+      }));
+      assertTrue("Lock of the booking item is expected to be acquired.",
+          itemLocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+      final Reservation overlapping = TestRequestConstant.newReservationObj();
+      overlapping.setDateRange(new DateRange(start.plusDays(1), start.plusDays(2)));
+      try {
+        bookingItemController.newReservation(bookingItemId, overlapping);
+        fail("Reservation for occupied dates is expected to be rejected.");
+      } catch (InvalidRequestException ex) {
+        // expected, before the admission deadline expires
+      }
+    } finally {
+      releaseItem.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Waits for the latch without throwing checked exceptions
+   * 
+   * @param latch latch to wait for
+   * 
+   * @return true if latch reached zero before the timeout
+   */
+  private static boolean await(final CountDownLatch latch) {
+    try {
+      return latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Waits until the lock monitor reports the expected queue depth of the booking
+   * item
+   * 
+   * @param bookingItemId booking item ID
+   * @param queueDepth    expected queue depth
+   * 
+   * @return true if the queue depth is reported before the timeout
+   * 
+   * @throws InterruptedException
+   */
+  private boolean awaitQueueDepth(final UUID bookingItemId, final int queueDepth) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+    while (System.nanoTime() < deadline) {
+      if (lockMonitor.getStatistics(bookingItemId).map(BookingItemLockStatistics::getQueueDepth)
+          .filter(depth -> depth == queueDepth).isPresent()) {
+        return true;
+      }
+      Thread.sleep(10L);
+    }
+    return false;
+  }
+
   /**
    * In the context of tempusfugit test, this is a convenient place to verify
    * final constraints that should hold after concurrent execution of the test.
    */
   @AfterClass
   public static void finalization() {
-    int nbRows = reservationPersistenceService
-        .getAllReservationsForBookingItemId(UUID.fromString("a42d22e0-42fb-11eb-b378-0242ac130002")).size();
-    assertTrue(String.format(
-        "Actual number of rows = [%d]. Only a single row is expected to be written to DB. %nAll other writes with the same dates should be rejected by application.",
-        nbRows), nbRows == 1);
+    ReservationAssertions.assertSingleReservationPerBookingItem(reservationPersistenceService, START_DATE, END_DATE);
   }
 
 }
@@ -0,0 +1,290 @@
+package com.acme.fastbook.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.AfterClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationModelMapper;
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.model.api.BatchReservationRequest;
+import com.acme.fastbook.model.api.BatchReservationResult;
+import com.acme.fastbook.model.api.ErrorStatus;
+import com.acme.fastbook.persistence.repository.ReservationRepository;
+import com.acme.fastbook.persistence.service.ReservationDayPersistenceService;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+import com.acme.fastbook.test.config.ReservationAssertions;
+import com.acme.fastbook.test.config.TestRequestConstant;
+import com.google.code.tempusfugit.concurrency.ConcurrentRule;
+import com.google.code.tempusfugit.concurrency.RepeatingRule;
+import com.google.code.tempusfugit.concurrency.annotations.Concurrent;
+import com.google.code.tempusfugit.concurrency.annotations.Repeating;
+
+/**
+ * Integration test to test that DB rejects overlapping reservations when
+ * application runs in OCCUPANCY_TABLE write mode
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "fastbook-config.concurrency-config.write-mode=OCCUPANCY_TABLE",
+    "spring.datasource.url=jdbc:h2:mem:fastbookdb-occupancy;DB_CLOSE_DELAY=-1" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConcurrencyOccupancyTableModeIT {
+
+  /** Start date of reservations submitted concurrently */
+  private static final ZonedDateTime START_DATE = TestRequestConstant.RESERVATION_START_DATE.plusDays(7);
+
+  /** End date of reservations submitted concurrently */
+  private static final ZonedDateTime END_DATE = START_DATE.plusDays(2);
+
+  /** Controller object */
+  @Autowired
+  private BookingItemController bookingItemController;
+
+  /** Controller object */
+  @Autowired
+  private ReservationController reservationController;
+
+  /** Service managing occupied nights */
+  @Autowired
+  private ReservationDayPersistenceService reservationDayPersistenceService;
+
+  /** Reservation repository */
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  /** Mapper for {@link Reservation} class */
+  @Autowired
+  private ReservationModelMapper modelMapper;
+
+  /** Template used to write a reservation bypassing the service */
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  /**
+   * ReservationPersistenceService from the application. This is static because
+   * it is used in the static context
+   */
+  private static ReservationPersistenceService reservationPersistenceService;
+
+  /**
+   * Setter to autowire bean to private static field
+   * 
+   * @param reservationPersistenceService
+   */
+  @Autowired
+  public void setReservationPersistenceService(ReservationPersistenceService reservationPersistenceService) {
+    ConcurrencyOccupancyTableModeIT.reservationPersistenceService = reservationPersistenceService;
+  }
+
+  /** tempus-fugit rule to run the tests concurrently */
+  @Rule
+  public ConcurrentRule concurrently = new ConcurrentRule();
+
+  /** tempus-fugit rule to run the tests repetitively */
+  @Rule
+  public RepeatingRule rule = new RepeatingRule();
+
+  /**
+   * Tests {@link BookingItemController#newReservation(UUID, Reservation)} method
+   * under the load. Test case: when submitting new reservations for the same
+   * dates, only one per booking item should succeed, all others should be
+   * rejected by DB
+   */
+  @Test
+  @Concurrent(count = 50) // number of threads
+  @Repeating(repetition = 5) // number of repetitions in each thread
+  public void testConcurrency() {
+    for (String bookingItemId : TestRequestConstant.BOOKING_ITEM_IDS) {
+      try {
+        bookingItemController.newReservation(UUID.fromString(bookingItemId),
+            TestRequestConstant.newReservationObj(START_DATE, END_DATE));
+      } catch (InvalidRequestException ex) {
+        // Exception is expected to be thrown by application if dates are not available
+      }
+    }
+  }
+
+  /**
+   * Tests that updated reservation can not move to occupied nights, and that
+   * cancelled reservation releases its nights
+   */
+  @Test
+  public void testUpdateAndCancelMoveOccupiedNights() {
+    final UUID bookingItemId = UUID.fromString(TestRequestConstant.BOOKING_ITEM_ID);
+    final ZonedDateTime firstStart = TestRequestConstant.RESERVATION_START_DATE.plusDays(14);
+    final ZonedDateTime secondStart = firstStart.plusDays(3);
+
+    final Reservation first = bookingItemController.newReservation(bookingItemId,
+        TestRequestConstant.newReservationObj(firstStart, firstStart.plusDays(2)));
+    final Reservation second = bookingItemController.newReservation(bookingItemId,
+        TestRequestConstant.newReservationObj(secondStart, secondStart.plusDays(1)));
+
+    final Reservation update = new Reservation();
+    update.setDateRange(new DateRange(firstStart.plusDays(1), firstStart.plusDays(2)));
+    try {
+      reservationController.updateReservation(second.getId(), update);
+      fail("Update to the nights occupied by another reservation is expected to be rejected.");
+    } catch (InvalidRequestException ex) {
+      // expected
+    }
+
+    reservationController.cancelReservation(first.getId());
+
+    final Reservation retry = new Reservation();
+    retry.setDateRange(new DateRange(firstStart.plusDays(1), firstStart.plusDays(2)));
+    assertNotNull("Nights released by cancelled reservation are expected to be available.",
+        reservationController.updateReservation(second.getId(), retry));
+  }
+
+  /**
+   * Tests that batch reservation occupies nights of created reservations
+   */
+  @Test
+  public void testNewReservationsOccupyNights() {
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE.plusDays(20);
+
+    final BatchReservationRequest batchRequest = new BatchReservationRequest();
+    batchRequest.setReservations(Arrays.asList(
+        newReservation(TestRequestConstant.BOOKING_ITEM_IDS[1], start, start.plusDays(2)),
+        newReservation(TestRequestConstant.BOOKING_ITEM_IDS[1], start.plusDays(1), start.plusDays(2)),
+        newReservation(TestRequestConstant.BOOKING_ITEM_IDS[2], start, start.plusDays(1))));
+
+    final List<BatchReservationResult> results = bookingItemController.newReservations(batchRequest);
+
+    assertNull(results.get(0).getErrorStatus());
+    assertEquals(ErrorStatus.BAD_REQUEST, results.get(1).getErrorStatus());
+    assertNull(results.get(2).getErrorStatus());
+
+    try {
+      bookingItemController.newReservation(UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[2]),
+          TestRequestConstant.newReservationObj(start, start.plusDays(1)));
+      fail("Nights occupied by batch reservation are expected to be rejected.");
+    } catch (InvalidRequestException ex) {
+      // expected
+    }
+  }
+
+  /**
+   * Tests that nights of a reservation written without occupying them, e.g.
+   * before the mode was switched on, are backfilled and protected
+   */
+  @Test
+  public void testExistingReservationIsBackfilled() {
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE.plusDays(25);
+
+    final Reservation existing = newReservation(TestRequestConstant.BOOKING_ITEM_ID, start, start.plusDays(2));
+    existing.setId(UUID.randomUUID());
+    existing.setReservationStatus(ReservationStatus.ACTIVE);
+    transactionTemplate.execute(status -> reservationRepository.write(modelMapper.mapToDbEntity(existing)));
+
+    assertEquals(1L, reservationDayPersistenceService.backfill());
+    assertEquals("Backfilled reservation is not expected to be backfilled again.", 0L,
+        reservationDayPersistenceService.backfill());
+
+    try {
+      bookingItemController.newReservation(UUID.fromString(TestRequestConstant.BOOKING_ITEM_ID),
+          TestRequestConstant.newReservationObj(start.plusDays(1), start.plusDays(2)));
+      fail("Nights of backfilled reservation are expected to be rejected.");
+    } catch (InvalidRequestException ex) {
+      // expected
+    }
+  }
+
+  /**
+   * Tests that nights are local dates in the offset of the request, and that
+   * reservations made in other offsets are checked by their exact dates
+   */
+  @Test
+  public void testNightsAreLocalDatesOfRequestOffset() {
+    final UUID bookingItemId = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[2]);
+    final ZonedDateTime day = TestRequestConstant.RESERVATION_START_DATE.plusDays(24);
+
+    // ends at noon UTC of its second night; nights by UTC date would be the day
+    // before and the first night
+    bookingItemController.newReservation(bookingItemId,
+        TestRequestConstant.newReservationObj(atOffset(day, 12), atOffset(day.plusDays(2), 12)));
+
+    assertNotNull("Adjacent reservation in UTC is expected to be created.", bookingItemController
+        .newReservation(bookingItemId, TestRequestConstant.newReservationObj(day.plusDays(2), day.plusDays(3))));
+    assertNotNull("Adjacent reservation in another offset is expected to be created.",
+        bookingItemController.newReservation(bookingItemId,
+            TestRequestConstant.newReservationObj(atOffset(day.minusDays(2), -12), atOffset(day.minusDays(1), -12))));
+
+    try {
+      bookingItemController.newReservation(bookingItemId,
+          TestRequestConstant.newReservationObj(day.plusDays(1), day.plusDays(2)));
+      fail("Second night of the reservation is expected to be occupied.");
+    } catch (InvalidRequestException ex) {
+      // expected
+    }
+
+    try {
+      bookingItemController.newReservation(bookingItemId,
+          TestRequestConstant.newReservationObj(atOffset(day.minusDays(1), -12), atOffset(day, -12)));
+      fail("Reservation overlapping on a night of another local date is expected to be rejected.");
+    } catch (InvalidRequestException ex) {
+      // expected
+    }
+  }
+
+  /**
+   * Gets the same local date-time in the provided offset
+   * 
+   * @param dateTime date-time value
+   * @param hours    offset in hours
+   * 
+   * @return date-time in the offset
+   */
+  private static ZonedDateTime atOffset(final ZonedDateTime dateTime, final int hours) {
+    return dateTime.withZoneSameLocal(ZoneOffset.ofHours(hours));
+  }
+
+  /**
+   * Creates new reservation request for the booking item
+   * 
+   * @param bookingItemId booking item ID
+   * @param startDate     start date
+   * @param endDate       end date
+   * 
+   * @return reservation request
+   */
+  private static Reservation newReservation(final String bookingItemId, final ZonedDateTime startDate,
+      final ZonedDateTime endDate) {
+    final Reservation reservation = TestRequestConstant.newReservationObj(startDate, endDate);
+    reservation.setBookingItemId(UUID.fromString(bookingItemId));
+    return reservation;
+  }
+
+  /**
+   * Verifies constraints that should hold after concurrent execution of the test
+   */
+  @AfterClass
+  public static void finalization() {
+    ReservationAssertions.assertSingleReservationPerBookingItem(reservationPersistenceService, START_DATE, END_DATE);
+  }
+
+}
@@ -0,0 +1,130 @@
+package com.acme.fastbook.controller;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import org.junit.AfterClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.fastbook.exception.InvalidRequestException;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+import com.acme.fastbook.test.config.ReservationAssertions;
+import com.acme.fastbook.test.config.TestRequestConstant;
+import com.google.code.tempusfugit.concurrency.ConcurrentRule;
+import com.google.code.tempusfugit.concurrency.RepeatingRule;
+import com.google.code.tempusfugit.concurrency.annotations.Concurrent;
+import com.google.code.tempusfugit.concurrency.annotations.Repeating;
+
+/**
+ * Integration test to test that overlapping reservations are rejected when
+ * application runs in SEQUENCER write mode
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "fastbook-config.concurrency-config.write-mode=SEQUENCER",
+    "spring.datasource.url=jdbc:h2:mem:fastbookdb-sequencer;DB_CLOSE_DELAY=-1" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConcurrencySequencerModeIT {
+
+  /** Start date of reservations submitted concurrently */
+  private static final ZonedDateTime START_DATE = TestRequestConstant.RESERVATION_START_DATE.plusDays(7);
+
+  /** End date of reservations submitted concurrently */
+  private static final ZonedDateTime END_DATE = START_DATE.plusDays(2);
+
+  /** Controller object */
+  @Autowired
+  private BookingItemController bookingItemController;
+
+  /**
+   * ReservationPersistenceService from the application. This is static because
+   * it is used in the static context
+   */
+  private static ReservationPersistenceService reservationPersistenceService;
+
+  /**
+   * Setter to autowire bean to private static field
+   * 
+   * @param reservationPersistenceService
+   */
+  @Autowired
+  public void setReservationPersistenceService(ReservationPersistenceService reservationPersistenceService) {
+    ConcurrencySequencerModeIT.reservationPersistenceService = reservationPersistenceService;
+  }
+
+  /** tempus-fugit rule to run the tests concurrently */
+  @Rule
+  public ConcurrentRule concurrently = new ConcurrentRule();
+
+  /** tempus-fugit rule to run the tests repetitively */
+  @Rule
+  public RepeatingRule rule = new RepeatingRule();
+
+  /**
+   * Tests {@link BookingItemController#newReservation(UUID, Reservation)} method
+   * under the load. Test case: when submitting new reservations for the same
+   * dates, only one per booking item should succeed, all others should be
+   * rejected by the sequencer
+   */
+  @Test
+  @Concurrent(count = 50) // number of threads
+  @Repeating(repetition = 5) // number of repetitions in each thread
+  public void testConcurrency() {
+    for (String bookingItemId : TestRequestConstant.BOOKING_ITEM_IDS) {
+      try {
+        bookingItemController.newReservation(UUID.fromString(bookingItemId),
+            TestRequestConstant.newReservationObj(START_DATE, END_DATE));
+      } catch (InvalidRequestException ex) {
+        // Exception is expected to be thrown by application if dates are not available
+      }
+    }
+  }
+
+  /**
+   * Tests that reservations rejected by the sequencer get the same error as in
+   * other modes, and that reservations accepted by it are visible to the next
+   * write
+   */
+  @Test
+  public void testSequencedReservationsAreChecked() {
+    final UUID bookingItemId = UUID.fromString(TestRequestConstant.BOOKING_ITEM_ID);
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE.plusDays(14);
+
+    assertNotNull(bookingItemController.newReservation(bookingItemId,
+        TestRequestConstant.newReservationObj(start, start.plusDays(2))));
+
+    try {
+      bookingItemController.newReservation(bookingItemId,
+          TestRequestConstant.newReservationObj(start.plusDays(1), start.plusDays(2)));
+      fail("Reservation overlapping with the sequenced one is expected to be rejected.");
+    } catch (InvalidRequestException ex) {
+      // expected
+    }
+
+    assertNotNull(bookingItemController.newReservation(bookingItemId,
+        TestRequestConstant.newReservationObj(start.plusDays(3), start.plusDays(4))));
+  }
+
+  /**
+   * Verifies constraints that should hold after concurrent execution of the test
+   */
+  @AfterClass
+  public static void finalization() {
+    ReservationAssertions.assertSingleReservationPerBookingItem(reservationPersistenceService, START_DATE, END_DATE);
+  }
+
+}
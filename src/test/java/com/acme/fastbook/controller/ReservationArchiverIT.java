@@ -0,0 +1,180 @@
+package com.acme.fastbook.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.fastbook.exception.ReservationConflictException;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.persistence.archive.ArchiveRunResult;
+import com.acme.fastbook.persistence.archive.ReservationArchiver;
+import com.acme.fastbook.persistence.index.BookingItemVersionRegistry;
+import com.acme.fastbook.persistence.index.ReservationIndex;
+import com.acme.fastbook.persistence.model.ArchiveCheckpointEntity;
+import com.acme.fastbook.persistence.repository.ArchiveCheckpointRepository;
+import com.acme.fastbook.persistence.repository.ReservationRepository;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+import com.acme.fastbook.test.config.TestRequestConstant;
+
+/**
+ * Integration test to test that ended reservations are completed and moved to
+ * the archive. Archiver is run directly, one reservation per batch.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "fastbook-config.archive-config.batch-size=1",
+    "fastbook-config.archive-config.archive-after-days=0",
+    "spring.datasource.url=jdbc:h2:mem:fastbookdb-archive;DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+public class ReservationArchiverIT {
+
+  /** Booking item of archived reservations */
+  private static final UUID BOOKING_ITEM_ID = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[1]);
+
+  /** Archiver object */
+  @Autowired
+  private ReservationArchiver reservationArchiver;
+
+  /** Persistence service object */
+  @Autowired
+  private ReservationPersistenceService reservationPersistenceService;
+
+  /** Reservation repository */
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  /** Checkpoint repository */
+  @Autowired
+  private ArchiveCheckpointRepository archiveCheckpointRepository;
+
+  /** Reservation index */
+  @Autowired
+  private ReservationIndex reservationIndex;
+
+  /** Template used to change reservations directly */
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  /** Registry of booking item versions */
+  @Autowired
+  private BookingItemVersionRegistry bookingItemVersionRegistry;
+
+  /**
+   * Tests that ended active reservations are completed, ended completed and
+   * cancelled ones are archived and still found by ID, and future ones are kept.
+   * Archived reservations are removed from the reservation index. Cancelling the
+   * archived cancelled reservation has no effect, while completed ones can not
+   * be cancelled.
+   */
+  @Test
+  public void testEndedReservationsAreArchived() {
+
+    final ZonedDateTime pastStart = TestRequestConstant.RESERVATION_START_DATE.minusDays(20);
+    final Reservation ended = create(pastStart);
+    final Reservation endedCancelled = reservationPersistenceService.cancel(create(pastStart.plusDays(3)).getId());
+    final Reservation future = create(TestRequestConstant.RESERVATION_START_DATE);
+
+    // ends after the index was loaded, so searches around its end are served by
+    // the index
+    final ZonedDateTime justEnded = ZonedDateTime.now(ZoneOffset.UTC).minus(10, ChronoUnit.MILLIS);
+    final Reservation indexed = create(justEnded.minusDays(1));
+    assertEquals(Arrays.asList(indexed.getId()), indexedIds(justEnded));
+
+    final String versionBefore = bookingItemVersionRegistry.getVersion(BOOKING_ITEM_ID).get();
+
+    final ArchiveRunResult result = reservationArchiver.archive();
+
+    assertEquals("Ended active reservations are expected to be completed.", 2, result.getCompleted());
+    assertEquals("Ended reservations are expected to be archived.", 3, result.getArchived());
+    assertEquals("Archived reservation is expected to be removed from the index.", Collections.emptyList(),
+        indexedIds(justEnded));
+
+    assertFalse(reservationRepository.findById(ended.getId()).isPresent());
+    assertFalse(reservationRepository.findById(endedCancelled.getId()).isPresent());
+    assertEquals(ReservationStatus.COMPLETED,
+        reservationPersistenceService.getReservation(ended.getId()).getReservationStatus());
+    assertEquals(ReservationStatus.CANCELLED,
+        reservationPersistenceService.getReservation(endedCancelled.getId()).getReservationStatus());
+    assertEquals(ReservationStatus.ACTIVE,
+        reservationPersistenceService.getReservation(future.getId()).getReservationStatus());
+
+    assertEquals(ReservationStatus.CANCELLED,
+        reservationPersistenceService.cancel(endedCancelled.getId()).getReservationStatus());
+    try {
+      reservationPersistenceService.cancel(ended.getId());
+      fail("Archived completed reservation is expected not to be cancelled.");
+    } catch (ReservationConflictException ex) {
+      assertEquals(ReservationStatus.COMPLETED,
+          reservationPersistenceService.getReservation(ended.getId()).getReservationStatus());
+    }
+
+    assertNotEquals("Booking item version is expected to change.", versionBefore,
+        bookingItemVersionRegistry.getVersion(BOOKING_ITEM_ID).get());
+
+    final ArchiveCheckpointEntity checkpoint = archiveCheckpointRepository.findAll().iterator().next();
+    assertTrue("Run is expected to be finished.", checkpoint.isFinished());
+    assertEquals(3, checkpoint.getArchivedCount());
+
+    final ArchiveRunResult nextResult = reservationArchiver.archive();
+    assertEquals(0, nextResult.getCompleted());
+    assertEquals(0, nextResult.getArchived());
+
+    // completed in DB only, so the in-memory index still holds it as active, while
+    // the cancellation reads the status from DB
+    transactionTemplate.execute(status -> reservationRepository.complete(Arrays.asList(future.getId()),
+        com.acme.fastbook.persistence.model.ReservationStatus.ACTIVE,
+        com.acme.fastbook.persistence.model.ReservationStatus.COMPLETED));
+    try {
+      reservationPersistenceService.cancel(future.getId());
+      fail("Completed reservation is expected not to be cancelled.");
+    } catch (ReservationConflictException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().contains(String.format("[%s]", ReservationStatus.COMPLETED)));
+    }
+  }
+
+  /**
+   * Gets IDs of reservations found by the reservation index around the moment
+   *
+   * @param moment moment to search around
+   *
+   * @return reservation IDs
+   */
+  private List<UUID> indexedIds(final ZonedDateTime moment) {
+    return reservationIndex.findOverlapping(BOOKING_ITEM_ID, moment, moment).get().stream().map(Reservation::getId)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Creates a one night reservation of the booking item bypassing request
+   * validation, so that it might end in the past
+   * 
+   * @param startDate start date
+   * 
+   * @return created reservation
+   */
+  private Reservation create(final ZonedDateTime startDate) {
+    return TestRequestConstant.createReservation(reservationPersistenceService, BOOKING_ITEM_ID, startDate);
+  }
+}
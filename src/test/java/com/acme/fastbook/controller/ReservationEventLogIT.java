@@ -0,0 +1,213 @@
+package com.acme.fastbook.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.persistence.archive.ReservationArchiver;
+import com.acme.fastbook.persistence.eventlog.ReservationEventLog;
+import com.acme.fastbook.persistence.index.ReservationIndex;
+import com.acme.fastbook.persistence.model.ReservationEntity;
+import com.acme.fastbook.persistence.model.ReservationEventEntity;
+import com.acme.fastbook.persistence.model.ReservationEventType;
+import com.acme.fastbook.persistence.repository.ReservationEventRepository;
+import com.acme.fastbook.persistence.repository.ReservationRepository;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+import com.acme.fastbook.test.config.TestRequestConstant;
+
+/**
+ * Integration test to test that reservations rebuilt from the snapshot and the
+ * reservation event log match active reservations of the reservation table,
+ * and that the index they are loaded to serves reservations by ID
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "fastbook-config.event-log-config.enabled=true",
+    "fastbook-config.archive-config.archive-after-days=1",
+    "spring.datasource.url=jdbc:h2:mem:fastbookdb-event-log;DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+public class ReservationEventLogIT {
+
+  /** Booking item of logged reservations */
+  private static final UUID BOOKING_ITEM_ID = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[0]);
+
+  /** Reservation event log object */
+  @Autowired
+  private ReservationEventLog reservationEventLog;
+
+  /** Persistence service object */
+  @Autowired
+  private ReservationPersistenceService reservationPersistenceService;
+
+  /** Reservation repository */
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  /** Reservation event repository */
+  @Autowired
+  private ReservationEventRepository reservationEventRepository;
+
+  /** Reservation index */
+  @Autowired
+  private ReservationIndex reservationIndex;
+
+  /** Archiver object */
+  @Autowired
+  private ReservationArchiver reservationArchiver;
+
+  /**
+   * Tests that creations, updates and cancellations are replayed both on top of
+   * the startup snapshot and on top of a later one
+   */
+  @Test
+  public void testReplayMatchesReservationTable() {
+
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE;
+    final Reservation renamed = create(start);
+    final Reservation moved = create(start.plusDays(2));
+    final Reservation cancelled = create(start.plusDays(4));
+
+    final Reservation rename = new Reservation();
+    rename.setId(renamed.getId());
+    rename.setCustomerName("Renamed Customer");
+    reservationPersistenceService.checkDatesAndUpdate(rename, Arrays.asList(ReservationStatus.CANCELLED));
+
+    final Reservation move = new Reservation();
+    move.setId(moved.getId());
+    move.setDateRange(new DateRange(start.plusDays(6), start.plusDays(7)));
+    reservationPersistenceService.checkDatesAndUpdate(move, Arrays.asList(ReservationStatus.CANCELLED));
+
+    reservationPersistenceService.cancel(cancelled.getId());
+
+    assertEquals("Renamed Customer", reservationIndex.findById(renamed.getId()).get().getCustomerName());
+    assertEquals("Renamed Customer", reservationPersistenceService.getReservation(renamed.getId()).getCustomerName());
+    assertFalse(reservationIndex.findById(cancelled.getId()).isPresent());
+    assertEquals(ReservationStatus.CANCELLED,
+        reservationPersistenceService.getReservation(cancelled.getId()).getReservationStatus());
+
+    Map<UUID, Reservation> replayed = reservationEventLog.replay();
+    assertMatchesReservationTable(replayed);
+    assertEquals("Renamed Customer", replayed.get(renamed.getId()).getCustomerName());
+    assertTrue(replayed.get(moved.getId()).getDateRange().getStartDate().isEqual(start.plusDays(6)));
+    assertFalse(replayed.containsKey(cancelled.getId()));
+
+    assertEquals(replayed.size(), reservationEventLog.snapshot());
+
+    final Reservation createdAfterSnapshot = create(start.plusDays(8));
+    reservationPersistenceService.cancel(renamed.getId());
+
+    replayed = reservationEventLog.replay();
+    assertMatchesReservationTable(replayed);
+    assertTrue(replayed.containsKey(createdAfterSnapshot.getId()));
+    assertFalse(replayed.containsKey(renamed.getId()));
+  }
+
+  /**
+   * Tests that reservations completed by the archiver are not rebuilt, and that
+   * archived ones are logged after their completion and are not part of the
+   * snapshot
+   */
+  @Test
+  public void testArchivedReservationsAreNotReplayed() {
+
+    final Reservation endedLongAgo = create(TestRequestConstant.RESERVATION_START_DATE.minusDays(20));
+    final Reservation cancelledLongAgo = reservationPersistenceService
+        .cancel(create(TestRequestConstant.RESERVATION_START_DATE.minusDays(17)).getId());
+    final Reservation justEnded = create(
+        ZonedDateTime.now(ZoneOffset.UTC).minus(10, ChronoUnit.MILLIS).minusDays(1));
+
+    reservationArchiver.archive();
+
+    assertEquals(ReservationStatus.COMPLETED,
+        reservationPersistenceService.getReservation(justEnded.getId()).getReservationStatus());
+    assertEquals(
+        Arrays.asList(ReservationEventType.CREATED, ReservationEventType.COMPLETED, ReservationEventType.ARCHIVED),
+        eventTypes(endedLongAgo.getId()));
+    assertEquals(
+        Arrays.asList(ReservationEventType.CREATED, ReservationEventType.CANCELLED, ReservationEventType.ARCHIVED),
+        eventTypes(cancelledLongAgo.getId()));
+
+    final Map<UUID, Reservation> replayed = reservationEventLog.replay();
+    assertMatchesReservationTable(replayed);
+    assertFalse(replayed.containsKey(justEnded.getId()));
+    assertFalse(replayed.containsKey(endedLongAgo.getId()));
+
+    assertEquals("Snapshot is expected to hold active reservations only.", replayed.size(),
+        reservationEventLog.snapshot());
+    assertMatchesReservationTable(reservationEventLog.replay());
+  }
+
+  /**
+   * Gets types of the events of the reservation in the order they were
+   * appended
+   * 
+   * @param reservationId reservation ID
+   * 
+   * @return event types
+   */
+  private List<ReservationEventType> eventTypes(final UUID reservationId) {
+    return StreamSupport.stream(reservationEventRepository.findAll().spliterator(), false)
+        .filter(event -> event.getReservationId().equals(reservationId))
+        .sorted(Comparator.comparing(ReservationEventEntity::getId)).map(ReservationEventEntity::getEventType)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Asserts that rebuilt reservations are the active ones of the reservation
+   * table, with the same dates and customer names
+   * 
+   * @param replayed rebuilt reservations keyed by their IDs
+   */
+  private void assertMatchesReservationTable(final Map<UUID, Reservation> replayed) {
+
+    final Set<UUID> expectedIds = StreamSupport.stream(reservationRepository.findAll().spliterator(), false)
+        .filter(entity -> entity
+            .getReservationStatus() == com.acme.fastbook.persistence.model.ReservationStatus.ACTIVE)
+        .map(ReservationEntity::getId).collect(Collectors.toSet());
+
+    assertEquals(expectedIds, replayed.keySet());
+
+    for (Reservation reservation : replayed.values()) {
+      final Reservation fromDb = reservationPersistenceService.getReservation(reservation.getId());
+      assertEquals(fromDb.getCustomerName(), reservation.getCustomerName());
+      assertEquals(fromDb.getReservationStatus(), reservation.getReservationStatus());
+      assertTrue(fromDb.getDateRange().getStartDate().isEqual(reservation.getDateRange().getStartDate()));
+      assertTrue(fromDb.getDateRange().getEndDate().isEqual(reservation.getDateRange().getEndDate()));
+    }
+  }
+
+  /**
+   * Creates a one night reservation of the booking item
+   * 
+   * @param startDate start date
+   * 
+   * @return created reservation
+   */
+  private Reservation create(final ZonedDateTime startDate) {
+    return TestRequestConstant.createReservation(reservationPersistenceService, BOOKING_ITEM_ID, startDate);
+  }
+}
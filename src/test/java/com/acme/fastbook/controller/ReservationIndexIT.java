@@ -0,0 +1,96 @@
+package com.acme.fastbook.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.persistence.index.ReservationIndex;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+import com.acme.fastbook.test.config.TestRequestConstant;
+
+/**
+ * Integration test to test that ended reservations are evicted from the
+ * reservation index
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:fastbookdb-index;DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+public class ReservationIndexIT {
+
+  /** Booking item of indexed reservations */
+  private static final UUID BOOKING_ITEM_ID = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[0]);
+
+  /** Reservation index */
+  @Autowired
+  private ReservationIndex reservationIndex;
+
+  /** Persistence service object */
+  @Autowired
+  private ReservationPersistenceService reservationPersistenceService;
+
+  /**
+   * Tests that reservations ending before the cutoff are evicted, searches
+   * starting before the cutoff are no longer served, and later reservations are
+   * kept
+   */
+  @Test
+  public void testEndedReservationsAreEvicted() {
+
+    final ZonedDateTime pastStart = TestRequestConstant.RESERVATION_START_DATE.minusDays(20);
+    create(pastStart);
+    final Reservation future = create(TestRequestConstant.RESERVATION_START_DATE);
+    final ZonedDateTime searchEnd = TestRequestConstant.RESERVATION_START_DATE.plusDays(2);
+
+    final ZonedDateTime cutoff = TestRequestConstant.RESERVATION_START_DATE.minusDays(1);
+    assertEquals(1L, reservationIndex.evictEndedBefore(cutoff));
+
+    assertFalse("Search starting before the cutoff is expected to fall back to DB.",
+        reservationIndex.findOverlapping(BOOKING_ITEM_ID, pastStart, searchEnd).isPresent());
+    assertFalse(reservationIndex.countOverlapping(BOOKING_ITEM_ID, pastStart, searchEnd).isPresent());
+
+    final List<UUID> found = ids(reservationIndex.findOverlapping(BOOKING_ITEM_ID, cutoff, searchEnd));
+    assertEquals(Arrays.asList(future.getId()), found);
+
+    assertEquals(0L, reservationIndex.evictEndedBefore(cutoff));
+  }
+
+  /**
+   * Gets IDs of found reservations
+   * 
+   * @param reservations search result served by the index
+   * 
+   * @return reservation IDs
+   */
+  private static List<UUID> ids(final Optional<List<Reservation>> reservations) {
+    return reservations.get().stream().map(Reservation::getId).collect(Collectors.toList());
+  }
+
+  /**
+   * Creates a one night reservation of the booking item bypassing request
+   * validation, so that it might end in the past
+   * 
+   * @param startDate start date
+   * 
+   * @return created reservation
+   */
+  private Reservation create(final ZonedDateTime startDate) {
+    return TestRequestConstant.createReservation(reservationPersistenceService, BOOKING_ITEM_ID, startDate);
+  }
+}
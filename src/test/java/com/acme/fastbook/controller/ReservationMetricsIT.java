@@ -0,0 +1,93 @@
+package com.acme.fastbook.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.fastbook.metrics.MetricNames;
+import com.acme.fastbook.model.DateRange;
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+import com.acme.fastbook.test.config.TestRequestConstant;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Integration test to test that reservation write outcomes are tagged by the
+ * booking item of the stored reservation
+ *
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "fastbook-config.metrics-config.booking-item-tag-enabled=true",
+    "spring.datasource.url=jdbc:h2:mem:fastbookdb-metrics;DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+public class ReservationMetricsIT {
+
+  /** Booking item of written reservations */
+  private static final UUID BOOKING_ITEM_ID = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[0]);
+
+  /** Persistence service object */
+  @Autowired
+  private ReservationPersistenceService reservationPersistenceService;
+
+  /** Micrometer registry */
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /**
+   * Tests that updates and cancellations, whose requests do not carry the
+   * booking item, are counted under the booking item of the stored reservation
+   */
+  @Test
+  public void testUpdateAndCancelAreTaggedByBookingItem() {
+
+    final ZonedDateTime start = TestRequestConstant.RESERVATION_START_DATE;
+    final Reservation created = create(start);
+
+    final Reservation update = new Reservation();
+    update.setId(created.getId());
+    update.setDateRange(new DateRange(start.plusDays(1), start.plusDays(2)));
+    reservationPersistenceService.checkDatesAndUpdate(update, Arrays.asList(ReservationStatus.CANCELLED));
+
+    reservationPersistenceService.cancel(created.getId());
+
+    assertEquals(1.0, successCount(MetricNames.OPERATION_UPDATE), 0.0);
+    assertEquals(1.0, successCount(MetricNames.OPERATION_CANCEL), 0.0);
+  }
+
+  /**
+   * Gets the count of successful writes of the booking item
+   *
+   * @param operation write operation
+   *
+   * @return count of successful writes
+   */
+  private double successCount(final String operation) {
+    return meterRegistry.counter(MetricNames.RESERVATION_OUTCOME, MetricNames.TAG_OPERATION, operation,
+        MetricNames.TAG_OUTCOME, MetricNames.OUTCOME_SUCCESS, MetricNames.TAG_BOOKING_ITEM, BOOKING_ITEM_ID.toString())
+        .count();
+  }
+
+  /**
+   * Creates a one night reservation of the booking item
+   *
+   * @param startDate start date
+   *
+   * @return created reservation
+   */
+  private Reservation create(final ZonedDateTime startDate) {
+    return TestRequestConstant.createReservation(reservationPersistenceService, BOOKING_ITEM_ID, startDate);
+  }
+}
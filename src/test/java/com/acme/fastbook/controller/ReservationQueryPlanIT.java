@@ -0,0 +1,176 @@
+package com.acme.fastbook.controller;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.persistence.model.ReservationStatus;
+import com.acme.fastbook.persistence.repository.ReservationRepository;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+import com.acme.fastbook.test.config.RecordingStatementInspector;
+import com.acme.fastbook.test.config.TestRequestConstant;
+
+/**
+ * Integration test to check that overlap queries on reservations are served by
+ * the composite index on (booking_item_id, start_date, end_date). The SQL
+ * generated by Hibernate is captured and explained by H2. The in-memory index
+ * is disabled, so that searches go to DB.
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.acme.fastbook.test.config.RecordingStatementInspector",
+    "spring.datasource.url=jdbc:h2:mem:fastbookdb-query-plan;DB_CLOSE_DELAY=-1",
+    "fastbook-config.cache-config.reservation-index-enabled=false" })
+@ActiveProfiles("test")
+public class ReservationQueryPlanIT {
+
+  /** Name of the composite index on reservation table */
+  private static final String OVERLAP_INDEX_NAME = "IDX_RESERVATION_BOOKING_ITEM_DATES";
+
+  /** Booking item to search reservations for */
+  private static final UUID BOOKING_ITEM_ID = UUID.fromString(TestRequestConstant.BOOKING_ITEM_ID);
+
+  /** Start of the search range */
+  private static final ZonedDateTime START_RANGE = TestRequestConstant.RESERVATION_START_DATE;
+
+  /** End of the search range */
+  private static final ZonedDateTime END_RANGE = START_RANGE.plusDays(3);
+
+  /** Controller object */
+  @Autowired
+  private BookingItemController bookingItemController;
+
+  /** Persistence service object */
+  @Autowired
+  private ReservationPersistenceService reservationPersistenceService;
+
+  /** Repository whose queries are checked */
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  /** JDBC template to explain the captured SQL */
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /**
+   * Clears SQL recorded by previous tests
+   */
+  @Before
+  public void clearStatements() {
+    RecordingStatementInspector.clear();
+  }
+
+  /**
+   * Tests that the single booking item overlap query uses the composite index
+   */
+  @Test
+  public void testOverlapQueryUsesCompositeIndex() {
+
+    reservationRepository.findAllForBookingItemIdAndWithinDateRange(BOOKING_ITEM_ID, START_RANGE, END_RANGE,
+        Collections.singletonList(ReservationStatus.ACTIVE));
+
+    assertUsesOverlapIndex(getReservationQuery());
+  }
+
+  /**
+   * Tests that the overlap count query uses the composite index
+   */
+  @Test
+  public void testOverlapCountQueryUsesCompositeIndex() {
+
+    reservationRepository.getNumberOfReservations(BOOKING_ITEM_ID, START_RANGE, END_RANGE,
+        Collections.singletonList(ReservationStatus.ACTIVE));
+
+    assertUsesOverlapIndex(getReservationQuery());
+  }
+
+  /**
+   * Tests that reserved periods are read by a projection query, which uses the
+   * composite index and returns epoch pairs sorted by start
+   */
+  @Test
+  public void testReservedPeriodsQueryUsesCompositeIndex() {
+
+    final UUID bookingItemId = UUID.fromString(TestRequestConstant.BOOKING_ITEM_IDS[1]);
+    final ZonedDateTime firstStart = START_RANGE.plusDays(10);
+    final ZonedDateTime secondStart = firstStart.plusDays(3);
+
+    // Create the later reservation first
+    final Reservation second = bookingItemController.newReservation(bookingItemId,
+        TestRequestConstant.newReservationObj(secondStart, secondStart.plusDays(1)));
+    final Reservation first = bookingItemController.newReservation(bookingItemId,
+        TestRequestConstant.newReservationObj(firstStart, firstStart.plusDays(1)));
+
+    RecordingStatementInspector.clear();
+
+    final long[] reservedPeriods = reservationPersistenceService.findReservedPeriods(bookingItemId, firstStart,
+        secondStart.plusDays(1), Collections.singletonList(com.acme.fastbook.model.ReservationStatus.CANCELLED));
+
+    assertArrayEquals(new long[] { toEpochMilli(first.getDateRange().getStartDate()),
+        toEpochMilli(first.getDateRange().getEndDate()), toEpochMilli(second.getDateRange().getStartDate()),
+        toEpochMilli(second.getDateRange().getEndDate()) }, reservedPeriods);
+
+    final String sql = getReservationQuery();
+    assertFalse("Projection query is expected to skip customer details: " + sql,
+        sql.toLowerCase().contains("customer_name"));
+    assertUsesOverlapIndex(sql);
+  }
+
+  /**
+   * Presents date-time as epoch milliseconds
+   * 
+   * @param dateTime date-time value
+   * 
+   * @return epoch milliseconds
+   */
+  private static long toEpochMilli(final ZonedDateTime dateTime) {
+    return dateTime.toInstant().toEpochMilli();
+  }
+
+  /**
+   * Gets the only captured SQL query selecting from the reservation table
+   * 
+   * @return SQL query
+   */
+  private String getReservationQuery() {
+
+    final List<String> queries = RecordingStatementInspector.getStatements().stream()
+        .filter(sql -> sql.toLowerCase().contains("from reservation "))
+        .collect(Collectors.toList());
+
+    assertEquals("Unexpected queries: " + queries, 1, queries.size());
+    return queries.get(0);
+  }
+
+  /**
+   * Asserts that H2 plans the provided query using the composite index
+   * 
+   * @param sql SQL query with parameters
+   */
+  private void assertUsesOverlapIndex(final String sql) {
+
+    final String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+    assertTrue("Composite index is not used: " + plan, plan.toUpperCase().contains(OVERLAP_INDEX_NAME));
+  }
+}
@@ -0,0 +1,53 @@
+package com.acme.fastbook.test.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} which records every SQL statement
+ * generated by Hibernate, so that tests can inspect the SQL of JPQL queries
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+  /** Serial version UID */
+  private static final long serialVersionUID = 1L;
+
+  /** Recorded SQL statements */
+  private static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Records the statement and returns it unchanged
+   * 
+   * @param sql SQL statement prepared by Hibernate
+   * 
+   * @return the same SQL statement
+   */
+  @Override
+  public String inspect(final String sql) {
+    STATEMENTS.add(sql);
+    return sql;
+  }
+
+  /**
+   * Clears the recorded statements
+   */
+  public static void clear() {
+    STATEMENTS.clear();
+  }
+
+  /**
+   * Gets the statements recorded since the last {@link #clear()}
+   * 
+   * @return list of SQL statements
+   */
+  public static List<String> getStatements() {
+    return new ArrayList<>(STATEMENTS);
+  }
+}
@@ -0,0 +1,44 @@
+package com.acme.fastbook.test.config;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.UUID;
+
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
+
+/**
+ * Assertions on reservations stored by the application
+ * 
+ * @author Mykhaylo Symulyk
+ *
+ */
+public class ReservationAssertions {
+
+  /**
+   * Asserts that every booking item has exactly one reservation which is not
+   * cancelled within the date range. It verifies that only one of the
+   * concurrent requests with the same dates has been written to DB.
+   * 
+   * @param reservationPersistenceService persistence service of the application
+   * @param startDate                     start of the date range
+   * @param endDate                       end of the date range
+   */
+  public static void assertSingleReservationPerBookingItem(
+      final ReservationPersistenceService reservationPersistenceService, final ZonedDateTime startDate,
+      final ZonedDateTime endDate) {
+
+    for (String bookingItemId : TestRequestConstant.BOOKING_ITEM_IDS) {
+      int nbRows = reservationPersistenceService
+          .findAllForBookingItemIdAndWithinDateRange(UUID.fromString(bookingItemId), startDate, endDate,
+              Collections.singletonList(ReservationStatus.CANCELLED))
+          .size();
+      assertEquals(String.format(
+          "Actual number of rows for booking item [%s] = [%d]. Only a single row is expected to be written to DB. %nAll other writes with the same dates should be rejected by application.",
+          bookingItemId, nbRows), 1, nbRows);
+    }
+  }
+
+}
@@ -1,10 +1,17 @@
 package com.acme.fastbook.test.config;
 
+import java.math.BigDecimal;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.UUID;
 
 import com.acme.fastbook.model.DateRange;
 import com.acme.fastbook.model.Reservation;
+import com.acme.fastbook.model.ReservationStatus;
+import com.acme.fastbook.persistence.service.ReservationPersistenceService;
 
 /**
  * Collection of JSON requests
@@ -14,15 +21,78 @@ import com.acme.fastbook.model.Reservation;
  */
 public class TestRequestConstant {
 
-  /** Input Reservation request */
-  public final static Reservation RESERVATION_OBJ = new Reservation(null, null, null, "John Doe", "john.doe@world.com",
-      new DateRange(ZonedDateTime.of(2021, 1, 21, 10, 15, 30, 123, ZoneOffset.UTC),
-          ZonedDateTime.of(2021, 1, 22, 10, 15, 30, 1, ZoneOffset.UTC)),
-      null);
+  /** ID of the booking item inserted by /src/test/resources/insert-booking-item.sql */
+  public final static String BOOKING_ITEM_ID = "a42d22e0-42fb-11eb-b378-0242ac130002";
+
+  /**
+   * IDs of all booking items inserted by
+   * /src/test/resources/insert-booking-item.sql
+   */
+  public final static String[] BOOKING_ITEM_IDS = { BOOKING_ITEM_ID, "b7e5c3b2-5c6d-4b8a-9f21-0242ac130003",
+      "c1f0a9d4-7e2b-4c3d-8a10-0242ac130004" };
+
+  /**
+   * Start date of the test reservation. Dates are relative to the current date,
+   * so that requests always satisfy advance reservation constraints.
+   */
+  public final static ZonedDateTime RESERVATION_START_DATE = ZonedDateTime.now(ZoneOffset.UTC)
+      .truncatedTo(ChronoUnit.DAYS).plusDays(3).withHour(10).withMinute(15);
+
+  /** End date of the test reservation */
+  public final static ZonedDateTime RESERVATION_END_DATE = RESERVATION_START_DATE.plusDays(1);
 
   /** Request to create a new Reservation */
   public final static String CREATE_RESERVATION_REQUEST_JSON = "{" + "\"customer-name\": \"John Doe\","
-      + "\"customer-email\": \"john.doe@world.com\"," + "\"date-range\": {"
-      + "  \"start-date\": \"2021-01-21T10:15:30.123Z\"," + "  \"end-date\": \"2021-01-22T10:15:30.1Z\"" + " }" + "}";
+      + "\"customer-email\": \"john.doe@world.com\"," + "\"date-range\": {" + "  \"start-date\": \""
+      + DateTimeFormatter.ISO_INSTANT.format(RESERVATION_START_DATE) + "\"," + "  \"end-date\": \""
+      + DateTimeFormatter.ISO_INSTANT.format(RESERVATION_END_DATE) + "\"" + " }" + "}";
+
+  /**
+   * Creates new input Reservation request. Controller modifies the request
+   * object, so every call gets its own instance.
+   * 
+   * @return new Reservation request
+   */
+  public static Reservation newReservationObj() {
+    return new Reservation(null, null, null, "John Doe", "john.doe@world.com",
+        new DateRange(RESERVATION_START_DATE, RESERVATION_END_DATE), null, null);
+  }
+
+  /**
+   * Creates new input Reservation request for the provided dates
+   * 
+   * @param startDate start date
+   * @param endDate   end date
+   * 
+   * @return new Reservation request
+   */
+  public static Reservation newReservationObj(final ZonedDateTime startDate, final ZonedDateTime endDate) {
+    final Reservation reservation = newReservationObj();
+    reservation.setDateRange(new DateRange(startDate, endDate));
+    return reservation;
+  }
+
+  /**
+   * Creates a one night reservation of the booking item by the persistence
+   * service. Request validation is bypassed, so that the reservation might end
+   * in the past.
+   * 
+   * @param reservationPersistenceService persistence service object
+   * @param bookingItemId                 booking item ID
+   * @param startDate                     start date
+   * 
+   * @return created reservation
+   */
+  public static Reservation createReservation(final ReservationPersistenceService reservationPersistenceService,
+      final UUID bookingItemId, final ZonedDateTime startDate) {
+
+    final Reservation reservation = newReservationObj(startDate, startDate.plusDays(1));
+    reservation.setId(UUID.randomUUID());
+    reservation.setBookingItemId(bookingItemId);
+    reservation.setReservationStatus(ReservationStatus.ACTIVE);
+    reservation.setDailyCost(BigDecimal.TEN);
+
+    return reservationPersistenceService.checkDatesAndCreate(reservation, Arrays.asList(ReservationStatus.CANCELLED));
+  }
 
 }
@@ -8,3 +8,23 @@ VALUES (
  499.99, 
  '00:01',
  '00:00');
+
+INSERT INTO booking_item (id, title, description, address, base_daily_cost, checkin_time, checkout_time)
+VALUES (
+ REPLACE('b7e5c3b2-5c6d-4b8a-9f21-0242ac130003', '-', ''), 
+ 'Beach camp site on new born island', 
+ 'Second campsite next to the beach', 
+ 'Paradise Street, 2, Paradise Island, Pacific Ocean', 
+ 399.99, 
+ '00:01',
+ '00:00');
+
+INSERT INTO booking_item (id, title, description, address, base_daily_cost, checkin_time, checkout_time)
+VALUES (
+ REPLACE('c1f0a9d4-7e2b-4c3d-8a10-0242ac130004', '-', ''), 
+ 'Volcano camp site on new born island', 
+ 'Third campsite at the foot of the volcano', 
+ 'Paradise Street, 3, Paradise Island, Pacific Ocean', 
+ 299.99, 
+ '00:01',
+ '00:00');